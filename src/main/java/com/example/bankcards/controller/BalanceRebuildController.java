@@ -0,0 +1,46 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.BalanceRebuildJobDto;
+import com.example.bankcards.dto.BalanceRebuildRequest;
+import com.example.bankcards.service.rebuild.BalanceRebuildService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/balance-rebuilds")
+@RequiredArgsConstructor
+@Tag(name = "Balance Rebuild", description = "APIs for recomputing card balances from the transfer log")
+@SecurityRequirement(name = "bearerAuth")
+public class BalanceRebuildController {
+
+    private final BalanceRebuildService balanceRebuildService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Start rebuilding balances for the given cards or all cards (ADMIN only)")
+    public ResponseEntity<BalanceRebuildJobDto> startRebuild(@RequestBody BalanceRebuildRequest request) {
+        BalanceRebuildJobDto job = balanceRebuildService.startRebuild(request);
+        return ResponseEntity.accepted().body(job);
+    }
+
+    @PostMapping("/{jobId}/resume")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Resume an interrupted balance rebuild from its last checkpoint (ADMIN only)")
+    public ResponseEntity<BalanceRebuildJobDto> resumeRebuild(@PathVariable Long jobId) {
+        BalanceRebuildJobDto job = balanceRebuildService.resumeRebuild(jobId);
+        return ResponseEntity.accepted().body(job);
+    }
+
+    @GetMapping("/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get balance rebuild progress and throughput (ADMIN only)")
+    public ResponseEntity<BalanceRebuildJobDto> getRebuild(@PathVariable Long jobId) {
+        BalanceRebuildJobDto job = balanceRebuildService.getRebuild(jobId);
+        return ResponseEntity.ok(job);
+    }
+}
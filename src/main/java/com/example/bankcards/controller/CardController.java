@@ -76,6 +76,14 @@ public class CardController {
         return ResponseEntity.ok(totalBalance);
     }
 
+    @GetMapping("/{cardId}/balance/posted")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get card balance derived from the posting ledger (ADMIN only)")
+    public ResponseEntity<Long> getPostedBalance(@PathVariable Long cardId) {
+        Long balance = cardService.getPostedBalance(cardId);
+        return ResponseEntity.ok(balance);
+    }
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Get all cards (ADMIN only)")
@@ -111,6 +119,22 @@ public class CardController {
         return ResponseEntity.ok(activatedCard);
     }
 
+    @PatchMapping("/{cardId}/balance-shards")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Split a hot card's incoming credits across balance shards (ADMIN only)")
+    public ResponseEntity<CardDto> enableBalanceShards(@PathVariable Long cardId, @RequestParam int count) {
+        CardDto card = cardService.enableBalanceShards(cardId, count);
+        return ResponseEntity.ok(card);
+    }
+
+    @DeleteMapping("/{cardId}/balance-shards")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Fold a card's balance shards back into the card (ADMIN only)")
+    public ResponseEntity<CardDto> disableBalanceShards(@PathVariable Long cardId) {
+        CardDto card = cardService.disableBalanceShards(cardId);
+        return ResponseEntity.ok(card);
+    }
+
     @DeleteMapping("/{cardId}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Delete card (ADMIN only)")
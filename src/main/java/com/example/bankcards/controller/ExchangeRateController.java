@@ -0,0 +1,42 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.ExchangeRateDto;
+import com.example.bankcards.dto.ExchangeRateUpdateRequest;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.service.exchange.ExchangeRateService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/exchange-rates")
+@RequiredArgsConstructor
+@Tag(name = "Exchange Rates", description = "APIs for currency rates used by cross-currency transfers")
+@SecurityRequirement(name = "bearerAuth")
+public class ExchangeRateController {
+
+    private final ExchangeRateService exchangeRateService;
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @Operation(summary = "Get exchange rates as units per base currency")
+    public ResponseEntity<List<ExchangeRateDto>> getRates() {
+        List<ExchangeRateDto> rates = exchangeRateService.getRates();
+        return ResponseEntity.ok(rates);
+    }
+
+    @PutMapping("/{currency}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Set the exchange rate of a currency (ADMIN only)")
+    public ResponseEntity<ExchangeRateDto> updateRate(@PathVariable Currency currency,
+                                                      @RequestBody ExchangeRateUpdateRequest request) {
+        ExchangeRateDto rate = exchangeRateService.updateRate(currency, request.getRate());
+        return ResponseEntity.ok(rate);
+    }
+}
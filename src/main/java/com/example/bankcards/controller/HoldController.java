@@ -0,0 +1,82 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.HoldCaptureRequest;
+import com.example.bankcards.dto.HoldDto;
+import com.example.bankcards.dto.HoldRequest;
+import com.example.bankcards.dto.TransferResultDto;
+import com.example.bankcards.service.hold.HoldService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/holds")
+@RequiredArgsConstructor
+@Tag(name = "Holds", description = "APIs for reserving funds and settling them later")
+@SecurityRequirement(name = "bearerAuth")
+public class HoldController {
+
+    private final HoldService holdService;
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @Operation(summary = "Reserve funds on own card for a later capture")
+    public ResponseEntity<HoldDto> authorize(@RequestBody HoldRequest request) {
+        HoldDto hold = holdService.authorize(request);
+        return ResponseEntity.ok(hold);
+    }
+
+    @PostMapping("/capture")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Capture many holds into transfers in one transaction (Admin only)")
+    public ResponseEntity<List<TransferResultDto>> capture(@RequestBody List<HoldCaptureRequest> requests) {
+        List<TransferResultDto> results = holdService.capture(requests);
+        return ResponseEntity.ok(results);
+    }
+
+    @PostMapping("/{holdId}/capture")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Capture a hold, optionally for less than the held amount (Admin only)")
+    public ResponseEntity<TransferResultDto> captureOne(@PathVariable Long holdId,
+                                                        @RequestParam(required = false) Long amount) {
+        List<TransferResultDto> results = holdService.capture(List.of(HoldCaptureRequest.builder()
+                .holdId(holdId)
+                .amount(amount)
+                .build()));
+        return ResponseEntity.ok(results.get(0));
+    }
+
+    @GetMapping("/my")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @Operation(summary = "Get current user's holds")
+    public ResponseEntity<Page<HoldDto>> getMyHolds(
+            @PageableDefault(size = 20, sort = "createdAt") Pageable pageable) {
+        Page<HoldDto> holds = holdService.getMyHolds(pageable);
+        return ResponseEntity.ok(holds);
+    }
+
+    @GetMapping("/{holdId}")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @Operation(summary = "Get own hold by ID")
+    public ResponseEntity<HoldDto> getHold(@PathVariable Long holdId) {
+        HoldDto hold = holdService.getHold(holdId);
+        return ResponseEntity.ok(hold);
+    }
+
+    @DeleteMapping("/{holdId}")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @Operation(summary = "Void own hold and release the reserved funds")
+    public ResponseEntity<Void> voidHold(@PathVariable Long holdId) {
+        holdService.voidHold(holdId);
+        return ResponseEntity.noContent().build();
+    }
+}
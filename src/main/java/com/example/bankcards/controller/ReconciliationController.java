@@ -0,0 +1,38 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.ReconciliationReportDto;
+import com.example.bankcards.service.reconciliation.ReconciliationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/reconciliation")
+@RequiredArgsConstructor
+@Tag(name = "Reconciliation", description = "APIs for verifying card balances against transfer history")
+@SecurityRequirement(name = "bearerAuth")
+public class ReconciliationController {
+
+    private final ReconciliationService reconciliationService;
+
+    @PostMapping("/runs")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Run balance reconciliation now (ADMIN only)")
+    public ResponseEntity<ReconciliationReportDto> reconcile() {
+        ReconciliationReportDto report = reconciliationService.reconcile();
+        return ResponseEntity.ok(report);
+    }
+
+    @GetMapping("/runs/latest")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get the latest reconciliation report (ADMIN only)")
+    public ResponseEntity<ReconciliationReportDto> getLatestReport() {
+        return reconciliationService.getLatestReport()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.ScheduledTransferDto;
+import com.example.bankcards.dto.ScheduledTransferRequest;
+import com.example.bankcards.service.scheduled.ScheduledTransferService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/scheduled-transfers")
+@RequiredArgsConstructor
+@Tag(name = "Scheduled Transfers", description = "APIs for future-dated and recurring transfers")
+@SecurityRequirement(name = "bearerAuth")
+public class ScheduledTransferController {
+
+    private final ScheduledTransferService scheduledTransferService;
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @Operation(summary = "Schedule a future-dated or recurring transfer from own card")
+    public ResponseEntity<ScheduledTransferDto> createScheduledTransfer(@RequestBody ScheduledTransferRequest request) {
+        ScheduledTransferDto schedule = scheduledTransferService.createScheduledTransfer(request);
+        return ResponseEntity.ok(schedule);
+    }
+
+    @GetMapping("/my")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @Operation(summary = "Get current user's scheduled transfers")
+    public ResponseEntity<Page<ScheduledTransferDto>> getMyScheduledTransfers(
+            @PageableDefault(size = 20, sort = "nextExecutionAt") Pageable pageable) {
+        Page<ScheduledTransferDto> schedules = scheduledTransferService.getMyScheduledTransfers(pageable);
+        return ResponseEntity.ok(schedules);
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @Operation(summary = "Get own scheduled transfer by ID")
+    public ResponseEntity<ScheduledTransferDto> getScheduledTransfer(@PathVariable Long id) {
+        ScheduledTransferDto schedule = scheduledTransferService.getScheduledTransfer(id);
+        return ResponseEntity.ok(schedule);
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @Operation(summary = "Cancel own scheduled transfer")
+    public ResponseEntity<Void> cancelScheduledTransfer(@PathVariable Long id) {
+        scheduledTransferService.cancelScheduledTransfer(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,8 +1,17 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.DisbursementRequest;
+import com.example.bankcards.dto.DisbursementResultDto;
+import com.example.bankcards.dto.FeedBackfillResultDto;
+import com.example.bankcards.dto.RollupBackfillResultDto;
 import com.example.bankcards.dto.TransferDto;
 import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.dto.TransferResultDto;
+import com.example.bankcards.dto.TransferSliceDto;
+import com.example.bankcards.dto.TransferStatusDto;
 import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.service.feed.TransferFeedService;
+import com.example.bankcards.service.statistics.OutgoingRollupService;
 import com.example.bankcards.service.transfer.TransferService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -17,6 +26,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/transfers")
@@ -26,15 +36,35 @@ import java.time.OffsetDateTime;
 public class TransferController {
 
     private final TransferService transferService;
+    private final OutgoingRollupService outgoingRollupService;
+    private final TransferFeedService transferFeedService;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     @Operation(summary = "Create money transfer between own cards")
-    public ResponseEntity<TransferDto> createTransfer(@RequestBody TransferRequest request) {
-        TransferDto transfer = transferService.createTransfer(request);
+    public ResponseEntity<TransferDto> createTransfer(
+            @RequestBody TransferRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        TransferDto transfer = transferService.createTransfer(request, idempotencyKey);
         return ResponseEntity.ok(transfer);
     }
 
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @Operation(summary = "Create a batch of money transfers with per-item results")
+    public ResponseEntity<List<TransferResultDto>> createTransfers(@RequestBody List<TransferRequest> requests) {
+        List<TransferResultDto> results = transferService.createTransfers(requests);
+        return ResponseEntity.ok(results);
+    }
+
+    @PostMapping("/disbursements")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @Operation(summary = "Disburse money from one card to many destination cards")
+    public ResponseEntity<DisbursementResultDto> createDisbursement(@RequestBody DisbursementRequest request) {
+        DisbursementResultDto result = transferService.createDisbursement(request);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/my")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     @Operation(summary = "Get current user's transfers")
@@ -62,6 +92,36 @@ public class TransferController {
         return ResponseEntity.ok(transfers);
     }
 
+    @GetMapping("/my/cursor")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @Operation(summary = "Get current user's transfers, newest first, continuing from a cursor")
+    public ResponseEntity<TransferSliceDto> getUserTransfersAfter(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        TransferSliceDto transfers = transferService.getUserTransfersAfter(cursor, size);
+        return ResponseEntity.ok(transfers);
+    }
+
+    @GetMapping("/my/outgoing/cursor")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @Operation(summary = "Get outgoing transfers, newest first, continuing from a cursor")
+    public ResponseEntity<TransferSliceDto> getOutgoingTransfersAfter(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        TransferSliceDto transfers = transferService.getOutgoingTransfersAfter(cursor, size);
+        return ResponseEntity.ok(transfers);
+    }
+
+    @GetMapping("/my/incoming/cursor")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @Operation(summary = "Get incoming transfers, newest first, continuing from a cursor")
+    public ResponseEntity<TransferSliceDto> getIncomingTransfersAfter(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        TransferSliceDto transfers = transferService.getIncomingTransfersAfter(cursor, size);
+        return ResponseEntity.ok(transfers);
+    }
+
     @GetMapping("/my/{transferId}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN') and @transferService.isTransferParticipant(#transferId)")
     @Operation(summary = "Get transfer by ID")
@@ -70,6 +130,14 @@ public class TransferController {
         return ResponseEntity.ok(transfer);
     }
 
+    @GetMapping("/{transferId}/status")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN') and @transferService.isTransferParticipant(#transferId)")
+    @Operation(summary = "Poll transfer settlement status")
+    public ResponseEntity<TransferStatusDto> getTransferStatus(@PathVariable Long transferId) {
+        TransferStatusDto status = transferService.getTransferStatus(transferId);
+        return ResponseEntity.ok(status);
+    }
+
     @GetMapping("/my/statistics/outgoing")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     @Operation(summary = "Get total outgoing amount for period")
@@ -80,6 +148,22 @@ public class TransferController {
         return ResponseEntity.ok(totalAmount);
     }
 
+    @PostMapping("/statistics/outgoing/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild daily outgoing rollups from completed transfers (ADMIN only)")
+    public ResponseEntity<RollupBackfillResultDto> backfillOutgoingRollups() {
+        RollupBackfillResultDto result = outgoingRollupService.backfill();
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/feed/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Add missing per-user transfer feed rows for existing transfers (ADMIN only)")
+    public ResponseEntity<FeedBackfillResultDto> backfillTransferFeed() {
+        FeedBackfillResultDto result = transferFeedService.backfill();
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Get all transfers (ADMIN only)")
@@ -0,0 +1,13 @@
+package com.example.bankcards.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class BalanceMismatchDto {
+    private final Long cardId;
+    private final Long recordedBalance;
+    private final Long expectedBalance;
+    private final Long difference;
+}
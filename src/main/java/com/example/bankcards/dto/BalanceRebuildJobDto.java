@@ -0,0 +1,24 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.enums.RebuildStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.OffsetDateTime;
+
+@Getter
+@Builder
+public class BalanceRebuildJobDto {
+    private final Long id;
+    private final RebuildStatus status;
+    private final boolean fromSnapshot;
+    private final Long lastCardId;
+    private final long cardsRebuilt;
+    private final long cardsCorrected;
+    private final long eventsReplayed;
+    private final long elapsedMs;
+    private final double eventsPerSecond;
+    private final String error;
+    private final OffsetDateTime startedAt;
+    private final OffsetDateTime finishedAt;
+}
@@ -0,0 +1,14 @@
+package com.example.bankcards.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class BalanceRebuildRequest {
+    private final List<Long> cardIds;
+
+    private final boolean fromSnapshot;
+}
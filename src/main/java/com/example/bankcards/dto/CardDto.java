@@ -9,7 +9,7 @@ import java.time.LocalDate;
 import java.time.OffsetDateTime;
 
 @Getter
-@Builder
+@Builder(toBuilder = true)
 public class CardDto {
     private final Long id;
     private final String cardNumber;
@@ -17,6 +17,7 @@ public class CardDto {
     private final LocalDate expirationDate;
     private final CardStatus status;
     private final Long balance;
+    private final Long heldAmount;
     private final Currency currency;
     private final Long userId;
     private final String username;
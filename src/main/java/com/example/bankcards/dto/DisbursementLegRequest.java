@@ -0,0 +1,17 @@
+package com.example.bankcards.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class DisbursementLegRequest {
+    @NotNull(message = "Destination card ID cannot be null")
+    private final Long toCardId;
+
+    @NotNull(message = "Amount cannot be null")
+    private final Long amount;
+
+    private final String description;
+}
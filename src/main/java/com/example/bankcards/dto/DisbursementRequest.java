@@ -0,0 +1,26 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.enums.Currency;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class DisbursementRequest {
+    @NotNull(message = "Source card ID cannot be null")
+    private final Long fromCardId;
+
+    @NotNull(message = "Currency cannot be null")
+    private final Currency currency;
+
+    private final String description;
+
+    @NotEmpty(message = "Disbursement must contain at least one leg")
+    private final List<DisbursementLegRequest> legs;
+
+    private final boolean continueOnError;
+}
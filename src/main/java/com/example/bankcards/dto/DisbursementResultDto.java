@@ -0,0 +1,16 @@
+package com.example.bankcards.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class DisbursementResultDto {
+    private final Long fromCardId;
+    private final Long totalDebited;
+    private final int completedLegs;
+    private final int failedLegs;
+    private final List<TransferResultDto> legs;
+}
@@ -0,0 +1,16 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.enums.Currency;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+@Getter
+@Builder
+public class ExchangeRateDto {
+    private final Currency currency;
+    private final BigDecimal rate;
+    private final OffsetDateTime updatedAt;
+}
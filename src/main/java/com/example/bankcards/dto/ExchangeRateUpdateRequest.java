@@ -0,0 +1,14 @@
+package com.example.bankcards.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
+
+import java.math.BigDecimal;
+
+@Getter
+@Builder
+@Jacksonized
+public class ExchangeRateUpdateRequest {
+    private final BigDecimal rate;
+}
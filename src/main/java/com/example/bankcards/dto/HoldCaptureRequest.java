@@ -0,0 +1,14 @@
+package com.example.bankcards.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class HoldCaptureRequest {
+    @NotNull(message = "Hold ID cannot be null")
+    private final Long holdId;
+
+    private final Long amount;
+}
@@ -0,0 +1,24 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.HoldStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.OffsetDateTime;
+
+@Getter
+@Builder
+public class HoldDto {
+    private final Long id;
+    private final Long fromCardId;
+    private final Long toCardId;
+    private final Long amount;
+    private final Currency currency;
+    private final String description;
+    private final HoldStatus status;
+    private final Long capturedAmount;
+    private final Long transferId;
+    private final OffsetDateTime createdAt;
+    private final OffsetDateTime expiresAt;
+}
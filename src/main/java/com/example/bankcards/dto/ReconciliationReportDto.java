@@ -0,0 +1,19 @@
+package com.example.bankcards.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Getter
+@Builder
+public class ReconciliationReportDto {
+    private final Long runId;
+    private final OffsetDateTime startedAt;
+    private final OffsetDateTime finishedAt;
+    private final long transfersScanned;
+    private final long cardsChecked;
+    private final int mismatchCount;
+    private final List<BalanceMismatchDto> mismatches;
+}
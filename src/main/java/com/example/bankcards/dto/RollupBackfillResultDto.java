@@ -0,0 +1,12 @@
+package com.example.bankcards.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class RollupBackfillResultDto {
+    private final long usersProcessed;
+    private final long rowsWritten;
+    private final long elapsedMs;
+}
@@ -0,0 +1,28 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.Recurrence;
+import com.example.bankcards.entity.enums.ScheduledTransferStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.OffsetDateTime;
+
+@Getter
+@Builder
+public class ScheduledTransferDto {
+    private final Long id;
+    private final Long fromCardId;
+    private final Long toCardId;
+    private final Long amount;
+    private final Currency currency;
+    private final String description;
+    private final Recurrence recurrence;
+    private final OffsetDateTime startAt;
+    private final OffsetDateTime nextExecutionAt;
+    private final OffsetDateTime endAt;
+    private final int executionCount;
+    private final ScheduledTransferStatus status;
+    private final Long lastTransferId;
+    private final String lastError;
+}
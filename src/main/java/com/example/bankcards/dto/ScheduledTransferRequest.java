@@ -0,0 +1,34 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.Recurrence;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.OffsetDateTime;
+
+@Getter
+@Builder
+public class ScheduledTransferRequest {
+    @NotNull(message = "Source card ID cannot be null")
+    private final Long fromCardId;
+
+    @NotNull(message = "Destination card ID cannot be null")
+    private final Long toCardId;
+
+    @NotNull(message = "Amount cannot be null")
+    private final Long amount;
+
+    @NotNull(message = "Currency cannot be null")
+    private final Currency currency;
+
+    private final String description;
+
+    @NotNull(message = "First execution time cannot be null")
+    private final OffsetDateTime startAt;
+
+    private final Recurrence recurrence;
+
+    private final OffsetDateTime endAt;
+}
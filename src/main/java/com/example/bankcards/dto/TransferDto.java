@@ -4,11 +4,14 @@ import com.example.bankcards.entity.enums.Currency;
 import com.example.bankcards.entity.enums.TransferStatus;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
 
+import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 @Getter
 @Builder
+@Jacksonized
 public class TransferDto {
     private final Long id;
     private final Long fromCardId;
@@ -20,4 +23,7 @@ public class TransferDto {
     private final String description;
     private final OffsetDateTime transferDate;
     private final TransferStatus status;
+    private final BigDecimal exchangeRate;
+    private final Long creditedAmount;
+    private final Currency creditedCurrency;
 }
@@ -0,0 +1,13 @@
+package com.example.bankcards.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class TransferResultDto {
+    private final int index;
+    private final boolean success;
+    private final TransferDto transfer;
+    private final String error;
+}
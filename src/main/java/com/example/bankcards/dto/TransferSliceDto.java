@@ -0,0 +1,14 @@
+package com.example.bankcards.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class TransferSliceDto {
+    private final List<TransferDto> content;
+    private final String nextCursor;
+    private final boolean hasNext;
+}
@@ -0,0 +1,58 @@
+package com.example.bankcards.entity;
+
+import com.example.bankcards.entity.enums.RebuildStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+
+@Entity
+@Table(name = "balance_rebuild_jobs")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceRebuildJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RebuildStatus status;
+
+    @Lob
+    @Column(name = "card_ids")
+    private String cardIds;
+
+    @Column(name = "from_snapshot", nullable = false)
+    private boolean fromSnapshot;
+
+    @Column(name = "last_card_id")
+    private Long lastCardId;
+
+    @Column(name = "cards_rebuilt", nullable = false)
+    private long cardsRebuilt;
+
+    @Column(name = "cards_corrected", nullable = false)
+    private long cardsCorrected;
+
+    @Column(name = "events_replayed", nullable = false)
+    private long eventsReplayed;
+
+    @Column(name = "elapsed_ms", nullable = false)
+    private long elapsedMs;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(name = "started_at", nullable = false)
+    private OffsetDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private OffsetDateTime finishedAt;
+}
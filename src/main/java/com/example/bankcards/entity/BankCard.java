@@ -12,6 +12,7 @@ import java.time.OffsetDateTime;
 
 @Entity
 @Table(name = "bank_cards")
+@NamedEntityGraph(name = "BankCard.user", attributeNodes = @NamedAttributeNode("user"))
 @Getter
 @Setter
 @Builder
@@ -46,6 +47,13 @@ public class BankCard {
     @Builder.Default
     private Long balance = 0L;
 
+    @Column(name = "held_amount", nullable = false)
+    @Builder.Default
+    private Long heldAmount = 0L;
+
+    @Column(name = "opening_balance", nullable = false, updatable = false)
+    private Long openingBalance;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @ToString.Exclude
@@ -58,6 +66,20 @@ public class BankCard {
     @UpdateTimestamp
     private OffsetDateTime updatedAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "balance_shards", nullable = false)
+    private int balanceShards;
+
+    @PrePersist
+    void initOpeningBalance() {
+        if (openingBalance == null) {
+            openingBalance = balance;
+        }
+    }
+
     public boolean isExpired() {
         return expirationDate.isBefore(LocalDate.now());
     }
@@ -65,4 +87,12 @@ public class BankCard {
     public boolean isActive() {
         return status == CardStatus.ACTIVE && !isExpired();
     }
+
+    public long getAvailableBalance() {
+        return balance - heldAmount;
+    }
+
+    public boolean isSharded() {
+        return balanceShards > 0;
+    }
 }
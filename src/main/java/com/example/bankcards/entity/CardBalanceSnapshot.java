@@ -0,0 +1,32 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+
+@Entity
+@Table(name = "card_balance_snapshots")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardBalanceSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "card_id", nullable = false)
+    private Long cardId;
+
+    @Column(nullable = false)
+    private Long balance;
+
+    @Column(name = "as_of", nullable = false)
+    private OffsetDateTime asOf;
+
+    @Column(name = "snapshot_run", nullable = false)
+    @Builder.Default
+    private Long snapshotRun = 0L;
+}
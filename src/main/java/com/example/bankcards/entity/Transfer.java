@@ -6,18 +6,27 @@ import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 
+import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 @Entity
 @Table(name = "transfers")
+@NamedEntityGraph(name = "Transfer.cards", attributeNodes = {
+        @NamedAttributeNode("fromCard"),
+        @NamedAttributeNode("toCard")
+})
 @Getter
 @Setter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Transfer {
+    public static final String ID_SEQUENCE = "transfer_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -48,4 +57,28 @@ public class Transfer {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 3)
     private Currency currency;
+
+    @Column(name = "journal_sequence", unique = true)
+    private Long journalSequence;
+
+    @Column(name = "exchange_rate", nullable = false, precision = 19, scale = 8)
+    @Builder.Default
+    private BigDecimal exchangeRate = BigDecimal.ONE;
+
+    @Column(name = "credited_amount", nullable = false)
+    private Long creditedAmount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "credited_currency", nullable = false, length = 3)
+    private Currency creditedCurrency;
+
+    @PrePersist
+    void initCreditedAmount() {
+        if (creditedAmount == null) {
+            creditedAmount = amount;
+        }
+        if (creditedCurrency == null) {
+            creditedCurrency = currency;
+        }
+    }
 }
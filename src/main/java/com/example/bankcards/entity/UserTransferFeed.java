@@ -0,0 +1,33 @@
+package com.example.bankcards.entity;
+
+import com.example.bankcards.entity.enums.FeedDirection;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+
+@Entity
+@Table(name = "user_transfer_feed")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserTransferFeed {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "transfer_id", nullable = false)
+    private Long transferId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private FeedDirection direction;
+
+    @Column(name = "transfer_date", nullable = false)
+    private OffsetDateTime transferDate;
+}
@@ -0,0 +1,8 @@
+package com.example.bankcards.entity.enums;
+
+public enum HoldStatus {
+    AUTHORIZED,
+    CAPTURED,
+    VOIDED,
+    EXPIRED
+}
@@ -0,0 +1,6 @@
+package com.example.bankcards.entity.enums;
+
+public enum PostingDirection {
+    DEBIT,
+    CREDIT
+}
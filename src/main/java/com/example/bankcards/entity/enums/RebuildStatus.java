@@ -0,0 +1,7 @@
+package com.example.bankcards.entity.enums;
+
+public enum RebuildStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,19 @@
+package com.example.bankcards.entity.enums;
+
+import java.time.OffsetDateTime;
+
+public enum Recurrence {
+    ONCE,
+    DAILY,
+    WEEKLY,
+    MONTHLY;
+
+    public OffsetDateTime occurrence(OffsetDateTime startAt, int index) {
+        return switch (this) {
+            case ONCE -> index == 0 ? startAt : null;
+            case DAILY -> startAt.plusDays(index);
+            case WEEKLY -> startAt.plusWeeks(index);
+            case MONTHLY -> startAt.plusMonths(index);
+        };
+    }
+}
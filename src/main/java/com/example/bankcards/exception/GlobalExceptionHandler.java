@@ -65,6 +65,45 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(HoldNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ApiError handleHoldNotFoundException(final HoldNotFoundException e) {
+        log.error("404 Hold Not Found: {}", e.getMessage(), e);
+        String stackTrace = getStackTrace(e);
+        return new ApiError(
+                HttpStatus.NOT_FOUND,
+                "The required hold was not found",
+                e.getMessage(),
+                stackTrace
+        );
+    }
+
+    @ExceptionHandler(ScheduledTransferNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ApiError handleScheduledTransferNotFoundException(final ScheduledTransferNotFoundException e) {
+        log.error("404 Scheduled Transfer Not Found: {}", e.getMessage(), e);
+        String stackTrace = getStackTrace(e);
+        return new ApiError(
+                HttpStatus.NOT_FOUND,
+                "The required scheduled transfer was not found",
+                e.getMessage(),
+                stackTrace
+        );
+    }
+
+    @ExceptionHandler(RebuildJobNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ApiError handleRebuildJobNotFoundException(final RebuildJobNotFoundException e) {
+        log.error("404 Rebuild Job Not Found: {}", e.getMessage(), e);
+        String stackTrace = getStackTrace(e);
+        return new ApiError(
+                HttpStatus.NOT_FOUND,
+                "The required balance rebuild job was not found",
+                e.getMessage(),
+                stackTrace
+        );
+    }
+
     @ExceptionHandler(BadCredentialsException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ApiError handleBadCredentialsException(final BadCredentialsException e) {
@@ -78,6 +117,19 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ApiError handleTooManyRequestsException(final TooManyRequestsException e) {
+        log.warn("429 Too Many Requests: {}", e.getMessage());
+        String stackTrace = getStackTrace(e);
+        return new ApiError(
+                HttpStatus.TOO_MANY_REQUESTS,
+                "The service is busy, retry later",
+                e.getMessage(),
+                stackTrace
+        );
+    }
+
     private String getStackTrace(Exception e) {
         StringWriter sw = new StringWriter();
         PrintWriter pw = new PrintWriter(sw);
@@ -0,0 +1,7 @@
+package com.example.bankcards.exception;
+
+public class RebuildJobNotFoundException extends RuntimeException {
+    public RebuildJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,7 @@ package com.example.bankcards.mapper;
 
 import com.example.bankcards.dto.CardDto;
 import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.repository.projection.CardView;
 import com.example.bankcards.util.CardNumberMasker;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -19,6 +20,10 @@ public interface CardMapper {
     @Mapping(target = "active", expression = "java(card.isActive())")
     CardDto toDTO(BankCard card);
 
+    @Mapping(target = "expired", expression = "java(view.isExpired())")
+    @Mapping(target = "active", expression = "java(view.isActive())")
+    CardDto toDTO(CardView view);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "cardNumber", ignore = true)
     @Mapping(target = "cardHolderName", source = "cardHolderName")
@@ -26,6 +31,10 @@ public interface CardMapper {
     @Mapping(target = "user", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "balanceShards", ignore = true)
+    @Mapping(target = "openingBalance", ignore = true)
+    @Mapping(target = "heldAmount", ignore = true)
+    @Mapping(target = "version", ignore = true)
     BankCard toEntity(CardDto cardDTO);
 
     List<CardDto> toDTOList(List<BankCard> cards);
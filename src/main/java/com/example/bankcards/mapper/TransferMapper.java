@@ -3,6 +3,7 @@ package com.example.bankcards.mapper;
 import com.example.bankcards.dto.TransferDto;
 import com.example.bankcards.dto.TransferRequest;
 import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.repository.projection.TransferView;
 import com.example.bankcards.util.CardNumberMasker;
 import org.mapstruct.*;
 
@@ -15,10 +16,18 @@ public interface TransferMapper {
     @Mapping(target = "toCardMaskedNumber", source = "toCard.cardNumber")
     TransferDto toDTO(Transfer transfer);
 
+    @Mapping(target = "fromCardMaskedNumber", source = "fromCardNumber")
+    @Mapping(target = "toCardMaskedNumber", source = "toCardNumber")
+    TransferDto toDTO(TransferView view);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "fromCard", ignore = true)
     @Mapping(target = "toCard", ignore = true)
     @Mapping(target = "transferDate", ignore = true)
     @Mapping(target = "status", constant = "PENDING")
+    @Mapping(target = "journalSequence", ignore = true)
+    @Mapping(target = "exchangeRate", ignore = true)
+    @Mapping(target = "creditedAmount", ignore = true)
+    @Mapping(target = "creditedCurrency", ignore = true)
     Transfer toEntityFromRequest(TransferRequest request);
 }
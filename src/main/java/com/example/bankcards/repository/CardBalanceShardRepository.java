@@ -0,0 +1,53 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardBalanceShard;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CardBalanceShardRepository extends JpaRepository<CardBalanceShard, Long> {
+
+    @Modifying
+    @Query("UPDATE CardBalanceShard s SET s.balance = s.balance + :amount " +
+            "WHERE s.cardId = :cardId AND s.shardIndex = :shardIndex")
+    int credit(@Param("cardId") Long cardId, @Param("shardIndex") int shardIndex, @Param("amount") Long amount);
+
+    @Modifying
+    @Query("UPDATE CardBalanceShard s SET s.balance = s.balance - :amount " +
+            "WHERE s.cardId = :cardId AND s.shardIndex = :shardIndex AND s.balance >= :amount")
+    int debit(@Param("cardId") Long cardId, @Param("shardIndex") int shardIndex, @Param("amount") Long amount);
+
+    @Query("SELECT s.shardIndex AS shardIndex, s.balance AS balance FROM CardBalanceShard s " +
+            "WHERE s.cardId = :cardId ORDER BY s.shardIndex")
+    List<ShardBalance> findBalancesByCardId(@Param("cardId") Long cardId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CardBalanceShard s WHERE s.cardId = :cardId ORDER BY s.shardIndex")
+    List<CardBalanceShard> findByCardIdForUpdate(@Param("cardId") Long cardId);
+
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM CardBalanceShard s WHERE s.cardId = :cardId")
+    long sumBalanceByCardId(@Param("cardId") Long cardId);
+
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM CardBalanceShard s, BankCard c " +
+            "WHERE s.cardId = c.id AND c.user.id = :userId AND c.status = 'ACTIVE'")
+    long sumActiveBalanceByUserId(@Param("userId") Long userId);
+
+    int countByCardId(Long cardId);
+
+    @Modifying
+    @Query("DELETE FROM CardBalanceShard s WHERE s.cardId = :cardId")
+    int deleteByCardId(@Param("cardId") Long cardId);
+
+    interface ShardBalance {
+        Integer getShardIndex();
+
+        Long getBalance();
+    }
+}
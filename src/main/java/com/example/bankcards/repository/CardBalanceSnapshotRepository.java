@@ -0,0 +1,32 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardBalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CardBalanceSnapshotRepository extends JpaRepository<CardBalanceSnapshot, Long> {
+
+    Optional<CardBalanceSnapshot> findFirstByCardIdOrderByIdDesc(Long cardId);
+
+    @Query("SELECT s FROM CardBalanceSnapshot s WHERE s.cardId IN :cardIds AND s.id = " +
+            "(SELECT MAX(l.id) FROM CardBalanceSnapshot l WHERE l.cardId = s.cardId)")
+    List<CardBalanceSnapshot> findLatestByCardIds(@Param("cardIds") Collection<Long> cardIds);
+
+    @Modifying
+    @Query("DELETE FROM CardBalanceSnapshot s WHERE s.cardId = :cardId")
+    int deleteByCardId(@Param("cardId") Long cardId);
+
+    @Modifying
+    @Query("DELETE FROM CardBalanceSnapshot s WHERE s.asOf < :before AND EXISTS " +
+            "(SELECT 1 FROM CardBalanceSnapshot n WHERE n.cardId = s.cardId AND n.id > s.id)")
+    int deleteSupersededBefore(@Param("before") OffsetDateTime before);
+}
@@ -0,0 +1,46 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardHold;
+import com.example.bankcards.entity.enums.Currency;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CardHoldRepository extends JpaRepository<CardHold, Long> {
+
+    Optional<CardHold> findByIdAndUserId(Long id, Long userId);
+
+    Page<CardHold> findByUserId(Long userId, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM CardHold h WHERE h.id IN :ids ORDER BY h.id")
+    List<CardHold> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT h.id FROM CardHold h WHERE h.status = 'AUTHORIZED' AND h.expiresAt <= :now " +
+            "ORDER BY h.expiresAt, h.id")
+    List<Long> findExpiredIds(@Param("now") OffsetDateTime now, Pageable pageable);
+
+    @Query("SELECT h.createdAt AS transferDate, h.amount AS amount FROM CardHold h " +
+            "WHERE h.cardId = :cardId AND h.status = 'AUTHORIZED' AND h.createdAt >= :since")
+    List<TransferRepository.SpendEntry> findAuthorizedSpendByCardIdSince(
+            @Param("cardId") Long cardId,
+            @Param("since") OffsetDateTime since);
+
+    @Query("SELECT h.createdAt AS transferDate, h.amount AS amount FROM CardHold h " +
+            "WHERE h.userId = :userId AND h.currency = :currency AND h.status = 'AUTHORIZED' AND h.createdAt >= :since")
+    List<TransferRepository.SpendEntry> findAuthorizedSpendByUserIdSince(
+            @Param("userId") Long userId,
+            @Param("currency") Currency currency,
+            @Param("since") OffsetDateTime since);
+}
@@ -1,9 +1,12 @@
 package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.repository.projection.CardView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,17 +15,85 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CardRepository extends JpaRepository<BankCard, Long> {
+public interface CardRepository extends JpaRepository<BankCard, Long>, CardRepositoryCustom {
 
-    Page<BankCard> findByUserId(Long userId, Pageable pageable);
+    String CARD_VIEW_COLUMNS = "SELECT new com.example.bankcards.repository.projection.CardView(" +
+            "c.id, c.cardNumber, c.cardHolderName, c.expirationDate, c.status, " +
+            "CASE WHEN c.balanceShards > 0 THEN c.balance + " +
+            "(SELECT COALESCE(SUM(s.balance), 0) FROM CardBalanceShard s WHERE s.cardId = c.id) " +
+            "ELSE c.balance END, c.heldAmount, " +
+            "c.currency, u.id, u.username, c.createdAt) ";
+
+    String CARD_VIEW = CARD_VIEW_COLUMNS + "FROM BankCard c JOIN c.user u ";
+
+    String USER_CARD_IDS = "SELECT o.id FROM BankCard o WHERE o.user.id = :userId AND o.createdAt IS NOT NULL";
+
+    @EntityGraph("BankCard.user")
+    Page<BankCard> findAll(Pageable pageable);
+
+    @Query(value = CARD_VIEW + "WHERE c.id IN (" + USER_CARD_IDS + ")",
+            countQuery = "SELECT COUNT(c) FROM BankCard c WHERE c.user.id = :userId")
+    Page<CardView> findViewsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(value = CARD_VIEW_COLUMNS + "FROM BankCard c LEFT JOIN c.user u", countQuery = "SELECT COUNT(c) FROM BankCard c")
+    Page<CardView> findAllViews(Pageable pageable);
 
     Optional<BankCard> findByIdAndUserId(Long id, Long userId);
 
     boolean existsByCardNumber(String cardNumber);
 
-    @Query("SELECT c FROM BankCard c WHERE c.expirationDate < CURRENT_DATE OR c.status = 'EXPIRED'")
+    @EntityGraph("BankCard.user")
+    @Query("SELECT c FROM BankCard c WHERE c.id IN (" +
+            "SELECT e.id FROM BankCard e WHERE e.expirationDate < CURRENT_DATE " +
+            "UNION SELECT s.id FROM BankCard s WHERE s.status = 'EXPIRED')")
     List<BankCard> findExpiredCardsByUserId(@Param("userId") Long userId);
 
     @Query("SELECT SUM(c.balance) FROM BankCard c WHERE c.user.id = :userId AND c.status = 'ACTIVE'")
     Long getTotalBalanceByUserId(@Param("userId") Long userId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BankCard c SET c.balance = c.balance - :amount, c.version = c.version + 1 " +
+            "WHERE c.id = :id AND c.balance - c.heldAmount >= :amount AND c.status = 'ACTIVE' " +
+            "AND c.expirationDate >= CURRENT_DATE")
+    int debitIfSufficient(@Param("id") Long id, @Param("amount") Long amount);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BankCard c SET c.heldAmount = c.heldAmount + :amount, c.version = c.version + 1 " +
+            "WHERE c.id = :id AND c.balance - c.heldAmount >= :amount AND c.status = 'ACTIVE'")
+    int holdIfAvailable(@Param("id") Long id, @Param("amount") Long amount);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BankCard c SET c.heldAmount = c.heldAmount - :amount, c.version = c.version + 1 WHERE c.id = :id")
+    int releaseHold(@Param("id") Long id, @Param("amount") Long amount);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BankCard c SET c.balance = c.balance + :amount, c.version = c.version + 1 " +
+            "WHERE c.id = :id AND c.status = 'ACTIVE' AND c.expirationDate >= CURRENT_DATE")
+    int creditIfActive(@Param("id") Long id, @Param("amount") Long amount);
+
+    @Query("SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END FROM BankCard c " +
+            "WHERE c.id = :id AND c.status = 'ACTIVE' AND c.expirationDate >= CURRENT_DATE")
+    boolean isActiveById(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BankCard c SET c.balance = c.balance + :delta, c.version = c.version + 1 WHERE c.id = :id")
+    int adjustBalance(@Param("id") Long id, @Param("delta") Long delta);
+
+    @Query("SELECT c.id FROM BankCard c WHERE c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT c.balance FROM BankCard c WHERE c.id = :id")
+    Optional<Long> findBalanceById(@Param("id") Long id);
+
+    @Query("SELECT c.balance AS balance, c.heldAmount AS heldAmount, c.balanceShards AS balanceShards " +
+            "FROM BankCard c WHERE c.id = :id")
+    Optional<LedgerSeed> findLedgerSeedById(@Param("id") Long id);
+
+    interface LedgerSeed {
+        Long getBalance();
+
+        Long getHeldAmount();
+
+        Integer getBalanceShards();
+    }
 }
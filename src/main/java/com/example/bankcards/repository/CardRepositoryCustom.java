@@ -0,0 +1,14 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.BankCard;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface CardRepositoryCustom {
+
+    Optional<BankCard> findByIdForUpdate(Long id);
+
+    List<BankCard> findAllByIdForUpdate(Collection<Long> ids);
+}
@@ -0,0 +1,43 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.BankCard;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class CardRepositoryCustomImpl implements CardRepositoryCustom {
+
+    private static final String LOCK_TIMEOUT_HINT = "jakarta.persistence.lock.timeout";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.transfer.lock-timeout-ms:3000}")
+    private Long lockTimeoutMs;
+
+    @Override
+    public Optional<BankCard> findByIdForUpdate(Long id) {
+        BankCard card = entityManager.find(BankCard.class, id, LockModeType.PESSIMISTIC_WRITE,
+                Map.of(LOCK_TIMEOUT_HINT, lockTimeoutMs.intValue()));
+        return Optional.ofNullable(card);
+    }
+
+    @Override
+    public List<BankCard> findAllByIdForUpdate(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery(
+                        "SELECT c FROM BankCard c WHERE c.id IN :ids ORDER BY c.id", BankCard.class)
+                .setParameter("ids", ids)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint(LOCK_TIMEOUT_HINT, lockTimeoutMs.intValue())
+                .getResultList();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.LedgerPosting;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LedgerPostingRepository extends JpaRepository<LedgerPosting, Long>, LedgerPostingRepositoryCustom {
+
+    @Query("SELECT COALESCE(SUM(p.amount), 0) FROM LedgerPosting p " +
+            "WHERE p.cardId = :cardId AND (p.snapshotRun IS NULL OR p.snapshotRun > :run)")
+    long sumAmountAfterRun(@Param("cardId") Long cardId, @Param("run") Long run);
+
+    @Query("SELECT COALESCE(SUM(p.amount), 0) FROM LedgerPosting p WHERE p.cardId = :cardId")
+    long sumAmountByCardId(@Param("cardId") Long cardId);
+
+    @Modifying
+    @Query("UPDATE LedgerPosting p SET p.snapshotRun = :run WHERE p.snapshotRun IS NULL")
+    int markUnsnapshotted(@Param("run") Long run);
+
+    @Query("SELECT p.cardId AS cardId, SUM(p.amount) AS delta FROM LedgerPosting p " +
+            "WHERE p.snapshotRun = :run GROUP BY p.cardId")
+    List<CardDelta> findDeltasBySnapshotRun(@Param("run") Long run);
+
+    interface CardDelta {
+        Long getCardId();
+
+        Long getDelta();
+    }
+}
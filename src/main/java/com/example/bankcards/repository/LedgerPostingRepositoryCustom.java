@@ -0,0 +1,6 @@
+package com.example.bankcards.repository;
+
+public interface LedgerPostingRepositoryCustom {
+
+    long nextSnapshotRun();
+}
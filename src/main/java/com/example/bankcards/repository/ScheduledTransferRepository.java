@@ -0,0 +1,46 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.ScheduledTransfer;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ScheduledTransferRepository extends JpaRepository<ScheduledTransfer, Long> {
+
+    Optional<ScheduledTransfer> findByIdAndUserId(Long id, Long userId);
+
+    Page<ScheduledTransfer> findByUserId(Long userId, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ScheduledTransfer s WHERE s.id IN :ids " +
+            "AND s.status = 'ACTIVE' " +
+            "AND s.nextExecutionAt <= :now ORDER BY s.id")
+    List<ScheduledTransfer> findDueByIdsForUpdate(@Param("ids") Collection<Long> ids, @Param("now") OffsetDateTime now);
+
+    @Query("SELECT s.id AS id, s.nextExecutionAt AS nextExecutionAt FROM ScheduledTransfer s " +
+            "WHERE s.status = 'ACTIVE' " +
+            "AND s.nextExecutionAt < :until " +
+            "AND (s.nextExecutionAt > :afterAt OR (s.nextExecutionAt = :afterAt AND s.id > :afterId)) " +
+            "ORDER BY s.nextExecutionAt, s.id")
+    List<DueExecution> findActiveDueBefore(@Param("until") OffsetDateTime until,
+                                           @Param("afterAt") OffsetDateTime afterAt,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
+
+    interface DueExecution {
+        Long getId();
+
+        OffsetDateTime getNextExecutionAt();
+    }
+}
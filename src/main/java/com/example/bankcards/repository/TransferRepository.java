@@ -1,54 +1,158 @@
 package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.enums.Currency;
 import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.repository.projection.TransferView;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
-public interface TransferRepository extends JpaRepository<Transfer, Long> {
+public interface TransferRepository extends JpaRepository<Transfer, Long>, TransferRepositoryCustom {
 
-    @Query("SELECT t FROM Transfer t " +
-            "WHERE t.fromCard.user.id = :userId OR t.toCard.user.id = :userId")
-    Page<Transfer> findByUserId(
+    String TRANSFER_VIEW_COLUMNS = "SELECT new com.example.bankcards.repository.projection.TransferView(" +
+            "t.id, f.id, f.cardNumber, d.id, d.cardNumber, t.amount, t.currency, t.description, " +
+            "t.transferDate, t.status, t.exchangeRate, t.creditedAmount, t.creditedCurrency) ";
+
+    String TRANSFER_VIEW = TRANSFER_VIEW_COLUMNS + "FROM Transfer t JOIN t.fromCard f JOIN t.toCard d ";
+
+    String USER_TRANSFER_IDS = "SELECT o.id FROM Transfer o WHERE o.fromCard.user.id = :userId " +
+            "UNION SELECT i.id FROM Transfer i WHERE i.toCard.user.id = :userId";
+
+    String DIRECTED_TRANSFER_IDS = "SELECT o.id FROM Transfer o WHERE :outgoing = true AND o.fromCard.user.id = :userId " +
+            "UNION SELECT i.id FROM Transfer i WHERE :incoming = true AND i.toCard.user.id = :userId";
+
+    @EntityGraph("Transfer.cards")
+    Page<Transfer> findAll(Pageable pageable);
+
+    @EntityGraph("Transfer.cards")
+    Optional<Transfer> findWithCardsById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transfer t WHERE t.id = :id")
+    Optional<Transfer> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transfer t WHERE t.id IN :ids ORDER BY t.id")
+    List<Transfer> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.id AS id, t.fromCard.id AS fromCardId FROM Transfer t " +
+            "WHERE t.status = 'PENDING' AND t.id > :afterId ORDER BY t.id")
+    List<PendingEntry> findPendingAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(value = TRANSFER_VIEW + "WHERE t.id IN (" + USER_TRANSFER_IDS + ")",
+            countQuery = "SELECT COUNT(t) FROM Transfer t WHERE t.id IN (" + USER_TRANSFER_IDS + ")")
+    Page<TransferView> findViewsByUserId(
+            @Param("userId") Long userId,
+            Pageable pageable);
+
+    @Query(value = TRANSFER_VIEW + "WHERE f.user.id = :userId",
+            countQuery = "SELECT COUNT(t) FROM Transfer t WHERE t.fromCard.user.id = :userId")
+    Page<TransferView> findOutgoingViewsByUserId(
+            @Param("userId") Long userId,
+            Pageable pageable);
+
+    @Query(value = TRANSFER_VIEW + "WHERE d.user.id = :userId",
+            countQuery = "SELECT COUNT(t) FROM Transfer t WHERE t.toCard.user.id = :userId")
+    Page<TransferView> findIncomingViewsByUserId(
             @Param("userId") Long userId,
             Pageable pageable);
 
-    @Query("SELECT t FROM Transfer t " +
-            "WHERE t.fromCard.user.id = :userId")
-    Page<Transfer> findOutgoingTransfersByUserId(
+    @Query("SELECT t.id FROM Transfer t WHERE t.id IN (" + DIRECTED_TRANSFER_IDS + ") " +
+            "ORDER BY t.transferDate DESC, t.id DESC")
+    List<Long> findLatestIdsByUserId(
             @Param("userId") Long userId,
+            @Param("outgoing") boolean outgoing,
+            @Param("incoming") boolean incoming,
             Pageable pageable);
 
-    @Query("SELECT t FROM Transfer t " +
-            "WHERE t.toCard.user.id = :userId")
-    Page<Transfer> findIncomingTransfersByUserId(
+    @Query("SELECT t.id FROM Transfer t WHERE t.id IN (" + DIRECTED_TRANSFER_IDS + ") " +
+            "AND (t.transferDate < :beforeDate OR (t.transferDate = :beforeDate AND t.id < :beforeId)) " +
+            "ORDER BY t.transferDate DESC, t.id DESC")
+    List<Long> findIdsByUserIdBefore(
             @Param("userId") Long userId,
+            @Param("outgoing") boolean outgoing,
+            @Param("incoming") boolean incoming,
+            @Param("beforeDate") OffsetDateTime beforeDate,
+            @Param("beforeId") Long beforeId,
             Pageable pageable);
 
-    Page<Transfer> findByStatus(TransferStatus status, Pageable pageable);
+    @Query(TRANSFER_VIEW + "WHERE t.id IN :ids")
+    List<TransferView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = TRANSFER_VIEW_COLUMNS + "FROM Transfer t LEFT JOIN t.fromCard f LEFT JOIN t.toCard d",
+            countQuery = "SELECT COUNT(t) FROM Transfer t")
+    Page<TransferView> findAllViews(Pageable pageable);
+
+    @Query(value = TRANSFER_VIEW + "WHERE t.status = :status",
+            countQuery = "SELECT COUNT(t) FROM Transfer t WHERE t.status = :status")
+    Page<TransferView> findViewsByStatus(
+            @Param("status") TransferStatus status,
+            Pageable pageable);
 
-    @Query("SELECT t FROM Transfer t " +
-            "WHERE t.transferDate BETWEEN :startDate AND :endDate")
-    Page<Transfer> findByTransferDateBetween(
+    @Query(value = TRANSFER_VIEW + "WHERE t.transferDate BETWEEN :startDate AND :endDate",
+            countQuery = "SELECT COUNT(t) FROM Transfer t WHERE t.transferDate BETWEEN :startDate AND :endDate")
+    Page<TransferView> findViewsByTransferDateBetween(
             @Param("startDate") OffsetDateTime startDate,
             @Param("endDate") OffsetDateTime endDate,
             Pageable pageable);
 
-    @Query("SELECT SUM(t.amount) FROM Transfer t " +
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transfer t " +
             "WHERE t.fromCard.user.id = :userId " +
             "AND t.status = 'COMPLETED' " +
-            "AND t.transferDate BETWEEN :startDate " +
-            "AND :endDate")
-    Long getTotalOutgoingAmountByUserIdAndPeriod(
+            "AND t.transferDate >= :from AND t.transferDate < :to")
+    long sumCompletedOutgoingByUserIdFromTo(
             @Param("userId") Long userId,
-            @Param("startDate") OffsetDateTime startDate,
-            @Param("endDate") OffsetDateTime endDate);
+            @Param("from") OffsetDateTime from,
+            @Param("to") OffsetDateTime to);
+
+    @Query("SELECT COALESCE(MAX(t.journalSequence), 0) FROM Transfer t")
+    long findMaxJournalSequence();
+
+    @Query("SELECT t.journalSequence FROM Transfer t WHERE t.journalSequence IN :sequences")
+    Set<Long> findPersistedJournalSequences(@Param("sequences") Collection<Long> sequences);
+
+    @Query("SELECT t.status FROM Transfer t WHERE t.id = :id")
+    Optional<TransferStatus> findStatusById(@Param("id") Long id);
+
+    @Query("SELECT t.transferDate AS transferDate, t.amount AS amount FROM Transfer t " +
+            "WHERE t.fromCard.id = :cardId AND t.status IN :statuses AND t.transferDate >= :since")
+    List<SpendEntry> findSpendByCardIdSince(
+            @Param("cardId") Long cardId,
+            @Param("statuses") Collection<TransferStatus> statuses,
+            @Param("since") OffsetDateTime since);
+
+    @Query("SELECT t.transferDate AS transferDate, t.amount AS amount FROM Transfer t " +
+            "WHERE t.fromCard.user.id = :userId AND t.currency = :currency " +
+            "AND t.status IN :statuses AND t.transferDate >= :since")
+    List<SpendEntry> findSpendByUserIdSince(
+            @Param("userId") Long userId,
+            @Param("currency") Currency currency,
+            @Param("statuses") Collection<TransferStatus> statuses,
+            @Param("since") OffsetDateTime since);
+
+    interface PendingEntry {
+        Long getId();
+
+        Long getFromCardId();
+    }
+
+    interface SpendEntry {
+        OffsetDateTime getTransferDate();
 
+        Long getAmount();
+    }
 }
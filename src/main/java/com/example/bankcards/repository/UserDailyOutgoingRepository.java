@@ -0,0 +1,19 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.UserDailyOutgoing;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface UserDailyOutgoingRepository extends JpaRepository<UserDailyOutgoing, Long>, UserDailyOutgoingRepositoryCustom {
+
+    @Query("SELECT COALESCE(SUM(r.total), 0) FROM UserDailyOutgoing r " +
+            "WHERE r.userId = :userId AND r.rollupDate BETWEEN :fromDate AND :toDate")
+    long sumTotalByUserIdBetween(@Param("userId") Long userId,
+                                 @Param("fromDate") LocalDate fromDate,
+                                 @Param("toDate") LocalDate toDate);
+}
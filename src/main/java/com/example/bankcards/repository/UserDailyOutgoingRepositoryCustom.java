@@ -0,0 +1,10 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.enums.Currency;
+
+import java.time.LocalDate;
+
+public interface UserDailyOutgoingRepositoryCustom {
+
+    void addOutgoing(Long userId, Currency currency, LocalDate rollupDate, long amount, long count);
+}
@@ -0,0 +1,52 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.enums.Currency;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+public class UserDailyOutgoingRepositoryCustomImpl implements UserDailyOutgoingRepositoryCustom {
+
+    private static final String POSTGRES_UPSERT_SQL =
+            "INSERT INTO user_daily_outgoing (user_id, currency, rollup_date, total, transfer_count) " +
+            "VALUES (:userId, :currency, :rollupDate, :amount, :count) " +
+            "ON CONFLICT (user_id, rollup_date, currency) DO UPDATE " +
+            "SET total = user_daily_outgoing.total + EXCLUDED.total, " +
+            "transfer_count = user_daily_outgoing.transfer_count + EXCLUDED.transfer_count";
+
+    private static final String MERGE_UPSERT_SQL =
+            "MERGE INTO user_daily_outgoing r " +
+            "USING (VALUES (CAST(:userId AS BIGINT), CAST(:currency AS VARCHAR(3)), CAST(:rollupDate AS DATE), " +
+            "CAST(:amount AS BIGINT), CAST(:count AS BIGINT))) " +
+            "AS d (user_id, currency, rollup_date, total, transfer_count) " +
+            "ON r.user_id = d.user_id AND r.rollup_date = d.rollup_date AND r.currency = d.currency " +
+            "WHEN MATCHED THEN UPDATE SET total = r.total + d.total, transfer_count = r.transfer_count + d.transfer_count " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, currency, rollup_date, total, transfer_count) " +
+            "VALUES (d.user_id, d.currency, d.rollup_date, d.total, d.transfer_count)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void addOutgoing(Long userId, Currency currency, LocalDate rollupDate, long amount, long count) {
+        entityManager.createNativeQuery(upsertSql())
+                .setParameter("userId", userId)
+                .setParameter("currency", currency.name())
+                .setParameter("rollupDate", rollupDate)
+                .setParameter("amount", amount)
+                .setParameter("count", count)
+                .executeUpdate();
+    }
+
+    private String upsertSql() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect
+                ? POSTGRES_UPSERT_SQL
+                : MERGE_UPSERT_SQL;
+    }
+}
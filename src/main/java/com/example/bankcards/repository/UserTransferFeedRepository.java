@@ -0,0 +1,46 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.UserTransferFeed;
+import com.example.bankcards.entity.enums.FeedDirection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UserTransferFeedRepository extends JpaRepository<UserTransferFeed, Long> {
+
+    @Query(value = "SELECT f.transferId FROM UserTransferFeed f " +
+            "WHERE f.userId = :userId AND f.direction IN :directions",
+            countQuery = "SELECT COUNT(f) FROM UserTransferFeed f " +
+                    "WHERE f.userId = :userId AND f.direction IN :directions")
+    Page<Long> findTransferIds(
+            @Param("userId") Long userId,
+            @Param("directions") Collection<FeedDirection> directions,
+            Pageable pageable);
+
+    @Query("SELECT f.transferId FROM UserTransferFeed f " +
+            "WHERE f.userId = :userId AND f.direction IN :directions " +
+            "ORDER BY f.transferDate DESC, f.transferId DESC")
+    List<Long> findLatestTransferIds(
+            @Param("userId") Long userId,
+            @Param("directions") Collection<FeedDirection> directions,
+            Pageable pageable);
+
+    @Query("SELECT f.transferId FROM UserTransferFeed f " +
+            "WHERE f.userId = :userId AND f.direction IN :directions " +
+            "AND (f.transferDate < :beforeDate OR (f.transferDate = :beforeDate AND f.transferId < :beforeId)) " +
+            "ORDER BY f.transferDate DESC, f.transferId DESC")
+    List<Long> findTransferIdsBefore(
+            @Param("userId") Long userId,
+            @Param("directions") Collection<FeedDirection> directions,
+            @Param("beforeDate") OffsetDateTime beforeDate,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable);
+}
@@ -0,0 +1,29 @@
+package com.example.bankcards.repository.projection;
+
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Currency;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+public record CardView(
+        Long id,
+        String cardNumber,
+        String cardHolderName,
+        LocalDate expirationDate,
+        CardStatus status,
+        Long balance,
+        Long heldAmount,
+        Currency currency,
+        Long userId,
+        String username,
+        OffsetDateTime createdAt) {
+
+    public boolean isExpired() {
+        return expirationDate.isBefore(LocalDate.now());
+    }
+
+    public boolean isActive() {
+        return status == CardStatus.ACTIVE && !isExpired();
+    }
+}
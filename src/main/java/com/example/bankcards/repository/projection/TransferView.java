@@ -0,0 +1,23 @@
+package com.example.bankcards.repository.projection;
+
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.TransferStatus;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+public record TransferView(
+        Long id,
+        Long fromCardId,
+        String fromCardNumber,
+        Long toCardId,
+        String toCardNumber,
+        Long amount,
+        Currency currency,
+        String description,
+        OffsetDateTime transferDate,
+        TransferStatus status,
+        BigDecimal exchangeRate,
+        Long creditedAmount,
+        Currency creditedCurrency) {
+}
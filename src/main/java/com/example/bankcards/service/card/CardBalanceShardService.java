@@ -0,0 +1,21 @@
+package com.example.bankcards.service.card;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.entity.BankCard;
+
+public interface CardBalanceShardService {
+
+    CardDto enableShards(Long cardId, int shardCount);
+
+    CardDto disableShards(Long cardId);
+
+    void credit(BankCard card, long amount);
+
+    long drain(BankCard card, long amount);
+
+    long getShardedBalance(Long cardId);
+
+    long getShardedBalanceForUser(Long userId);
+
+    void deleteShards(Long cardId);
+}
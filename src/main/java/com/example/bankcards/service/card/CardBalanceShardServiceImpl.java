@@ -0,0 +1,136 @@
+package com.example.bankcards.service.card;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.CardBalanceShard;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.repository.CardBalanceShardRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.shard.CardWriter;
+import com.example.bankcards.service.transfer.TransferStrategy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class CardBalanceShardServiceImpl implements CardBalanceShardService {
+
+    private final CardRepository cardRepository;
+    private final CardBalanceShardRepository shardRepository;
+    private final CardMapper cardMapper;
+
+    @Value("${app.hot-cards.max-shards:64}")
+    private int maxShards = 64;
+
+    @Value("${app.transfer.strategy:ATOMIC_UPDATE}")
+    private TransferStrategy strategy = TransferStrategy.ATOMIC_UPDATE;
+
+    @Override
+    @CardWriter("#cardId")
+    @Transactional
+    public CardDto enableShards(Long cardId, int shardCount) {
+        if (strategy == TransferStrategy.LEDGER) {
+            throw new BadRequestException("Balance shards are not supported by the LEDGER transfer strategy");
+        }
+        if (shardCount < 1 || shardCount > maxShards) {
+            throw new BadRequestException("Shard count must be between 1 and " + maxShards);
+        }
+
+        BankCard card = cardRepository.findByIdForUpdate(cardId)
+                .orElseThrow(() -> new CardNotFoundException("Card not found with id: " + cardId));
+        if (shardCount < card.getBalanceShards()) {
+            throw new BadRequestException("Card already has " + card.getBalanceShards() + " balance shards");
+        }
+
+        List<CardBalanceShard> shards = new ArrayList<>();
+        for (int index = card.getBalanceShards(); index < shardCount; index++) {
+            shards.add(CardBalanceShard.builder()
+                    .cardId(cardId)
+                    .shardIndex(index)
+                    .build());
+        }
+        shardRepository.saveAll(shards);
+        card.setBalanceShards(shardCount);
+        log.info("Card {} now spreads credits over {} balance shards", cardId, shardCount);
+
+        return withShardedBalance(cardMapper.toDTO(card), card);
+    }
+
+    @Override
+    @CardWriter("#cardId")
+    @Transactional
+    public CardDto disableShards(Long cardId) {
+        if (strategy == TransferStrategy.LEDGER) {
+            throw new BadRequestException("Balance shards are not supported by the LEDGER transfer strategy");
+        }
+        BankCard card = cardRepository.findByIdForUpdate(cardId)
+                .orElseThrow(() -> new CardNotFoundException("Card not found with id: " + cardId));
+
+        shardRepository.findByCardIdForUpdate(cardId);
+        long folded = shardRepository.sumBalanceByCardId(cardId);
+        shardRepository.deleteByCardId(cardId);
+        card.setBalance(card.getBalance() + folded);
+        card.setBalanceShards(0);
+        log.info("Card {} balance shards folded back into the card: {}", cardId, folded);
+
+        return cardMapper.toDTO(card);
+    }
+
+    @Override
+    public void credit(BankCard card, long amount) {
+        int shardIndex = ThreadLocalRandom.current().nextInt(card.getBalanceShards());
+        if (shardRepository.credit(card.getId(), shardIndex, amount) == 0) {
+            throw new IllegalStateException("Balance shard " + shardIndex + " of card " + card.getId() + " is missing");
+        }
+    }
+
+    @Override
+    public long drain(BankCard card, long amount) {
+        long drained = 0L;
+        for (CardBalanceShardRepository.ShardBalance shard : shardRepository.findBalancesByCardId(card.getId())) {
+            if (drained == amount) {
+                break;
+            }
+            long taken = Math.min(shard.getBalance(), amount - drained);
+            if (taken > 0 && shardRepository.debit(card.getId(), shard.getShardIndex(), taken) > 0) {
+                drained += taken;
+            }
+        }
+        card.setBalance(card.getBalance() + drained);
+        return drained;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getShardedBalance(Long cardId) {
+        return shardRepository.sumBalanceByCardId(cardId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getShardedBalanceForUser(Long userId) {
+        return shardRepository.sumActiveBalanceByUserId(userId);
+    }
+
+    @Override
+    public void deleteShards(Long cardId) {
+        shardRepository.deleteByCardId(cardId);
+    }
+
+    private CardDto withShardedBalance(CardDto card, BankCard entity) {
+        return card.toBuilder()
+                .balance(entity.getBalance() + getShardedBalance(entity.getId()))
+                .build();
+    }
+}
@@ -30,4 +30,10 @@ public interface CardService {
     void deleteCard(Long cardId);
 
     Long getTotalUserBalance();
+
+    Long getPostedBalance(Long cardId);
+
+    CardDto enableBalanceShards(Long cardId, int shardCount);
+
+    CardDto disableBalanceShards(Long cardId);
 }
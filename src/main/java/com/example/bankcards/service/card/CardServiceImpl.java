@@ -9,6 +9,8 @@ import com.example.bankcards.exception.CardNotFoundException;
 import com.example.bankcards.mapper.CardMapper;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.security.SecurityService;
+import com.example.bankcards.service.posting.PostingService;
+import com.example.bankcards.service.shard.CardWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -27,6 +29,8 @@ public class CardServiceImpl implements CardService {
     private final CardRepository cardRepository;
     private final CardMapper cardMapper;
     private final SecurityService securityService;
+    private final CardBalanceShardService cardBalanceShardService;
+    private final PostingService postingService;
 
     @Override
     @Transactional(readOnly = true)
@@ -34,7 +38,7 @@ public class CardServiceImpl implements CardService {
         User currentUser = securityService.getCurrentUser();
         log.debug("Fetching cards for user: {}", currentUser.getId());
 
-        return cardRepository.findByUserId(currentUser.getId(), pageable)
+        return cardRepository.findViewsByUserId(currentUser.getId(), pageable)
                 .map(cardMapper::toDTO);
     }
 
@@ -45,7 +49,13 @@ public class CardServiceImpl implements CardService {
         BankCard card = cardRepository.findByIdAndUserId(cardId, currentUser.getId())
                 .orElseThrow(() -> new CardNotFoundException("Card not found with id: " + cardId));
 
-        return cardMapper.toDTO(card);
+        CardDto cardDto = cardMapper.toDTO(card);
+        if (!card.isSharded()) {
+            return cardDto;
+        }
+        return cardDto.toBuilder()
+                .balance(card.getBalance() + cardBalanceShardService.getShardedBalance(cardId))
+                .build();
     }
 
     @Override
@@ -61,6 +71,7 @@ public class CardServiceImpl implements CardService {
         card.setUser(currentUser);
 
         BankCard savedCard = cardRepository.save(card);
+        postingService.openCard(savedCard.getId(), savedCard.getBalance());
         log.info("Card created successfully: {}", savedCard.getId());
 
         return cardMapper.toDTO(savedCard);
@@ -97,18 +108,19 @@ public class CardServiceImpl implements CardService {
     @Transactional(readOnly = true)
     public Page<CardDto> getAllCards(Pageable pageable) {
         log.debug("Fetching all cards (ADMIN)");
-        return cardRepository.findAll(pageable)
+        return cardRepository.findAllViews(pageable)
                 .map(cardMapper::toDTO);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<CardDto> getCardsByUserId(Long userId, Pageable pageable) {
-        return cardRepository.findByUserId(userId, pageable)
+        return cardRepository.findViewsByUserId(userId, pageable)
                 .map(cardMapper::toDTO);
     }
 
     @Override
+    @CardWriter("#cardId")
     @Transactional
     public CardDto blockCard(Long cardId) {
         BankCard card = cardRepository.findById(cardId)
@@ -122,6 +134,7 @@ public class CardServiceImpl implements CardService {
     }
 
     @Override
+    @CardWriter("#cardId")
     @Transactional
     public CardDto activateCard(Long cardId) {
         BankCard card = cardRepository.findById(cardId)
@@ -135,15 +148,21 @@ public class CardServiceImpl implements CardService {
     }
 
     @Override
+    @CardWriter("#cardId")
     @Transactional
     public void deleteCard(Long cardId) {
         BankCard card = cardRepository.findById(cardId)
                 .orElseThrow(() -> new CardNotFoundException("Card not found with id: " + cardId));
 
-        if (card.getBalance() > 0) {
+        long shardedBalance = card.isSharded() ? cardBalanceShardService.getShardedBalance(cardId) : 0L;
+        if (card.getBalance() + shardedBalance > 0) {
             throw new BadRequestException("Cannot delete card with positive balance");
         }
 
+        if (card.isSharded()) {
+            cardBalanceShardService.deleteShards(cardId);
+        }
+        postingService.closeCard(cardId);
         cardRepository.delete(card);
         log.info("Card deleted: {}", cardId);
     }
@@ -153,7 +172,29 @@ public class CardServiceImpl implements CardService {
     public Long getTotalUserBalance() {
         User currentUser = securityService.getCurrentUser();
         Long totalBalance = cardRepository.getTotalBalanceByUserId(currentUser.getId());
+        long shardedBalance = cardBalanceShardService.getShardedBalanceForUser(currentUser.getId());
+
+        return (totalBalance != null ? totalBalance : 0L) + shardedBalance;
+    }
 
-        return totalBalance != null ? totalBalance : 0L;
+    @Override
+    @Transactional(readOnly = true)
+    public Long getPostedBalance(Long cardId) {
+        if (!cardRepository.existsById(cardId)) {
+            throw new CardNotFoundException("Card not found with id: " + cardId);
+        }
+        return postingService.getPostedBalance(cardId);
+    }
+
+    @Override
+    @Transactional
+    public CardDto enableBalanceShards(Long cardId, int shardCount) {
+        return cardBalanceShardService.enableShards(cardId, shardCount);
+    }
+
+    @Override
+    @Transactional
+    public CardDto disableBalanceShards(Long cardId) {
+        return cardBalanceShardService.disableShards(cardId);
     }
 }
@@ -0,0 +1,25 @@
+package com.example.bankcards.service.exchange;
+
+import com.example.bankcards.dto.ExchangeRateDto;
+import com.example.bankcards.entity.enums.Currency;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface ExchangeRateService {
+
+    Conversion convert(Currency from, Currency to, long amount);
+
+    List<ExchangeRateDto> getRates();
+
+    ExchangeRateDto updateRate(Currency currency, BigDecimal rate);
+
+    long refresh();
+
+    record Conversion(Currency currency, long amount, BigDecimal rate) {
+
+        public static Conversion identity(Currency currency, long amount) {
+            return new Conversion(currency, amount, BigDecimal.ONE);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.bankcards.service.exchange;
+
+import com.example.bankcards.dto.ExchangeRateDto;
+import com.example.bankcards.entity.ExchangeRate;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.repository.ExchangeRateRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExchangeRateServiceImpl implements ExchangeRateService {
+
+    private static final int RATE_SCALE = 8;
+    private static final long RATE_UNIT = 100_000_000L;
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    private final ExchangeRateRepository exchangeRateRepository;
+
+    private volatile RateSnapshot snapshot = new RateSnapshot(0L, new long[CURRENCIES.length * CURRENCIES.length]);
+
+    @PostConstruct
+    void loadRates() {
+        refresh();
+    }
+
+    @Override
+    public Conversion convert(Currency from, Currency to, long amount) {
+        if (from == to) {
+            return Conversion.identity(to, amount);
+        }
+        long rate = snapshot.rates()[from.ordinal() * CURRENCIES.length + to.ordinal()];
+        if (rate == 0L) {
+            throw new BadRequestException("No exchange rate available from " + from + " to " + to);
+        }
+        long converted = (Math.multiplyExact(amount, rate) + RATE_UNIT / 2) / RATE_UNIT;
+        if (converted <= 0L) {
+            throw new BadRequestException("Amount is too small to convert from " + from + " to " + to);
+        }
+        return new Conversion(to, converted, BigDecimal.valueOf(rate, RATE_SCALE));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ExchangeRateDto> getRates() {
+        return exchangeRateRepository.findAll().stream()
+                .sorted(Comparator.comparing(ExchangeRate::getCurrency))
+                .map(this::toDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public ExchangeRateDto updateRate(Currency currency, BigDecimal rate) {
+        if (rate == null || rate.signum() <= 0) {
+            throw new BadRequestException("Exchange rate must be positive");
+        }
+        ExchangeRate exchangeRate = exchangeRateRepository.findByCurrency(currency)
+                .orElseGet(() -> ExchangeRate.builder().currency(currency).build());
+        exchangeRate.setRate(rate.setScale(RATE_SCALE, RoundingMode.HALF_EVEN));
+        exchangeRate.setUpdatedAt(OffsetDateTime.now());
+        ExchangeRate saved = exchangeRateRepository.saveAndFlush(exchangeRate);
+        refresh();
+        return toDto(saved);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.exchange-rates.refresh-interval-ms:60000}",
+            initialDelayString = "${app.exchange-rates.refresh-interval-ms:60000}")
+    public synchronized long refresh() {
+        Map<Currency, BigDecimal> unitsPerBase = new EnumMap<>(Currency.class);
+        exchangeRateRepository.findAll().forEach(rate -> unitsPerBase.put(rate.getCurrency(), rate.getRate()));
+
+        long[] rates = new long[CURRENCIES.length * CURRENCIES.length];
+        unitsPerBase.forEach((from, fromUnits) -> unitsPerBase.forEach((to, toUnits) -> {
+            rates[from.ordinal() * CURRENCIES.length + to.ordinal()] = toUnits
+                    .divide(fromUnits, RATE_SCALE, RoundingMode.HALF_EVEN)
+                    .unscaledValue()
+                    .longValueExact();
+        }));
+
+        RateSnapshot next = new RateSnapshot(snapshot.version() + 1, rates);
+        snapshot = next;
+        log.debug("Exchange rate snapshot {} loaded with {} currencies", next.version(), unitsPerBase.size());
+        return next.version();
+    }
+
+    private ExchangeRateDto toDto(ExchangeRate exchangeRate) {
+        return ExchangeRateDto.builder()
+                .currency(exchangeRate.getCurrency())
+                .rate(exchangeRate.getRate())
+                .updatedAt(exchangeRate.getUpdatedAt())
+                .build();
+    }
+
+    private record RateSnapshot(long version, long[] rates) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.bankcards.service.feed;
+
+import com.example.bankcards.dto.FeedBackfillResultDto;
+import com.example.bankcards.entity.Transfer;
+
+import java.util.List;
+
+public interface TransferFeedService {
+
+    void append(List<Transfer> transfers);
+
+    boolean isBackfilled();
+
+    FeedBackfillResultDto backfill();
+}
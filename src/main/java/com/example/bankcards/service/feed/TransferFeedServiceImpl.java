@@ -0,0 +1,135 @@
+package com.example.bankcards.service.feed;
+
+import com.example.bankcards.dto.FeedBackfillResultDto;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.repository.TransferRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransferFeedServiceImpl implements TransferFeedService {
+
+    private static final String INSERT_FEED_SQL =
+            "INSERT INTO user_transfer_feed (user_id, transfer_id, direction, transfer_date) " +
+            "SELECT f.user_id, t.id, CASE WHEN f.user_id = d.user_id THEN 'INTERNAL' ELSE 'OUTGOING' END, " +
+            "t.transfer_date " +
+            "FROM transfers t JOIN bank_cards f ON f.id = t.from_card_id JOIN bank_cards d ON d.id = t.to_card_id " +
+            "WHERE t.id IN (:ids)%1$s " +
+            "UNION ALL " +
+            "SELECT d.user_id, t.id, 'INCOMING', t.transfer_date " +
+            "FROM transfers t JOIN bank_cards f ON f.id = t.from_card_id JOIN bank_cards d ON d.id = t.to_card_id " +
+            "WHERE t.id IN (:ids) AND d.user_id <> f.user_id%1$s";
+
+    private static final String NOT_IN_FEED =
+            " AND NOT EXISTS (SELECT 1 FROM user_transfer_feed x WHERE x.transfer_id = t.id)";
+
+    private static final String SELECT_TRANSFER_IDS_SQL =
+            "SELECT id FROM transfers WHERE id > :afterId ORDER BY id LIMIT :limit";
+
+    private static final String SELECT_BACKFILLED_THROUGH_SQL =
+            "SELECT backfilled_through FROM transfer_feed_backfill WHERE id = 1";
+
+    private static final String SELECT_COMPLETED_SQL =
+            "SELECT COUNT(*) FROM transfer_feed_backfill WHERE id = 1 AND completed_at IS NOT NULL";
+
+    private static final String ADVANCE_BACKFILL_SQL =
+            "UPDATE transfer_feed_backfill SET backfilled_through = :afterId " +
+            "WHERE id = 1 AND backfilled_through < :afterId";
+
+    private static final String COMPLETE_BACKFILL_SQL =
+            "UPDATE transfer_feed_backfill SET completed_at = CURRENT_TIMESTAMP WHERE id = 1 AND completed_at IS NULL";
+
+    private final TransferRepository transferRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.transfer-feed.backfill-batch-size:5000}")
+    private int backfillBatchSize = 5000;
+
+    @Value("${app.transfer-feed.backfill-on-startup:true}")
+    private boolean backfillOnStartup = true;
+
+    private volatile boolean backfilled;
+
+    @Override
+    @Transactional
+    public void append(List<Transfer> transfers) {
+        if (transfers.isEmpty()) {
+            return;
+        }
+        transferRepository.flush();
+        List<Long> ids = transfers.stream().map(Transfer::getId).toList();
+        jdbcTemplate.update(INSERT_FEED_SQL.formatted(""), new MapSqlParameterSource("ids", ids));
+    }
+
+    @Override
+    public boolean isBackfilled() {
+        if (!backfilled) {
+            Long completed = jdbcTemplate.queryForObject(SELECT_COMPLETED_SQL, new MapSqlParameterSource(), Long.class);
+            backfilled = completed != null && completed > 0;
+        }
+        return backfilled;
+    }
+
+    @Override
+    public FeedBackfillResultDto backfill() {
+        return backfillAfter(0L);
+    }
+
+    private FeedBackfillResultDto backfillAfter(long fromId) {
+        long startedAt = System.nanoTime();
+        long transfers = 0L;
+        long rows = 0L;
+        long afterId = fromId;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(SELECT_TRANSFER_IDS_SQL,
+                    new MapSqlParameterSource("afterId", afterId).addValue("limit", backfillBatchSize), Long.class);
+            if (ids.isEmpty()) {
+                break;
+            }
+            long lastId = ids.get(ids.size() - 1);
+            Integer written = transactionTemplate.execute(status -> {
+                int inserted = jdbcTemplate.update(INSERT_FEED_SQL.formatted(NOT_IN_FEED), new MapSqlParameterSource("ids", ids));
+                jdbcTemplate.update(ADVANCE_BACKFILL_SQL, new MapSqlParameterSource("afterId", lastId));
+                return inserted;
+            });
+            rows += written != null ? written : 0;
+            transfers += ids.size();
+            afterId = lastId;
+            log.debug("Transfer feed backfilled through transfer {}: {} transfers, {} rows", afterId, transfers, rows);
+        }
+
+        jdbcTemplate.update(COMPLETE_BACKFILL_SQL, new MapSqlParameterSource());
+        backfilled = true;
+
+        long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+        log.info("Transfer feed backfill finished: {} transfers, {} rows in {} ms", transfers, rows, elapsedMs);
+        return FeedBackfillResultDto.builder()
+                .transfersProcessed(transfers)
+                .rowsWritten(rows)
+                .elapsedMs(elapsedMs)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!backfillOnStartup || isBackfilled()) {
+            return;
+        }
+        Long backfilledThrough = jdbcTemplate.queryForObject(SELECT_BACKFILLED_THROUGH_SQL,
+                new MapSqlParameterSource(), Long.class);
+        backfillAfter(backfilledThrough != null ? backfilledThrough : 0L);
+    }
+}
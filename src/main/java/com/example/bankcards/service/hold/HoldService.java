@@ -0,0 +1,25 @@
+package com.example.bankcards.service.hold;
+
+import com.example.bankcards.dto.HoldCaptureRequest;
+import com.example.bankcards.dto.HoldDto;
+import com.example.bankcards.dto.HoldRequest;
+import com.example.bankcards.dto.TransferResultDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public interface HoldService {
+
+    HoldDto authorize(HoldRequest request);
+
+    List<TransferResultDto> capture(List<HoldCaptureRequest> requests);
+
+    void voidHold(Long holdId);
+
+    HoldDto getHold(Long holdId);
+
+    Page<HoldDto> getMyHolds(Pageable pageable);
+
+    int expireHolds();
+}
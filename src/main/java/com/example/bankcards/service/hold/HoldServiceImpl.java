@@ -0,0 +1,366 @@
+package com.example.bankcards.service.hold;
+
+import com.example.bankcards.dto.HoldCaptureRequest;
+import com.example.bankcards.dto.HoldDto;
+import com.example.bankcards.dto.HoldRequest;
+import com.example.bankcards.dto.TransferResultDto;
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.CardHold;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.HoldStatus;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.exception.HoldNotFoundException;
+import com.example.bankcards.mapper.TransferMapper;
+import com.example.bankcards.repository.CardHoldRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.security.SecurityService;
+import com.example.bankcards.service.card.CardBalanceShardService;
+import com.example.bankcards.service.exchange.ExchangeRateService;
+import com.example.bankcards.service.feed.TransferFeedService;
+import com.example.bankcards.service.transfer.TransferCompletedEvent;
+import com.example.bankcards.service.transfer.TransferStrategy;
+import com.example.bankcards.service.velocity.VelocityLimiter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HoldServiceImpl implements HoldService {
+
+    private final CardHoldRepository holdRepository;
+    private final CardRepository cardRepository;
+    private final TransferRepository transferRepository;
+    private final TransferMapper transferMapper;
+    private final SecurityService securityService;
+    private final CardBalanceShardService cardBalanceShardService;
+    private final VelocityLimiter velocityLimiter;
+    private final ExchangeRateService exchangeRateService;
+    private final TransferFeedService transferFeedService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.transfer.strategy:ATOMIC_UPDATE}")
+    private TransferStrategy strategy = TransferStrategy.ATOMIC_UPDATE;
+
+    @Value("${app.holds.ttl-minutes:10080}")
+    private long ttlMinutes = 10080;
+
+    @Value("${app.holds.expiry-batch-size:500}")
+    private int expiryBatchSize = 500;
+
+    @Override
+    @Transactional
+    public HoldDto authorize(HoldRequest request) {
+        if (strategy == TransferStrategy.LEDGER) {
+            throw new BadRequestException("Holds are not supported by the LEDGER transfer strategy");
+        }
+        if (request.getFromCardId() == null || request.getToCardId() == null
+                || request.getAmount() == null || request.getCurrency() == null) {
+            throw new BadRequestException("Source card, destination card, amount and currency are required");
+        }
+        if (request.getAmount() <= 0) {
+            throw new BadRequestException("Amount must be positive");
+        }
+        if (request.getAmount() > 1_000_000L) {
+            throw new BadRequestException("Hold amount exceeds limit");
+        }
+        if (request.getFromCardId().equals(request.getToCardId())) {
+            throw new BadRequestException("Cannot hold funds for the same card");
+        }
+
+        User currentUser = securityService.getCurrentUser();
+        BankCard fromCard = cardRepository.findByIdAndUserId(request.getFromCardId(), currentUser.getId())
+                .orElseThrow(() -> new CardNotFoundException("Source card not found or access denied"));
+        BankCard toCard = cardRepository.findById(request.getToCardId())
+                .orElseThrow(() -> new CardNotFoundException("Destination card not found"));
+        if (!fromCard.isActive()) {
+            throw new BadRequestException("Source card is not active");
+        }
+        if (!toCard.isActive()) {
+            throw new BadRequestException("Destination card is not active");
+        }
+        if (fromCard.getCurrency() != request.getCurrency()) {
+            throw new BadRequestException("Source card currency (" + fromCard.getCurrency() +
+                    ") doesn't match hold currency (" + request.getCurrency() + ")");
+        }
+        if (toCard.getCurrency() != request.getCurrency()) {
+            exchangeRateService.convert(request.getCurrency(), toCard.getCurrency(), request.getAmount());
+        }
+
+        if (fromCard.isSharded() && fromCard.getAvailableBalance() < request.getAmount()) {
+            cardBalanceShardService.drain(fromCard, request.getAmount() - fromCard.getAvailableBalance());
+        }
+        velocityLimiter.acquire(fromCard, request.getAmount(), request.getCurrency());
+        if (cardRepository.holdIfAvailable(fromCard.getId(), request.getAmount()) == 0) {
+            throw new BadRequestException("Insufficient funds");
+        }
+
+        CardHold hold = holdRepository.save(CardHold.builder()
+                .userId(currentUser.getId())
+                .cardId(fromCard.getId())
+                .toCardId(toCard.getId())
+                .amount(request.getAmount())
+                .currency(request.getCurrency())
+                .description(request.getDescription())
+                .expiresAt(OffsetDateTime.now().plus(Duration.ofMinutes(ttlMinutes)))
+                .build());
+        log.info("Hold {} authorized: {} {} on card {} for card {}",
+                hold.getId(), hold.getAmount(), hold.getCurrency(), hold.getCardId(), hold.getToCardId());
+        return toDto(hold);
+    }
+
+    @Override
+    @Transactional
+    public List<TransferResultDto> capture(List<HoldCaptureRequest> requests) {
+        if (strategy == TransferStrategy.LEDGER) {
+            throw new BadRequestException("Holds are not supported by the LEDGER transfer strategy");
+        }
+        if (requests == null || requests.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> holdIds = requests.stream()
+                .map(HoldCaptureRequest::getHoldId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, CardHold> holds = holdIds.isEmpty() ? Map.of() : holdRepository.findAllByIdForUpdate(holdIds).stream()
+                .collect(Collectors.toMap(CardHold::getId, Function.identity()));
+
+        OffsetDateTime now = OffsetDateTime.now();
+        TransferResultDto[] results = new TransferResultDto[requests.size()];
+        List<Integer> candidateIndexes = new ArrayList<>();
+        Set<Long> claimed = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            HoldCaptureRequest request = requests.get(i);
+            String failure = captureFailure(request, holds.get(request.getHoldId()), now, claimed);
+            if (failure != null) {
+                results[i] = failedResult(i, failure);
+            } else {
+                candidateIndexes.add(i);
+            }
+        }
+
+        Set<Long> cardIds = new TreeSet<>();
+        candidateIndexes.forEach(index -> {
+            CardHold hold = holds.get(requests.get(index).getHoldId());
+            cardIds.add(hold.getCardId());
+            cardIds.add(hold.getToCardId());
+        });
+        Map<Long, BankCard> cards = cardIds.isEmpty() ? Map.of() : cardRepository.findAllByIdForUpdate(cardIds).stream()
+                .collect(Collectors.toMap(BankCard::getId, Function.identity()));
+
+        List<Transfer> transfers = new ArrayList<>(candidateIndexes.size());
+        List<CardHold> captured = new ArrayList<>(candidateIndexes.size());
+        List<Integer> transferIndexes = new ArrayList<>(candidateIndexes.size());
+        for (int index : candidateIndexes) {
+            HoldCaptureRequest request = requests.get(index);
+            CardHold hold = holds.get(request.getHoldId());
+            long amount = request.getAmount() != null ? request.getAmount() : hold.getAmount();
+            try {
+                transfers.add(settle(hold, amount, cards.get(hold.getCardId()), cards.get(hold.getToCardId())));
+                captured.add(hold);
+                transferIndexes.add(index);
+            } catch (BadRequestException | CardNotFoundException e) {
+                results[index] = failedResult(index, e.getMessage());
+            }
+        }
+
+        List<Transfer> savedTransfers = transferRepository.saveAll(transfers);
+        transferFeedService.append(savedTransfers);
+        if (!savedTransfers.isEmpty()) {
+            eventPublisher.publishEvent(new TransferCompletedEvent(savedTransfers));
+        }
+        for (int i = 0; i < savedTransfers.size(); i++) {
+            Transfer transfer = savedTransfers.get(i);
+            captured.get(i).setTransferId(transfer.getId());
+            int index = transferIndexes.get(i);
+            results[index] = TransferResultDto.builder()
+                    .index(index)
+                    .success(true)
+                    .transfer(transferMapper.toDTO(transfer))
+                    .build();
+        }
+        log.info("Hold capture finished: {} of {} holds captured", savedTransfers.size(), requests.size());
+        return List.of(results);
+    }
+
+    @Override
+    @Transactional
+    public void voidHold(Long holdId) {
+        findOwned(holdId);
+        CardHold hold = holdRepository.findAllByIdForUpdate(List.of(holdId)).get(0);
+        if (hold.getStatus() != HoldStatus.AUTHORIZED) {
+            throw new BadRequestException("Only authorized holds can be voided");
+        }
+        cardRepository.releaseHold(hold.getCardId(), hold.getAmount());
+        hold.setStatus(HoldStatus.VOIDED);
+        releaseVelocity(hold, hold.getAmount());
+        log.info("Hold {} voided, {} {} released on card {}", holdId, hold.getAmount(), hold.getCurrency(), hold.getCardId());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public HoldDto getHold(Long holdId) {
+        return toDto(findOwned(holdId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<HoldDto> getMyHolds(Pageable pageable) {
+        User currentUser = securityService.getCurrentUser();
+        return holdRepository.findByUserId(currentUser.getId(), pageable).map(this::toDto);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.holds.expiry-interval-ms:60000}")
+    public int expireHolds() {
+        OffsetDateTime now = OffsetDateTime.now();
+        int expired = 0;
+        while (true) {
+            List<Long> holdIds = holdRepository.findExpiredIds(now, PageRequest.of(0, expiryBatchSize));
+            if (holdIds.isEmpty()) {
+                break;
+            }
+            Integer released = transactionTemplate.execute(status -> expire(holdIds, now));
+            expired += released != null ? released : 0;
+            if (holdIds.size() < expiryBatchSize) {
+                break;
+            }
+        }
+        if (expired > 0) {
+            log.info("Released {} expired holds", expired);
+        }
+        return expired;
+    }
+
+    private int expire(List<Long> holdIds, OffsetDateTime now) {
+        List<CardHold> holds = holdRepository.findAllByIdForUpdate(holdIds).stream()
+                .filter(hold -> hold.getStatus() == HoldStatus.AUTHORIZED && hold.isExpiredAt(now))
+                .toList();
+        Map<Long, Long> releasedByCard = new TreeMap<>();
+        for (CardHold hold : holds) {
+            releasedByCard.merge(hold.getCardId(), hold.getAmount(), Long::sum);
+            hold.setStatus(HoldStatus.EXPIRED);
+            releaseVelocity(hold, hold.getAmount());
+        }
+        releasedByCard.forEach(cardRepository::releaseHold);
+        return holds.size();
+    }
+
+    private String captureFailure(HoldCaptureRequest request, CardHold hold, OffsetDateTime now, Set<Long> claimed) {
+        if (request.getHoldId() == null) {
+            return "Hold ID is required";
+        }
+        if (hold == null) {
+            return "Hold not found with id: " + request.getHoldId();
+        }
+        if (hold.getStatus() != HoldStatus.AUTHORIZED) {
+            return "Hold is " + hold.getStatus();
+        }
+        if (hold.isExpiredAt(now)) {
+            return "Hold has expired";
+        }
+        if (request.getAmount() != null && (request.getAmount() <= 0 || request.getAmount() > hold.getAmount())) {
+            return "Capture amount must be positive and cannot exceed the held amount";
+        }
+        if (!claimed.add(hold.getId())) {
+            return "Hold is captured more than once in the batch";
+        }
+        return null;
+    }
+
+    private Transfer settle(CardHold hold, long amount, BankCard fromCard, BankCard toCard) {
+        if (fromCard == null || toCard == null) {
+            throw new CardNotFoundException("Card no longer exists");
+        }
+        if (!toCard.isActive()) {
+            throw new BadRequestException("Destination card is not active");
+        }
+        ExchangeRateService.Conversion conversion = toCard.getCurrency() == hold.getCurrency()
+                ? ExchangeRateService.Conversion.identity(hold.getCurrency(), amount)
+                : exchangeRateService.convert(hold.getCurrency(), toCard.getCurrency(), amount);
+
+        fromCard.setHeldAmount(fromCard.getHeldAmount() - hold.getAmount());
+        fromCard.setBalance(fromCard.getBalance() - amount);
+        if (toCard.isSharded()) {
+            cardBalanceShardService.credit(toCard, conversion.amount());
+        } else {
+            toCard.setBalance(toCard.getBalance() + conversion.amount());
+        }
+        hold.setStatus(HoldStatus.CAPTURED);
+        hold.setCapturedAmount(amount);
+        releaseVelocity(hold, hold.getAmount() - amount);
+
+        return Transfer.builder()
+                .fromCard(fromCard)
+                .toCard(toCard)
+                .amount(amount)
+                .currency(hold.getCurrency())
+                .description(hold.getDescription())
+                .status(TransferStatus.COMPLETED)
+                .exchangeRate(conversion.rate())
+                .creditedAmount(conversion.amount())
+                .creditedCurrency(conversion.currency())
+                .build();
+    }
+
+    private void releaseVelocity(CardHold hold, long amount) {
+        velocityLimiter.release(hold.getCardId(), hold.getUserId(), hold.getCurrency(), amount, hold.getCreatedAt());
+    }
+
+    private CardHold findOwned(Long holdId) {
+        User currentUser = securityService.getCurrentUser();
+        return holdRepository.findByIdAndUserId(holdId, currentUser.getId())
+                .orElseThrow(() -> new HoldNotFoundException("Hold not found with id: " + holdId));
+    }
+
+    private TransferResultDto failedResult(int index, String error) {
+        return TransferResultDto.builder()
+                .index(index)
+                .success(false)
+                .error(error)
+                .build();
+    }
+
+    private HoldDto toDto(CardHold hold) {
+        return HoldDto.builder()
+                .id(hold.getId())
+                .fromCardId(hold.getCardId())
+                .toCardId(hold.getToCardId())
+                .amount(hold.getAmount())
+                .currency(hold.getCurrency())
+                .description(hold.getDescription())
+                .status(hold.getStatus())
+                .capturedAmount(hold.getCapturedAmount())
+                .transferId(hold.getTransferId())
+                .createdAt(hold.getCreatedAt())
+                .expiresAt(hold.getExpiresAt())
+                .build();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.bankcards.service.idempotency;
+
+import com.example.bankcards.dto.TransferDto;
+import com.example.bankcards.dto.TransferRequest;
+
+import java.util.Optional;
+
+public interface IdempotencyService {
+
+    Optional<TransferDto> findTransfer(Long userId, String idempotencyKey, TransferRequest request);
+
+    void reserveKey(Long userId, String idempotencyKey, TransferRequest request);
+
+    void saveTransfer(Long userId, String idempotencyKey, TransferRequest request, TransferDto transfer);
+
+    int purgeExpired();
+}
@@ -0,0 +1,160 @@
+package com.example.bankcards.service.idempotency;
+
+import com.example.bankcards.dto.TransferDto;
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.entity.IdempotencyKey;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Cache<String, StoredTransfer> cache;
+
+    public IdempotencyServiceImpl(IdempotencyKeyRepository idempotencyKeyRepository,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.idempotency.cache-size:10000}") long cacheSize,
+                                  @Value("${app.idempotency.ttl-hours:24}") long ttlHours) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<TransferDto> findTransfer(Long userId, String idempotencyKey, TransferRequest request) {
+        validateKey(idempotencyKey);
+        String cacheKey = cacheKey(userId, idempotencyKey);
+        StoredTransfer stored = cache.getIfPresent(cacheKey);
+        if (stored == null) {
+            stored = idempotencyKeyRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                    .map(key -> new StoredTransfer(key.getRequestHash(), deserialize(key.getResponse())))
+                    .orElse(null);
+            if (stored == null) {
+                return Optional.empty();
+            }
+            cache.put(cacheKey, stored);
+        }
+
+        if (!stored.requestHash().equals(hash(request))) {
+            throw new BadRequestException("Idempotency key has already been used for a different transfer");
+        }
+        log.debug("Replaying stored transfer {} for idempotency key {}", stored.transfer().getId(), idempotencyKey);
+        return Optional.of(stored.transfer());
+    }
+
+    @Override
+    @Transactional
+    public void reserveKey(Long userId, String idempotencyKey, TransferRequest request) {
+        validateKey(idempotencyKey);
+        idempotencyKeyRepository.saveAndFlush(IdempotencyKey.builder()
+                .userId(userId)
+                .idempotencyKey(idempotencyKey)
+                .requestHash(hash(request))
+                .build());
+    }
+
+    @Override
+    @Transactional
+    public void saveTransfer(Long userId, String idempotencyKey, TransferRequest request, TransferDto transfer) {
+        validateKey(idempotencyKey);
+        String requestHash = hash(request);
+        if (idempotencyKeyRepository.storeResponse(userId, idempotencyKey, serialize(transfer)) == 0) {
+            throw new IllegalStateException("Idempotency key " + idempotencyKey + " was not reserved before the transfer");
+        }
+
+        String cacheKey = cacheKey(userId, idempotencyKey);
+        StoredTransfer stored = new StoredTransfer(requestHash, transfer);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(cacheKey, stored);
+                }
+            });
+        } else {
+            cache.put(cacheKey, stored);
+        }
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public int purgeExpired() {
+        int purged = idempotencyKeyRepository.deleteCreatedBefore(OffsetDateTime.now().minus(ttl));
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+        return purged;
+    }
+
+    private void validateKey(String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    private String cacheKey(Long userId, String idempotencyKey) {
+        return userId + ":" + idempotencyKey;
+    }
+
+    private String hash(TransferRequest request) {
+        String fingerprint = request.getFromCardId() + "|" + request.getToCardId() + "|" + request.getAmount()
+                + "|" + request.getCurrency() + "|" + request.getDescription();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(fingerprint.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private String serialize(TransferDto transfer) {
+        try {
+            return objectMapper.writeValueAsString(transfer);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize transfer " + transfer.getId(), e);
+        }
+    }
+
+    private TransferDto deserialize(String response) {
+        try {
+            return objectMapper.readValue(response, TransferDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read stored idempotent transfer", e);
+        }
+    }
+
+    private record StoredTransfer(String requestHash, TransferDto transfer) {
+    }
+}
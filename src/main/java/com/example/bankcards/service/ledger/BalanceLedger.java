@@ -0,0 +1,291 @@
+package com.example.bankcards.service.ledger;
+
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.transfer.strategy", havingValue = "LEDGER")
+public class BalanceLedger {
+
+    private final CardRepository cardRepository;
+    private final TransferRepository transferRepository;
+    private final TransferJournal journal;
+    private final LedgerFlushWriter flushWriter;
+    private final int flushBatchSize;
+    private final int maxFlushAttempts;
+
+    private final ReentrantLock[] stripes;
+    private final Map<Long, BalanceSlot> slots = new ConcurrentHashMap<>();
+    private final Deque<LedgerEntry> pending = new ConcurrentLinkedDeque<>();
+    private final Map<Long, Integer> flushAttempts = new ConcurrentHashMap<>();
+    private final Object sequenceLock = new Object();
+    private final Object transferIdLock = new Object();
+    private long lastSequence;
+    private long nextTransferId = 1L;
+    private long lastTransferId;
+
+    public BalanceLedger(CardRepository cardRepository,
+                         TransferRepository transferRepository,
+                         TransferJournal journal,
+                         LedgerFlushWriter flushWriter,
+                         @Value("${app.ledger.stripes:64}") int stripeCount,
+                         @Value("${app.ledger.flush-batch-size:500}") int flushBatchSize,
+                         @Value("${app.ledger.max-flush-attempts:5}") int maxFlushAttempts,
+                         @Value("${app.transfer.async.enabled:false}") boolean asyncEnabled) {
+        if (asyncEnabled) {
+            throw new IllegalStateException("The LEDGER transfer strategy cannot be combined with app.transfer.async.enabled");
+        }
+        this.cardRepository = cardRepository;
+        this.transferRepository = transferRepository;
+        this.journal = journal;
+        this.flushWriter = flushWriter;
+        this.flushBatchSize = flushBatchSize;
+        this.maxFlushAttempts = Math.max(maxFlushAttempts, 1);
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(stripeCount, 1))];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    public void recover() {
+        List<LedgerEntry> unflushed = new ArrayList<>();
+        journal.replay(unflushed::add);
+        if (!unflushed.isEmpty()) {
+            log.warn("Recovering {} journaled transfers not yet written to the database", unflushed.size());
+            persistRecovered(unflushed);
+            journal.checkpoint(unflushed.get(unflushed.size() - 1).sequence());
+        }
+        lastSequence = Math.max(journal.lastSequence(), transferRepository.findMaxJournalSequence());
+    }
+
+    public long balanceOf(Long cardId, long persistedBalance) {
+        ReentrantLock stripe = stripeFor(cardId);
+        stripe.lock();
+        try {
+            BalanceSlot slot = slots.get(cardId);
+            return slot != null ? slot.balance : persistedBalance;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    public LedgerEntry transfer(Long fromCardId, Long toCardId, long amount, Currency currency, String description) {
+        long transferId = allocateTransferId();
+        int fromStripe = stripeIndex(fromCardId);
+        int toStripe = stripeIndex(toCardId);
+        ReentrantLock first = stripes[Math.min(fromStripe, toStripe)];
+        ReentrantLock second = stripes[Math.max(fromStripe, toStripe)];
+
+        LedgerEntry entry;
+        first.lock();
+        second.lock();
+        try {
+            BalanceSlot from = slot(fromCardId);
+            BalanceSlot to = slot(toCardId);
+            if (from.balance < amount) {
+                throw new BadRequestException("Insufficient funds");
+            }
+
+            synchronized (sequenceLock) {
+                entry = new LedgerEntry(++lastSequence, transferId, System.currentTimeMillis(),
+                        fromCardId, toCardId, amount, currency, description);
+                journal.append(entry);
+                pending.addLast(entry);
+            }
+
+            from.balance -= amount;
+            to.balance += amount;
+        } finally {
+            second.unlock();
+            first.unlock();
+        }
+
+        journal.awaitDurable(entry.sequence());
+        return entry;
+    }
+
+    @Scheduled(fixedDelayString = "${app.ledger.flush-interval-ms:50}")
+    public void flush() {
+        List<LedgerEntry> batch = new ArrayList<>(flushBatchSize);
+        LedgerEntry entry;
+        while (batch.size() < flushBatchSize && (entry = pending.pollFirst()) != null) {
+            batch.add(entry);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            flushWriter.persist(batch);
+            journal.checkpoint(batch.get(batch.size() - 1).sequence());
+            return;
+        } catch (RuntimeException e) {
+            log.error("Ledger flush of {} entries failed: {}", batch.size(), e.getMessage());
+            if (batch.size() == 1) {
+                requeue(batch, retryLater(batch.get(0), e) ? batch : List.of());
+                return;
+            }
+        }
+
+        List<LedgerEntry> retry = new ArrayList<>();
+        for (LedgerEntry failed : batch) {
+            try {
+                flushWriter.persist(List.of(failed));
+                flushAttempts.remove(failed.sequence());
+            } catch (RuntimeException e) {
+                if (retryLater(failed, e)) {
+                    retry.add(failed);
+                }
+            }
+        }
+        requeue(batch, retry);
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        while (!pending.isEmpty()) {
+            int before = pending.size();
+            flush();
+            if (pending.size() >= before) {
+                log.error("Shutting down with {} unflushed ledger entries; they will be recovered from the journal",
+                        pending.size());
+                return;
+            }
+        }
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    private void persistRecovered(List<LedgerEntry> unflushed) {
+        try {
+            flushWriter.persist(unflushed);
+            return;
+        } catch (RuntimeException e) {
+            log.error("Recovery of {} journaled transfers failed, retrying them one by one: {}",
+                    unflushed.size(), e.getMessage());
+        }
+        for (LedgerEntry entry : unflushed) {
+            try {
+                flushWriter.persist(List.of(entry));
+            } catch (RuntimeException e) {
+                flushWriter.deadLetter(entry, e.getMessage());
+                log.error("Journaled ledger entry {} (transfer {}) cannot be persisted and was moved to " +
+                        "ledger_dead_letters: {}", entry.sequence(), entry.transferId(), e.getMessage());
+            }
+        }
+    }
+
+    private boolean retryLater(LedgerEntry entry, RuntimeException failure) {
+        int attempts = flushAttempts.merge(entry.sequence(), 1, Integer::sum);
+        if (attempts < maxFlushAttempts) {
+            return true;
+        }
+        try {
+            flushWriter.deadLetter(entry, failure.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Cannot dead-letter ledger entry {}, keeping it pending: {}", entry.sequence(), e.getMessage());
+            return true;
+        }
+        revert(entry);
+        flushAttempts.remove(entry.sequence());
+        log.error("Ledger entry {} (transfer {}) failed {} flushes and was moved to ledger_dead_letters: {}",
+                entry.sequence(), entry.transferId(), attempts, failure.getMessage());
+        return false;
+    }
+
+    private void requeue(List<LedgerEntry> batch, List<LedgerEntry> retry) {
+        for (int i = retry.size() - 1; i >= 0; i--) {
+            pending.addFirst(retry.get(i));
+        }
+        long checkpoint = retry.isEmpty()
+                ? batch.get(batch.size() - 1).sequence()
+                : retry.get(0).sequence() - 1;
+        if (checkpoint >= batch.get(0).sequence()) {
+            journal.checkpoint(checkpoint);
+        }
+    }
+
+    private void revert(LedgerEntry entry) {
+        int fromStripe = stripeIndex(entry.fromCardId());
+        int toStripe = stripeIndex(entry.toCardId());
+        ReentrantLock first = stripes[Math.min(fromStripe, toStripe)];
+        ReentrantLock second = stripes[Math.max(fromStripe, toStripe)];
+        first.lock();
+        second.lock();
+        try {
+            BalanceSlot from = slots.get(entry.fromCardId());
+            BalanceSlot to = slots.get(entry.toCardId());
+            if (from != null) {
+                from.balance += entry.amount();
+            }
+            if (to != null) {
+                to.balance -= entry.amount();
+            }
+        } finally {
+            second.unlock();
+            first.unlock();
+        }
+    }
+
+    private long allocateTransferId() {
+        synchronized (transferIdLock) {
+            if (nextTransferId > lastTransferId) {
+                lastTransferId = transferRepository.nextIdBlock();
+                nextTransferId = Math.max(lastTransferId - Transfer.ID_ALLOCATION_SIZE + 1, 1L);
+            }
+            return nextTransferId++;
+        }
+    }
+
+    private BalanceSlot slot(Long cardId) {
+        return slots.computeIfAbsent(cardId, id -> {
+            CardRepository.LedgerSeed seed = cardRepository.findLedgerSeedById(id)
+                    .orElseThrow(() -> new CardNotFoundException("Card not found with id: " + id));
+            if (seed.getBalanceShards() > 0 || seed.getHeldAmount() > 0) {
+                throw new BadRequestException("Card " + id + " has balance shards or held funds, " +
+                        "which the LEDGER transfer strategy does not track");
+            }
+            return new BalanceSlot(seed.getBalance());
+        });
+    }
+
+    private ReentrantLock stripeFor(Long cardId) {
+        return stripes[stripeIndex(cardId)];
+    }
+
+    private int stripeIndex(Long cardId) {
+        long hash = cardId * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & (stripes.length - 1);
+    }
+
+    private static final class BalanceSlot {
+        private long balance;
+
+        private BalanceSlot(long balance) {
+            this.balance = balance;
+        }
+    }
+}
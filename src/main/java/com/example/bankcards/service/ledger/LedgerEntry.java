@@ -0,0 +1,59 @@
+package com.example.bankcards.service.ledger;
+
+import com.example.bankcards.entity.enums.Currency;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public record LedgerEntry(
+        long sequence,
+        long transferId,
+        long timestamp,
+        long fromCardId,
+        long toCardId,
+        long amount,
+        Currency currency,
+        String description) {
+
+    private static final int FIXED_SIZE = 6 * Long.BYTES + Byte.BYTES + Short.BYTES;
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    public int encodedSize() {
+        return FIXED_SIZE + descriptionBytes().length;
+    }
+
+    public void writeTo(ByteBuffer buffer) {
+        byte[] descriptionBytes = descriptionBytes();
+        buffer.putLong(sequence)
+                .putLong(transferId)
+                .putLong(timestamp)
+                .putLong(fromCardId)
+                .putLong(toCardId)
+                .putLong(amount)
+                .put((byte) currency.ordinal())
+                .putShort(description == null ? -1 : (short) descriptionBytes.length)
+                .put(descriptionBytes);
+    }
+
+    public static LedgerEntry readFrom(ByteBuffer buffer) {
+        long sequence = buffer.getLong();
+        long transferId = buffer.getLong();
+        long timestamp = buffer.getLong();
+        long fromCardId = buffer.getLong();
+        long toCardId = buffer.getLong();
+        long amount = buffer.getLong();
+        Currency currency = CURRENCIES[buffer.get()];
+        short descriptionLength = buffer.getShort();
+        String description = null;
+        if (descriptionLength >= 0) {
+            byte[] descriptionBytes = new byte[descriptionLength];
+            buffer.get(descriptionBytes);
+            description = new String(descriptionBytes, StandardCharsets.UTF_8);
+        }
+        return new LedgerEntry(sequence, transferId, timestamp, fromCardId, toCardId, amount, currency, description);
+    }
+
+    private byte[] descriptionBytes() {
+        return description == null ? new byte[0] : description.getBytes(StandardCharsets.UTF_8);
+    }
+}
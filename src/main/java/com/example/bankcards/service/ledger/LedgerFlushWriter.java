@@ -0,0 +1,110 @@
+package com.example.bankcards.service.ledger;
+
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.feed.TransferFeedService;
+import com.example.bankcards.service.transfer.TransferCompletedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.transfer.strategy", havingValue = "LEDGER")
+@RequiredArgsConstructor
+public class LedgerFlushWriter {
+
+    private static final String INSERT_TRANSFER_SQL =
+            "INSERT INTO transfers (id, from_card_id, to_card_id, amount, currency, description, transfer_date, " +
+            "status, journal_sequence, exchange_rate, credited_amount, credited_currency) " +
+            "VALUES (:id, :fromCardId, :toCardId, :amount, :currency, :description, :transferDate, " +
+            "'COMPLETED', :journalSequence, 1, :amount, :currency)";
+
+    private static final String SELECT_DEAD_LETTERS_SQL =
+            "SELECT journal_sequence FROM ledger_dead_letters WHERE journal_sequence IN (:sequences)";
+
+    private static final String INSERT_DEAD_LETTER_SQL =
+            "INSERT INTO ledger_dead_letters (journal_sequence, transfer_id, from_card_id, to_card_id, amount, " +
+            "currency, description, error) " +
+            "VALUES (:journalSequence, :id, :fromCardId, :toCardId, :amount, :currency, :description, :error)";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final CardRepository cardRepository;
+    private final TransferRepository transferRepository;
+    private final TransferFeedService transferFeedService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public void persist(List<LedgerEntry> entries) {
+        List<Long> sequences = entries.stream().map(LedgerEntry::sequence).toList();
+        Set<Long> persisted = new HashSet<>(transferRepository.findPersistedJournalSequences(sequences));
+        persisted.addAll(jdbcTemplate.queryForList(SELECT_DEAD_LETTERS_SQL,
+                new MapSqlParameterSource("sequences", sequences), Long.class));
+
+        Map<Long, Long> deltas = new TreeMap<>();
+        List<SqlParameterSource> rows = new ArrayList<>(entries.size());
+        List<Long> transferIds = new ArrayList<>(entries.size());
+        for (LedgerEntry entry : entries) {
+            if (persisted.contains(entry.sequence())) {
+                continue;
+            }
+            deltas.merge(entry.fromCardId(), -entry.amount(), Long::sum);
+            deltas.merge(entry.toCardId(), entry.amount(), Long::sum);
+            rows.add(parameters(entry)
+                    .addValue("transferDate", OffsetDateTime.ofInstant(
+                            Instant.ofEpochMilli(entry.timestamp()), ZoneOffset.UTC)));
+            transferIds.add(entry.transferId());
+        }
+
+        deltas.forEach((cardId, delta) -> {
+            if (delta != 0) {
+                cardRepository.adjustBalance(cardId, delta);
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TRANSFER_SQL, rows.toArray(SqlParameterSource[]::new));
+            List<Transfer> saved = transferRepository.findAllById(transferIds);
+            transferFeedService.append(saved);
+            eventPublisher.publishEvent(new TransferCompletedEvent(saved));
+        }
+        log.debug("Flushed {} ledger entries ({} already persisted) touching {} cards",
+                rows.size(), entries.size() - rows.size(), deltas.size());
+    }
+
+    @Transactional
+    public void deadLetter(LedgerEntry entry, String error) {
+        String message = error != null && error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH)
+                : error;
+        jdbcTemplate.update(INSERT_DEAD_LETTER_SQL, parameters(entry).addValue("error", message));
+    }
+
+    private MapSqlParameterSource parameters(LedgerEntry entry) {
+        return new MapSqlParameterSource("id", entry.transferId())
+                .addValue("journalSequence", entry.sequence())
+                .addValue("fromCardId", entry.fromCardId())
+                .addValue("toCardId", entry.toCardId())
+                .addValue("amount", entry.amount())
+                .addValue("currency", entry.currency().name())
+                .addValue("description", entry.description());
+    }
+}
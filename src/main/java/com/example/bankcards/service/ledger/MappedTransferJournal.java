@@ -0,0 +1,309 @@
+package com.example.bankcards.service.ledger;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.transfer.strategy", havingValue = "LEDGER")
+public class MappedTransferJournal implements TransferJournal {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "journal.checkpoint";
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int MIN_SEGMENT_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final List<Long> segmentStarts = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition written = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+    private final Thread syncThread;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long checkpointSequence;
+    private long writtenSequence;
+    private long durableSequence;
+    private volatile boolean running = true;
+
+    public MappedTransferJournal(@Value("${app.ledger.journal-dir:data/ledger}") Path directory,
+                                 @Value("${app.ledger.journal-segment-bytes:67108864}") int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = Math.max(segmentSize, MIN_SEGMENT_SIZE);
+        try {
+            Files.createDirectories(directory);
+            checkpointSequence = readCheckpoint();
+            recoverSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open transfer journal in " + directory, e);
+        }
+        durableSequence = writtenSequence;
+        syncThread = Thread.ofPlatform().daemon().name("transfer-journal-sync").start(this::syncLoop);
+    }
+
+    @Override
+    public void append(LedgerEntry entry) {
+        ByteBuffer payload = ByteBuffer.allocate(entry.encodedSize());
+        entry.writeTo(payload);
+        CRC32C crc = new CRC32C();
+        crc.update(payload.array());
+
+        lock.lock();
+        try {
+            ensureOpen();
+            if (buffer.remaining() < HEADER_SIZE + payload.capacity()) {
+                rollSegment(entry.sequence());
+            }
+            buffer.putInt(payload.capacity())
+                    .putInt((int) crc.getValue())
+                    .put(payload.array());
+            writtenSequence = entry.sequence();
+            written.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void awaitDurable(long sequence) {
+        lock.lock();
+        try {
+            while (durableSequence < sequence) {
+                ensureOpen();
+                durable.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void replay(Consumer<LedgerEntry> consumer) {
+        lock.lock();
+        try {
+            for (long segmentStart : segmentStarts) {
+                readSegment(segmentPath(segmentStart), entry -> {
+                    if (entry.sequence() > checkpointSequence) {
+                        consumer.accept(entry);
+                    }
+                });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read transfer journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void checkpoint(long sequence) {
+        lock.lock();
+        try {
+            Path tmp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+            Files.writeString(tmp, Long.toString(sequence), StandardCharsets.US_ASCII);
+            Files.move(tmp, directory.resolve(CHECKPOINT_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            checkpointSequence = sequence;
+
+            while (segmentStarts.size() > 1 && segmentStarts.get(1) <= sequence + 1) {
+                Files.deleteIfExists(segmentPath(segmentStarts.remove(0)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write transfer journal checkpoint", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long lastSequence() {
+        lock.lock();
+        try {
+            return writtenSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            running = false;
+            written.signalAll();
+            durable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            syncThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            buffer.force();
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void syncLoop() {
+        while (true) {
+            long target;
+            MappedByteBuffer toForce;
+            lock.lock();
+            try {
+                while (running && writtenSequence == durableSequence) {
+                    written.awaitUninterruptibly();
+                }
+                if (!running) {
+                    return;
+                }
+                target = writtenSequence;
+                toForce = buffer;
+            } finally {
+                lock.unlock();
+            }
+
+            toForce.force();
+
+            lock.lock();
+            try {
+                durableSequence = Math.max(durableSequence, target);
+                durable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void rollSegment(long nextSequence) {
+        try {
+            buffer.force();
+            channel.close();
+            durableSequence = writtenSequence;
+            durable.signalAll();
+            openSegment(nextSequence, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot roll transfer journal segment", e);
+        }
+    }
+
+    private void recoverSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .forEach(segmentStarts::add);
+        }
+
+        writtenSequence = checkpointSequence;
+        int tailPosition = 0;
+        for (long segmentStart : segmentStarts) {
+            tailPosition = readSegment(segmentPath(segmentStart),
+                    entry -> writtenSequence = Math.max(writtenSequence, entry.sequence()));
+        }
+
+        if (segmentStarts.isEmpty()) {
+            openSegment(writtenSequence + 1, 0);
+        } else {
+            long lastStart = segmentStarts.remove(segmentStarts.size() - 1);
+            openSegment(lastStart, tailPosition);
+        }
+    }
+
+    private void openSegment(long firstSequence, int position) throws IOException {
+        channel = FileChannel.open(segmentPath(firstSequence),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        if (position > 0) {
+            for (int i = position; i < segmentSize; i++) {
+                if (buffer.get(i) != 0) {
+                    log.warn("Discarding torn transfer journal tail in segment {} at offset {}", firstSequence, position);
+                    buffer.put(position, new byte[segmentSize - position]);
+                    buffer.force();
+                    break;
+                }
+            }
+        }
+        buffer.position(position);
+        channel.force(true);
+        segmentStarts.add(firstSequence);
+    }
+
+    private int readSegment(Path path, Consumer<LedgerEntry> consumer) throws IOException {
+        try (FileChannel segment = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer content = segment.map(FileChannel.MapMode.READ_ONLY, 0, segment.size());
+            long lastSequence = Long.MIN_VALUE;
+            while (content.remaining() >= HEADER_SIZE) {
+                int start = content.position();
+                int length = content.getInt();
+                int checksum = content.getInt();
+                if (length <= 0 || length > content.remaining()) {
+                    return start;
+                }
+
+                ByteBuffer payload = content.slice(content.position(), length);
+                CRC32C crc = new CRC32C();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    return start;
+                }
+
+                LedgerEntry entry = LedgerEntry.readFrom(payload);
+                content.position(content.position() + length);
+                if (entry.sequence() > lastSequence) {
+                    lastSequence = entry.sequence();
+                    consumer.accept(entry);
+                }
+            }
+            return content.position();
+        }
+    }
+
+    private void ensureOpen() {
+        if (!running) {
+            throw new IllegalStateException("Transfer journal is closed");
+        }
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(checkpoint)) {
+            return 0L;
+        }
+        return Long.parseLong(Files.readString(checkpoint, StandardCharsets.US_ASCII).trim());
+    }
+}
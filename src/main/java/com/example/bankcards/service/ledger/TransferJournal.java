@@ -0,0 +1,16 @@
+package com.example.bankcards.service.ledger;
+
+import java.util.function.Consumer;
+
+public interface TransferJournal {
+
+    void append(LedgerEntry entry);
+
+    void awaitDurable(long sequence);
+
+    void replay(Consumer<LedgerEntry> consumer);
+
+    void checkpoint(long sequence);
+
+    long lastSequence();
+}
@@ -0,0 +1,207 @@
+package com.example.bankcards.service.pipeline;
+
+import com.example.bankcards.exception.TooManyRequestsException;
+import com.example.bankcards.repository.TransferRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.transfer.async.enabled", havingValue = "true")
+public class TransferPipeline {
+
+    private final TransferSettler settler;
+    private final TransferRingBuffer[] partitions;
+    private final Thread[] consumers;
+    private final int batchSize;
+    private final long idleParkNanos;
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+    private volatile boolean running = true;
+
+    public TransferPipeline(TransferSettler settler,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.transfer.async.partitions:4}") int partitionCount,
+                            @Value("${app.transfer.async.capacity:1024}") int capacity,
+                            @Value("${app.transfer.async.batch-size:100}") int batchSize,
+                            @Value("${app.transfer.async.idle-park-micros:500}") long idleParkMicros) {
+        this.settler = settler;
+        this.batchSize = batchSize;
+        this.idleParkNanos = TimeUnit.MICROSECONDS.toNanos(idleParkMicros);
+        this.partitions = new TransferRingBuffer[Integer.highestOneBit(Math.max(partitionCount, 1))];
+        this.consumers = new Thread[partitions.length];
+        for (int i = 0; i < partitions.length; i++) {
+            TransferRingBuffer partition = new TransferRingBuffer(Integer.highestOneBit(Math.max(capacity, 2)));
+            partitions[i] = partition;
+            Gauge.builder("transfer.pipeline.depth", partition, TransferRingBuffer::size)
+                    .tag("partition", Integer.toString(i))
+                    .register(meterRegistry);
+            Gauge.builder("transfer.pipeline.capacity", partition, TransferRingBuffer::capacity)
+                    .tag("partition", Integer.toString(i))
+                    .register(meterRegistry);
+        }
+        this.completedCounter = Counter.builder("transfer.pipeline.settled").tag("outcome", "completed")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("transfer.pipeline.settled").tag("outcome", "failed")
+                .register(meterRegistry);
+        for (int i = 0; i < partitions.length; i++) {
+            TransferRingBuffer partition = partitions[i];
+            consumers[i] = Thread.ofPlatform().daemon().name("transfer-settler-" + i)
+                    .start(() -> consume(partition));
+        }
+    }
+
+    public Ticket claim(Long fromCardId) {
+        int partition = partitionOf(fromCardId);
+        long sequence = partitions[partition].tryClaim();
+        if (sequence == TransferRingBuffer.FULL) {
+            throw new TooManyRequestsException("Transfer queue is full, please retry later");
+        }
+        return new Ticket(partition, sequence);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public int recoverPending() {
+        int recovered = 0;
+        long afterId = 0L;
+        while (running) {
+            List<TransferRepository.PendingEntry> pending = settler.findPendingAfter(afterId, batchSize);
+            for (TransferRepository.PendingEntry entry : pending) {
+                Ticket ticket = awaitClaim(entry.getFromCardId());
+                if (ticket == null) {
+                    break;
+                }
+                publish(ticket, entry.getId());
+                recovered++;
+            }
+            if (pending.size() < batchSize) {
+                break;
+            }
+            afterId = pending.get(pending.size() - 1).getId();
+        }
+        if (recovered > 0) {
+            log.info("Re-enqueued {} pending transfers for settlement", recovered);
+        }
+        return recovered;
+    }
+
+    public void publishAfterCommit(Ticket ticket, Long transferId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(ticket, transferId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                publish(ticket, status == STATUS_COMMITTED ? transferId : TransferRingBuffer.ABANDONED);
+            }
+        });
+    }
+
+    public void abandon(Ticket ticket) {
+        publish(ticket, TransferRingBuffer.ABANDONED);
+    }
+
+    public int depth() {
+        return Arrays.stream(partitions).mapToInt(TransferRingBuffer::size).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        for (Thread consumer : consumers) {
+            LockSupport.unpark(consumer);
+        }
+        for (Thread consumer : consumers) {
+            try {
+                consumer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private int partitionOf(Long fromCardId) {
+        return (int) (fromCardId & (partitions.length - 1));
+    }
+
+    private Ticket awaitClaim(Long fromCardId) {
+        int partition = partitionOf(fromCardId);
+        while (running) {
+            long sequence = partitions[partition].tryClaim();
+            if (sequence != TransferRingBuffer.FULL) {
+                return new Ticket(partition, sequence);
+            }
+            LockSupport.parkNanos(idleParkNanos);
+        }
+        return null;
+    }
+
+    private void publish(Ticket ticket, long transferId) {
+        partitions[ticket.partition()].publish(ticket.sequence(), transferId);
+        LockSupport.unpark(consumers[ticket.partition()]);
+    }
+
+    private void consume(TransferRingBuffer partition) {
+        long[] batch = new long[batchSize];
+        while (true) {
+            int drained = partition.drainTo(batch);
+            if (drained > 0) {
+                settle(Arrays.stream(batch, 0, drained).boxed().toList());
+            } else if (!running) {
+                return;
+            } else {
+                LockSupport.parkNanos(idleParkNanos);
+            }
+        }
+    }
+
+    private void settle(List<Long> transferIds) {
+        try {
+            record(settler.settle(transferIds));
+        } catch (RuntimeException e) {
+            log.warn("Settlement of {} transfers failed, settling them one by one", transferIds.size(), e);
+            for (Long transferId : transferIds) {
+                try {
+                    record(settler.settle(List.of(transferId)));
+                } catch (RuntimeException single) {
+                    log.error("Settlement of transfer {} failed", transferId, single);
+                    markFailed(transferId);
+                }
+            }
+        }
+    }
+
+    private void markFailed(Long transferId) {
+        try {
+            settler.markFailed(transferId);
+            failedCounter.increment();
+        } catch (RuntimeException e) {
+            log.error("Cannot mark transfer {} as failed, it stays PENDING", transferId, e);
+        }
+    }
+
+    private void record(TransferSettler.SettlementResult result) {
+        completedCounter.increment(result.completed());
+        failedCounter.increment(result.failed());
+    }
+
+    public record Ticket(int partition, long sequence) {
+    }
+}
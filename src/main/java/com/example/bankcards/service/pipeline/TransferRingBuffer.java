@@ -0,0 +1,74 @@
+package com.example.bankcards.service.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class TransferRingBuffer {
+
+    public static final long ABANDONED = -1L;
+    public static final long FULL = -1L;
+
+    private final int capacity;
+    private final int mask;
+    private final long[] values;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong(-1L);
+    private volatile long consumed = -1L;
+
+    public TransferRingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be a power of two: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.values = new long[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1L);
+        }
+    }
+
+    public long tryClaim() {
+        while (true) {
+            long current = claimed.get();
+            long next = current + 1;
+            if (next - capacity > consumed) {
+                return FULL;
+            }
+            if (claimed.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    public void publish(long sequence, long value) {
+        int index = (int) (sequence & mask);
+        values[index] = value;
+        published.set(index, sequence);
+    }
+
+    public int drainTo(long[] batch) {
+        long next = consumed + 1;
+        int count = 0;
+        while (count < batch.length) {
+            int index = (int) (next & mask);
+            if (published.get(index) != next) {
+                break;
+            }
+            long value = values[index];
+            if (value != ABANDONED) {
+                batch[count++] = value;
+            }
+            consumed = next++;
+        }
+        return count;
+    }
+
+    public int size() {
+        return (int) Math.max(claimed.get() - consumed, 0L);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
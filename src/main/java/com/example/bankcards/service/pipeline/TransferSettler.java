@@ -0,0 +1,117 @@
+package com.example.bankcards.service.pipeline;
+
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.card.CardBalanceShardService;
+import com.example.bankcards.service.transfer.TransferCompletedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.transfer.async.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class TransferSettler {
+
+    private final TransferRepository transferRepository;
+    private final CardRepository cardRepository;
+    private final CardBalanceShardService cardBalanceShardService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public SettlementResult settle(List<Long> transferIds) {
+        Map<Long, Transfer> loaded = transferRepository.findAllByIdForUpdate(transferIds).stream()
+                .collect(Collectors.toMap(Transfer::getId, Function.identity()));
+        List<Transfer> transfers = transferIds.stream()
+                .map(loaded::get)
+                .filter(transfer -> transfer != null && transfer.getStatus() == TransferStatus.PENDING)
+                .toList();
+        if (transfers.isEmpty()) {
+            return new SettlementResult(0, 0);
+        }
+
+        Set<Long> cardIds = new TreeSet<>();
+        transfers.forEach(transfer -> {
+            cardIds.add(transfer.getFromCard().getId());
+            cardIds.add(transfer.getToCard().getId());
+        });
+        Map<Long, BankCard> cards = cardRepository.findAllByIdForUpdate(cardIds).stream()
+                .collect(Collectors.toMap(BankCard::getId, Function.identity()));
+
+        List<Transfer> completed = new ArrayList<>(transfers.size());
+        int failed = 0;
+        for (Transfer transfer : transfers) {
+            BankCard fromCard = cards.get(transfer.getFromCard().getId());
+            BankCard toCard = cards.get(transfer.getToCard().getId());
+            String failure = settlementFailure(fromCard, toCard, transfer);
+            if (failure == null) {
+                fromCard.setBalance(fromCard.getBalance() - transfer.getAmount());
+                if (toCard.isSharded()) {
+                    cardBalanceShardService.credit(toCard, transfer.getCreditedAmount());
+                } else {
+                    toCard.setBalance(toCard.getBalance() + transfer.getCreditedAmount());
+                }
+                transfer.setStatus(TransferStatus.COMPLETED);
+                completed.add(transfer);
+            } else {
+                log.warn("Transfer {} failed during settlement: {}", transfer.getId(), failure);
+                transfer.setStatus(TransferStatus.FAILED);
+                failed++;
+            }
+        }
+        if (!completed.isEmpty()) {
+            eventPublisher.publishEvent(new TransferCompletedEvent(completed));
+        }
+        return new SettlementResult(completed.size(), failed);
+    }
+
+    @Transactional
+    public void markFailed(Long transferId) {
+        transferRepository.findByIdForUpdate(transferId)
+                .filter(transfer -> transfer.getStatus() == TransferStatus.PENDING)
+                .ifPresent(transfer -> transfer.setStatus(TransferStatus.FAILED));
+    }
+
+    @Transactional(readOnly = true)
+    public List<TransferRepository.PendingEntry> findPendingAfter(Long afterId, int limit) {
+        return transferRepository.findPendingAfter(afterId, PageRequest.of(0, limit));
+    }
+
+    private String settlementFailure(BankCard fromCard, BankCard toCard, Transfer transfer) {
+        if (fromCard == null || toCard == null) {
+            return "Card no longer exists";
+        }
+        if (!fromCard.isActive()) {
+            return "Source card is not active";
+        }
+        if (!toCard.isActive()) {
+            return "Destination card is not active";
+        }
+        if (fromCard.getAvailableBalance() < transfer.getAmount()) {
+            return "Insufficient funds";
+        }
+        if (fromCard.getCurrency() != transfer.getCurrency()) {
+            return "Currency mismatch";
+        }
+        return null;
+    }
+
+    public record SettlementResult(int completed, int failed) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.bankcards.service.posting;
+
+import com.example.bankcards.entity.Transfer;
+
+import java.util.List;
+
+public interface PostingService {
+
+    void post(List<Transfer> transfers);
+
+    void openCard(Long cardId, long balance);
+
+    void closeCard(Long cardId);
+
+    long getPostedBalance(Long cardId);
+
+    int takeSnapshots();
+}
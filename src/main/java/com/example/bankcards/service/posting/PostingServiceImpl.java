@@ -0,0 +1,142 @@
+package com.example.bankcards.service.posting;
+
+import com.example.bankcards.entity.CardBalanceSnapshot;
+import com.example.bankcards.entity.LedgerPosting;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.enums.PostingDirection;
+import com.example.bankcards.repository.CardBalanceSnapshotRepository;
+import com.example.bankcards.repository.LedgerPostingRepository;
+import com.example.bankcards.service.transfer.TransferCompletedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class PostingServiceImpl implements PostingService {
+
+    private static final int SNAPSHOT_CHUNK_SIZE = 1000;
+
+    private final LedgerPostingRepository postingRepository;
+    private final CardBalanceSnapshotRepository snapshotRepository;
+
+    @Value("${app.postings.snapshot-retention-days:7}")
+    private long snapshotRetentionDays = 7L;
+
+    @EventListener
+    public void onTransferCompleted(TransferCompletedEvent event) {
+        post(event.transfers());
+    }
+
+    @Override
+    @Transactional
+    public void post(List<Transfer> transfers) {
+        if (transfers.isEmpty()) {
+            return;
+        }
+
+        OffsetDateTime postedAt = OffsetDateTime.now();
+        List<LedgerPosting> postings = new ArrayList<>(transfers.size() * 2);
+        for (Transfer transfer : transfers) {
+            postings.add(LedgerPosting.builder()
+                    .transferId(transfer.getId())
+                    .cardId(transfer.getFromCard().getId())
+                    .direction(PostingDirection.DEBIT)
+                    .amount(-transfer.getAmount())
+                    .currency(transfer.getCurrency())
+                    .postedAt(postedAt)
+                    .build());
+            postings.add(LedgerPosting.builder()
+                    .transferId(transfer.getId())
+                    .cardId(transfer.getToCard().getId())
+                    .direction(PostingDirection.CREDIT)
+                    .amount(transfer.getCreditedAmount())
+                    .currency(transfer.getCreditedCurrency())
+                    .postedAt(postedAt)
+                    .build());
+        }
+        postingRepository.saveAll(postings);
+    }
+
+    @Override
+    @Transactional
+    public void openCard(Long cardId, long balance) {
+        snapshotRepository.save(CardBalanceSnapshot.builder()
+                .cardId(cardId)
+                .balance(balance)
+                .asOf(OffsetDateTime.now())
+                .build());
+    }
+
+    @Override
+    @Transactional
+    public void closeCard(Long cardId) {
+        snapshotRepository.deleteByCardId(cardId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getPostedBalance(Long cardId) {
+        return snapshotRepository.findFirstByCardIdOrderByIdDesc(cardId)
+                .map(snapshot -> snapshot.getBalance()
+                        + postingRepository.sumAmountAfterRun(cardId, snapshot.getSnapshotRun()))
+                .orElseGet(() -> postingRepository.sumAmountByCardId(cardId));
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.postings.snapshot-interval-ms:300000}",
+            initialDelayString = "${app.postings.snapshot-interval-ms:300000}")
+    public int takeSnapshots() {
+        long run = postingRepository.nextSnapshotRun();
+        OffsetDateTime asOf = OffsetDateTime.now();
+        List<LedgerPostingRepository.CardDelta> deltas = postingRepository.markUnsnapshotted(run) > 0
+                ? postingRepository.findDeltasBySnapshotRun(run)
+                : List.of();
+
+        List<CardBalanceSnapshot> snapshots = new ArrayList<>(deltas.size());
+        for (int from = 0; from < deltas.size(); from += SNAPSHOT_CHUNK_SIZE) {
+            List<LedgerPostingRepository.CardDelta> chunk =
+                    deltas.subList(from, Math.min(from + SNAPSHOT_CHUNK_SIZE, deltas.size()));
+            Map<Long, CardBalanceSnapshot> latest = snapshotRepository.findLatestByCardIds(
+                            chunk.stream().map(LedgerPostingRepository.CardDelta::getCardId).toList())
+                    .stream()
+                    .collect(Collectors.toMap(CardBalanceSnapshot::getCardId, Function.identity(), (a, b) -> a));
+            for (LedgerPostingRepository.CardDelta delta : chunk) {
+                CardBalanceSnapshot previous = latest.get(delta.getCardId());
+                long base = previous != null ? previous.getBalance() : 0L;
+                snapshots.add(CardBalanceSnapshot.builder()
+                        .cardId(delta.getCardId())
+                        .balance(base + delta.getDelta())
+                        .asOf(asOf)
+                        .snapshotRun(run)
+                        .build());
+            }
+        }
+        if (!snapshots.isEmpty()) {
+            snapshotRepository.saveAll(snapshots);
+        }
+
+        int pruned = snapshotRepository.deleteSupersededBefore(
+                OffsetDateTime.now().minus(Duration.ofDays(snapshotRetentionDays)));
+        if (!snapshots.isEmpty() || pruned > 0) {
+            log.info("Took {} card balance snapshots in run {}, pruned {} superseded snapshots",
+                    snapshots.size(), run, pruned);
+        }
+        return snapshots.size();
+    }
+}
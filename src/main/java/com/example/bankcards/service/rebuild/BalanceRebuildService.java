@@ -0,0 +1,13 @@
+package com.example.bankcards.service.rebuild;
+
+import com.example.bankcards.dto.BalanceRebuildJobDto;
+import com.example.bankcards.dto.BalanceRebuildRequest;
+
+public interface BalanceRebuildService {
+
+    BalanceRebuildJobDto startRebuild(BalanceRebuildRequest request);
+
+    BalanceRebuildJobDto resumeRebuild(Long jobId);
+
+    BalanceRebuildJobDto getRebuild(Long jobId);
+}
@@ -0,0 +1,226 @@
+package com.example.bankcards.service.rebuild;
+
+import com.example.bankcards.dto.BalanceRebuildJobDto;
+import com.example.bankcards.dto.BalanceRebuildRequest;
+import com.example.bankcards.entity.BalanceRebuildJob;
+import com.example.bankcards.entity.enums.RebuildStatus;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.RebuildJobNotFoundException;
+import com.example.bankcards.repository.BalanceRebuildJobRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.transfer.TransferStrategy;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class BalanceRebuildServiceImpl implements BalanceRebuildService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final BalanceRebuildJobRepository jobRepository;
+    private final CardRepository cardRepository;
+    private final BalanceRebuilder rebuilder;
+    private final TransferStrategy strategy;
+    private final int batchSize;
+    private final int parallelism;
+    private final ExecutorService coordinator;
+    private final ExecutorService workers;
+    private final Set<Long> activeJobs = ConcurrentHashMap.newKeySet();
+
+    public BalanceRebuildServiceImpl(BalanceRebuildJobRepository jobRepository,
+                                     CardRepository cardRepository,
+                                     BalanceRebuilder rebuilder,
+                                     @Value("${app.transfer.strategy:ATOMIC_UPDATE}") TransferStrategy strategy,
+                                     @Value("${app.balance-rebuild.batch-size:500}") int batchSize,
+                                     @Value("${app.balance-rebuild.parallelism:4}") int parallelism) {
+        this.jobRepository = jobRepository;
+        this.cardRepository = cardRepository;
+        this.rebuilder = rebuilder;
+        this.strategy = strategy;
+        this.batchSize = Math.max(1, batchSize);
+        this.parallelism = Math.max(1, parallelism);
+        this.coordinator = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("balance-rebuild").factory());
+        this.workers = Executors.newFixedThreadPool(this.parallelism,
+                Thread.ofPlatform().name("balance-rebuild-worker-", 0).factory());
+    }
+
+    @Override
+    public BalanceRebuildJobDto startRebuild(BalanceRebuildRequest request) {
+        if (strategy == TransferStrategy.LEDGER) {
+            throw new BadRequestException("Balances cannot be rebuilt while the LEDGER strategy holds them in memory");
+        }
+        String cardIds = null;
+        if (request.getCardIds() != null) {
+            if (request.getCardIds().isEmpty()) {
+                throw new BadRequestException("Card ids must not be empty when provided");
+            }
+            cardIds = request.getCardIds().stream()
+                    .distinct()
+                    .sorted()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(","));
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        BalanceRebuildJob job = jobRepository.save(BalanceRebuildJob.builder()
+                .status(RebuildStatus.RUNNING)
+                .cardIds(cardIds)
+                .fromSnapshot(request.isFromSnapshot())
+                .startedAt(now)
+                .updatedAt(now)
+                .build());
+        log.info("Balance rebuild {} started for {} (from snapshot: {})",
+                job.getId(), cardIds == null ? "all cards" : "cards " + cardIds, job.isFromSnapshot());
+        submit(job.getId());
+        return toDto(job);
+    }
+
+    @Override
+    public BalanceRebuildJobDto resumeRebuild(Long jobId) {
+        BalanceRebuildJob job = findJob(jobId);
+        if (job.getStatus() == RebuildStatus.COMPLETED) {
+            throw new BadRequestException("Balance rebuild " + jobId + " has already completed");
+        }
+        if (activeJobs.contains(jobId)) {
+            throw new BadRequestException("Balance rebuild " + jobId + " is already running");
+        }
+
+        job.setStatus(RebuildStatus.RUNNING);
+        job.setError(null);
+        job.setUpdatedAt(OffsetDateTime.now());
+        job = jobRepository.save(job);
+        log.info("Balance rebuild {} resumed after card {}", jobId, job.getLastCardId());
+        submit(jobId);
+        return toDto(job);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BalanceRebuildJobDto getRebuild(Long jobId) {
+        return toDto(findJob(jobId));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void submit(Long jobId) {
+        activeJobs.add(jobId);
+        coordinator.execute(() -> {
+            try {
+                run(jobId);
+            } finally {
+                activeJobs.remove(jobId);
+            }
+        });
+    }
+
+    private void run(Long jobId) {
+        BalanceRebuildJob job = findJob(jobId);
+        boolean fromSnapshot = job.isFromSnapshot();
+        List<Long> scope = job.getCardIds() == null ? null : Arrays.stream(job.getCardIds().split(","))
+                .map(Long::valueOf)
+                .toList();
+        try {
+            while (true) {
+                long windowStart = System.nanoTime();
+                List<Long> window = nextWindow(scope, job.getLastCardId(), batchSize * parallelism);
+                if (window.isEmpty()) {
+                    break;
+                }
+
+                List<Future<BalanceRebuilder.BatchResult>> batches = new ArrayList<>();
+                for (int from = 0; from < window.size(); from += batchSize) {
+                    List<Long> batch = window.subList(from, Math.min(from + batchSize, window.size()));
+                    batches.add(workers.submit(() -> rebuilder.rebuild(batch, fromSnapshot)));
+                }
+                for (Future<BalanceRebuilder.BatchResult> batch : batches) {
+                    BalanceRebuilder.BatchResult result = batch.get();
+                    job.setCardsRebuilt(job.getCardsRebuilt() + result.cardsRebuilt());
+                    job.setCardsCorrected(job.getCardsCorrected() + result.cardsCorrected());
+                    job.setEventsReplayed(job.getEventsReplayed() + result.eventsReplayed());
+                }
+
+                job.setLastCardId(window.get(window.size() - 1));
+                job.setElapsedMs(job.getElapsedMs() + (System.nanoTime() - windowStart) / 1_000_000);
+                job.setUpdatedAt(OffsetDateTime.now());
+                job = jobRepository.save(job);
+                log.info("Balance rebuild {} checkpoint at card {}: {} cards rebuilt, {} corrected, {} events replayed ({} events/s)",
+                        jobId, job.getLastCardId(), job.getCardsRebuilt(), job.getCardsCorrected(),
+                        job.getEventsReplayed(), String.format("%.0f", eventsPerSecond(job)));
+            }
+            job.setStatus(RebuildStatus.COMPLETED);
+            job.setFinishedAt(OffsetDateTime.now());
+            log.info("Balance rebuild {} completed: {} cards rebuilt, {} corrected in {} ms",
+                    jobId, job.getCardsRebuilt(), job.getCardsCorrected(), job.getElapsedMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(job, "Interrupted");
+        } catch (ExecutionException e) {
+            fail(job, e.getCause().getMessage());
+        } catch (RuntimeException e) {
+            fail(job, e.getMessage());
+        }
+        job.setUpdatedAt(OffsetDateTime.now());
+        jobRepository.save(job);
+    }
+
+    private List<Long> nextWindow(List<Long> scope, Long afterId, int limit) {
+        long after = afterId != null ? afterId : Long.MIN_VALUE;
+        if (scope == null) {
+            return cardRepository.findIdsAfter(after, PageRequest.of(0, limit));
+        }
+        return scope.stream().filter(id -> id > after).limit(limit).toList();
+    }
+
+    private void fail(BalanceRebuildJob job, String error) {
+        log.error("Balance rebuild {} failed after card {}: {}", job.getId(), job.getLastCardId(), error);
+        job.setStatus(RebuildStatus.FAILED);
+        job.setError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+    }
+
+    private BalanceRebuildJob findJob(Long jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new RebuildJobNotFoundException("Balance rebuild job not found with id: " + jobId));
+    }
+
+    private static double eventsPerSecond(BalanceRebuildJob job) {
+        return job.getElapsedMs() > 0 ? job.getEventsReplayed() * 1000.0 / job.getElapsedMs() : 0.0;
+    }
+
+    private BalanceRebuildJobDto toDto(BalanceRebuildJob job) {
+        return BalanceRebuildJobDto.builder()
+                .id(job.getId())
+                .status(job.getStatus())
+                .fromSnapshot(job.isFromSnapshot())
+                .lastCardId(job.getLastCardId())
+                .cardsRebuilt(job.getCardsRebuilt())
+                .cardsCorrected(job.getCardsCorrected())
+                .eventsReplayed(job.getEventsReplayed())
+                .elapsedMs(job.getElapsedMs())
+                .eventsPerSecond(eventsPerSecond(job))
+                .error(job.getError())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.bankcards.service.rebuild;
+
+import com.example.bankcards.service.reconciliation.LongLongHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+public class BalanceRebuilder {
+
+    private static final String LOCK_CARDS_SQL =
+            "SELECT id, balance, opening_balance FROM bank_cards WHERE id IN (:ids) ORDER BY id FOR UPDATE";
+
+    private static final String LOCK_SHARDS_SQL =
+            "SELECT card_id, balance FROM card_balance_shards WHERE card_id IN (:ids) " +
+            "ORDER BY card_id, shard_index FOR UPDATE";
+
+    private static final String LATEST_SNAPSHOTS_SQL =
+            "SELECT s.card_id, s.balance, s.snapshot_run FROM card_balance_snapshots s WHERE s.card_id IN (:ids) " +
+            "AND s.id = (SELECT MAX(l.id) FROM card_balance_snapshots l WHERE l.card_id = s.card_id)";
+
+    private static final String POSTINGS_AFTER_RUN_SQL =
+            "SELECT card_id, amount, snapshot_run FROM ledger_postings WHERE card_id IN (:ids) " +
+            "AND (snapshot_run IS NULL OR snapshot_run > :run)";
+
+    private static final String COMPLETED_TRANSFERS_SQL =
+            "SELECT from_card_id, to_card_id, amount, credited_amount FROM transfers " +
+            "WHERE status = 'COMPLETED' AND (from_card_id IN (:ids) OR to_card_id IN (:ids))";
+
+    private static final String UPDATE_BALANCE_SQL =
+            "UPDATE bank_cards SET balance = ?, version = version + 1 WHERE id = ?";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public BalanceRebuilder(DataSource dataSource,
+                            @Value("${app.balance-rebuild.fetch-size:5000}") int fetchSize) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        this.jdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Transactional
+    public BatchResult rebuild(List<Long> cardIds, boolean fromSnapshot) {
+        MapSqlParameterSource ids = new MapSqlParameterSource("ids", cardIds);
+        Map<Long, long[]> cards = new HashMap<>();
+        jdbc.query(LOCK_CARDS_SQL, ids, (RowCallbackHandler) rs ->
+                cards.put(rs.getLong(1), new long[]{rs.getLong(2), rs.getLong(3)}));
+        if (cards.isEmpty()) {
+            return new BatchResult(0, 0, 0);
+        }
+
+        LongLongHashMap shards = new LongLongHashMap(cards.size());
+        jdbc.query(LOCK_SHARDS_SQL, ids, (RowCallbackHandler) rs -> shards.addTo(rs.getLong(1), rs.getLong(2)));
+
+        LongLongHashMap expected = new LongLongHashMap(cards.size());
+        Set<Long> replayFromTransfers = new HashSet<>(cards.keySet());
+        long[] events = {0L};
+
+        if (fromSnapshot) {
+            Map<Long, Long> runs = new HashMap<>();
+            jdbc.query(LATEST_SNAPSHOTS_SQL, ids, (RowCallbackHandler) rs -> {
+                long cardId = rs.getLong(1);
+                expected.addTo(cardId, rs.getLong(2));
+                runs.put(cardId, rs.getLong(3));
+                replayFromTransfers.remove(cardId);
+            });
+            if (!runs.isEmpty()) {
+                long oldestRun = runs.values().stream().min(Long::compareTo).orElseThrow();
+                jdbc.query(POSTINGS_AFTER_RUN_SQL,
+                        new MapSqlParameterSource("ids", new ArrayList<>(runs.keySet()))
+                                .addValue("run", oldestRun),
+                        (RowCallbackHandler) rs -> {
+                            long cardId = rs.getLong(1);
+                            long run = rs.getLong(3);
+                            if (rs.wasNull() || run > runs.get(cardId)) {
+                                expected.addTo(cardId, rs.getLong(2));
+                                events[0]++;
+                            }
+                        });
+            }
+        }
+
+        if (!replayFromTransfers.isEmpty()) {
+            replayFromTransfers.forEach(cardId -> expected.addTo(cardId, cards.get(cardId)[1]));
+            jdbc.query(COMPLETED_TRANSFERS_SQL, new MapSqlParameterSource("ids", new ArrayList<>(replayFromTransfers)),
+                    (RowCallbackHandler) rs -> {
+                        long fromCardId = rs.getLong(1);
+                        long toCardId = rs.getLong(2);
+                        if (replayFromTransfers.contains(fromCardId)) {
+                            expected.addTo(fromCardId, -rs.getLong(3));
+                        }
+                        if (replayFromTransfers.contains(toCardId)) {
+                            expected.addTo(toCardId, rs.getLong(4));
+                        }
+                        events[0]++;
+                    });
+        }
+
+        List<Object[]> updates = new ArrayList<>();
+        cards.forEach((cardId, row) -> {
+            long balance = expected.get(cardId) - shards.get(cardId);
+            if (balance != row[0]) {
+                updates.add(new Object[]{balance, cardId});
+            }
+        });
+        if (!updates.isEmpty()) {
+            jdbc.getJdbcTemplate().batchUpdate(UPDATE_BALANCE_SQL, updates);
+        }
+        return new BatchResult(cards.size(), updates.size(), events[0]);
+    }
+
+    public record BatchResult(long cardsRebuilt, long cardsCorrected, long eventsReplayed) {
+    }
+}
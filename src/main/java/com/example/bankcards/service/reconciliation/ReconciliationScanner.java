@@ -0,0 +1,163 @@
+package com.example.bankcards.service.reconciliation;
+
+import com.example.bankcards.dto.BalanceMismatchDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongConsumer;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReconciliationScanner {
+
+    private static final String ID_RANGE_SQL = "SELECT MIN(id), MAX(id) FROM transfers";
+
+    private static final String TRANSFER_CHUNK_SQL =
+            "SELECT from_card_id, to_card_id, amount, credited_amount FROM transfers " +
+            "WHERE id >= ? AND id < ? AND status = 'COMPLETED'";
+
+    private static final String CARD_BALANCES_SQL =
+            "SELECT c.id, c.opening_balance, c.balance + COALESCE(s.total, 0) FROM bank_cards c " +
+            "LEFT JOIN (SELECT card_id, SUM(balance) AS total FROM card_balance_shards GROUP BY card_id) s " +
+            "ON s.card_id = c.id";
+
+    private static final String RECHECK_SQL =
+            "SELECT c.id, " +
+            "c.balance + COALESCE((SELECT SUM(s.balance) FROM card_balance_shards s WHERE s.card_id = c.id), 0), " +
+            "c.opening_balance " +
+            "+ COALESCE((SELECT SUM(t.credited_amount) FROM transfers t WHERE t.to_card_id = c.id AND t.status = 'COMPLETED'), 0) " +
+            "- COALESCE((SELECT SUM(t.amount) FROM transfers t WHERE t.from_card_id = c.id AND t.status = 'COMPLETED'), 0) " +
+            "FROM bank_cards c WHERE c.id IN (:ids)";
+
+    private static final int RECHECK_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Value("${app.reconciliation.chunk-size:100000}")
+    private long chunkSize = 100_000L;
+
+    @Value("${app.reconciliation.parallelism:4}")
+    private int parallelism = 4;
+
+    @Value("${app.reconciliation.fetch-size:5000}")
+    private int fetchSize = 5000;
+
+    public NetPositions scanNetPositions() {
+        long[] range = jdbcTemplate.queryForObject(ID_RANGE_SQL, (rs, rowNum) -> {
+            long min = rs.getLong(1);
+            return rs.wasNull() ? null : new long[]{min, rs.getLong(2)};
+        });
+        if (range == null) {
+            return new NetPositions(new LongLongHashMap(), 0L);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(new ChunkTask(range[0], range[1] + 1));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public long compareBalances(NetPositions positions, LongConsumer suspect) {
+        long[] cards = {0L};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(CARD_BALANCES_SQL);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            long cardId = rs.getLong(1);
+            long expected = rs.getLong(2) + positions.deltas().get(cardId);
+            if (rs.getLong(3) != expected) {
+                suspect.accept(cardId);
+            }
+            cards[0]++;
+        });
+        return cards[0];
+    }
+
+    public List<BalanceMismatchDto> recheck(List<Long> cardIds) {
+        List<BalanceMismatchDto> mismatches = new ArrayList<>();
+        for (int from = 0; from < cardIds.size(); from += RECHECK_BATCH_SIZE) {
+            Collection<Long> batch = cardIds.subList(from, Math.min(from + RECHECK_BATCH_SIZE, cardIds.size()));
+            namedParameterJdbcTemplate.query(RECHECK_SQL, Map.of("ids", batch), (RowCallbackHandler) rs -> {
+                long recorded = rs.getLong(2);
+                long expected = rs.getLong(3);
+                if (recorded != expected) {
+                    mismatches.add(BalanceMismatchDto.builder()
+                            .cardId(rs.getLong(1))
+                            .recordedBalance(recorded)
+                            .expectedBalance(expected)
+                            .difference(recorded - expected)
+                            .build());
+                }
+            });
+        }
+        return mismatches;
+    }
+
+    private NetPositions scanChunk(long fromId, long toId) {
+        LongLongHashMap deltas = new LongLongHashMap();
+        long[] scanned = {0L};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(TRANSFER_CHUNK_SQL);
+            statement.setFetchSize(fetchSize);
+            statement.setLong(1, fromId);
+            statement.setLong(2, toId);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            deltas.addTo(rs.getLong(1), -rs.getLong(3));
+            deltas.addTo(rs.getLong(2), rs.getLong(4));
+            scanned[0]++;
+        });
+        log.debug("Reconciled transfer ids [{}, {}): {} transfers, {} cards", fromId, toId, scanned[0], deltas.size());
+        return new NetPositions(deltas, scanned[0]);
+    }
+
+    public record NetPositions(LongLongHashMap deltas, long transfersScanned) {
+
+        NetPositions merge(NetPositions other) {
+            LongLongHashMap larger = deltas.size() >= other.deltas.size() ? deltas : other.deltas;
+            LongLongHashMap smaller = larger == deltas ? other.deltas : deltas;
+            larger.addAll(smaller);
+            return new NetPositions(larger, transfersScanned + other.transfersScanned);
+        }
+    }
+
+    private final class ChunkTask extends RecursiveTask<NetPositions> {
+
+        private final long fromId;
+        private final long toId;
+
+        private ChunkTask(long fromId, long toId) {
+            this.fromId = fromId;
+            this.toId = toId;
+        }
+
+        @Override
+        protected NetPositions compute() {
+            if (toId - fromId <= chunkSize) {
+                return scanChunk(fromId, toId);
+            }
+            long middle = fromId + (toId - fromId) / 2;
+            ChunkTask left = new ChunkTask(fromId, middle);
+            left.fork();
+            NetPositions right = new ChunkTask(middle, toId).compute();
+            return left.join().merge(right);
+        }
+    }
+}
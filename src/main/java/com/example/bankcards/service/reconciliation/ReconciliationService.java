@@ -0,0 +1,12 @@
+package com.example.bankcards.service.reconciliation;
+
+import com.example.bankcards.dto.ReconciliationReportDto;
+
+import java.util.Optional;
+
+public interface ReconciliationService {
+
+    ReconciliationReportDto reconcile();
+
+    Optional<ReconciliationReportDto> getLatestReport();
+}
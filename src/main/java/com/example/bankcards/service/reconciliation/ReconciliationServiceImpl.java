@@ -0,0 +1,106 @@
+package com.example.bankcards.service.reconciliation;
+
+import com.example.bankcards.dto.BalanceMismatchDto;
+import com.example.bankcards.dto.ReconciliationReportDto;
+import com.example.bankcards.entity.ReconciliationMismatch;
+import com.example.bankcards.entity.ReconciliationRun;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.repository.ReconciliationMismatchRepository;
+import com.example.bankcards.repository.ReconciliationRunRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReconciliationServiceImpl implements ReconciliationService {
+
+    private final ReconciliationScanner scanner;
+    private final ReconciliationRunRepository runRepository;
+    private final ReconciliationMismatchRepository mismatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Override
+    @Scheduled(cron = "${app.reconciliation.cron:0 0 3 * * *}")
+    public ReconciliationReportDto reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            throw new BadRequestException("Reconciliation is already running");
+        }
+        try {
+            OffsetDateTime startedAt = OffsetDateTime.now();
+            ReconciliationScanner.NetPositions positions = scanner.scanNetPositions();
+            List<Long> suspects = new ArrayList<>();
+            long cardsChecked = scanner.compareBalances(positions, suspects::add);
+            List<BalanceMismatchDto> mismatches = suspects.isEmpty() ? List.of() : scanner.recheck(suspects);
+
+            ReconciliationRun run = transactionTemplate.execute(status -> saveRun(ReconciliationRun.builder()
+                    .startedAt(startedAt)
+                    .finishedAt(OffsetDateTime.now())
+                    .transfersScanned(positions.transfersScanned())
+                    .cardsChecked(cardsChecked)
+                    .mismatchCount(mismatches.size())
+                    .build(), mismatches));
+
+            if (mismatches.isEmpty()) {
+                log.info("Reconciliation {} found no mismatches across {} cards and {} transfers",
+                        run.getId(), cardsChecked, positions.transfersScanned());
+            } else {
+                log.warn("Reconciliation {} found {} balance mismatches across {} cards ({} suspects rechecked)",
+                        run.getId(), mismatches.size(), cardsChecked, suspects.size());
+            }
+            return toReport(run, mismatches);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ReconciliationReportDto> getLatestReport() {
+        return runRepository.findFirstByOrderByStartedAtDesc()
+                .map(run -> toReport(run, mismatchRepository.findByRunIdOrderByCardId(run.getId()).stream()
+                        .map(mismatch -> BalanceMismatchDto.builder()
+                                .cardId(mismatch.getCardId())
+                                .recordedBalance(mismatch.getRecordedBalance())
+                                .expectedBalance(mismatch.getExpectedBalance())
+                                .difference(mismatch.getRecordedBalance() - mismatch.getExpectedBalance())
+                                .build())
+                        .toList()));
+    }
+
+    private ReconciliationRun saveRun(ReconciliationRun run, List<BalanceMismatchDto> mismatches) {
+        ReconciliationRun savedRun = runRepository.save(run);
+        mismatchRepository.saveAll(mismatches.stream()
+                .map(mismatch -> ReconciliationMismatch.builder()
+                        .runId(savedRun.getId())
+                        .cardId(mismatch.getCardId())
+                        .recordedBalance(mismatch.getRecordedBalance())
+                        .expectedBalance(mismatch.getExpectedBalance())
+                        .build())
+                .toList());
+        return savedRun;
+    }
+
+    private ReconciliationReportDto toReport(ReconciliationRun run, List<BalanceMismatchDto> mismatches) {
+        return ReconciliationReportDto.builder()
+                .runId(run.getId())
+                .startedAt(run.getStartedAt())
+                .finishedAt(run.getFinishedAt())
+                .transfersScanned(run.getTransfersScanned())
+                .cardsChecked(run.getCardsChecked())
+                .mismatchCount(run.getMismatchCount())
+                .mismatches(mismatches)
+                .build();
+    }
+}
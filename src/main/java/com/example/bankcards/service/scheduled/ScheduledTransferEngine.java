@@ -0,0 +1,185 @@
+package com.example.bankcards.service.scheduled;
+
+import com.example.bankcards.repository.ScheduledTransferRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.scheduled-transfers.enabled", havingValue = "true", matchIfMissing = true)
+public class ScheduledTransferEngine {
+
+    private static final OffsetDateTime EPOCH = OffsetDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC);
+
+    private final ScheduledTransferRepository scheduledTransferRepository;
+    private final ScheduledTransferRunner runner;
+    private final TimingWheel wheel;
+    private final ConcurrentLinkedQueue<TimingWheel.Entry> inbox = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService ticker;
+    private final ThreadPoolExecutor workers;
+    private final long tickMs;
+    private final long lookaheadMs;
+    private final int pageSize;
+    private final int batchSize;
+    private final long retryDelayMs;
+    private volatile long loadedUntilMs = Long.MIN_VALUE;
+    private OffsetDateTime pagedThroughAt = EPOCH;
+    private long pagedThroughId = 0L;
+
+    public ScheduledTransferEngine(ScheduledTransferRepository scheduledTransferRepository,
+                                   ScheduledTransferRunner runner,
+                                   @Value("${app.scheduled-transfers.tick-ms:1000}") long tickMs,
+                                   @Value("${app.scheduled-transfers.wheel-size:512}") int wheelSize,
+                                   @Value("${app.scheduled-transfers.lookahead-ms:600000}") long lookaheadMs,
+                                   @Value("${app.scheduled-transfers.page-size:1000}") int pageSize,
+                                   @Value("${app.scheduled-transfers.batch-size:100}") int batchSize,
+                                   @Value("${app.scheduled-transfers.workers:4}") int workerCount,
+                                   @Value("${app.scheduled-transfers.queue-capacity:64}") int queueCapacity,
+                                   @Value("${app.scheduled-transfers.retry-delay-ms:30000}") long retryDelayMs) {
+        this.scheduledTransferRepository = scheduledTransferRepository;
+        this.runner = runner;
+        this.tickMs = tickMs;
+        this.lookaheadMs = lookaheadMs;
+        this.pageSize = pageSize;
+        this.batchSize = batchSize;
+        this.retryDelayMs = retryDelayMs;
+        this.wheel = new TimingWheel(tickMs, wheelSize, System.currentTimeMillis());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(
+                task -> Thread.ofPlatform().daemon().name("scheduled-transfer-wheel").unstarted(task));
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().daemon().name("scheduled-transfer-worker-", 0).factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        ticker.scheduleWithFixedDelay(this::tick, 0L, tickMs, TimeUnit.MILLISECONDS);
+        log.info("Scheduled transfer engine started with {} ms ticks and {} ms lookahead", tickMs, lookaheadMs);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        ticker.shutdownNow();
+        workers.shutdown();
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    public void scheduleAfterCommit(Long scheduleId, OffsetDateTime nextExecutionAt) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            schedule(scheduleId, toMillis(nextExecutionAt));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                schedule(scheduleId, toMillis(nextExecutionAt));
+            }
+        });
+    }
+
+    private void schedule(long scheduleId, long dueMs) {
+        if (dueMs < loadedUntilMs) {
+            inbox.add(new TimingWheel.Entry(scheduleId, dueMs));
+        }
+    }
+
+    private long toMillis(OffsetDateTime time) {
+        Instant instant = time.toInstant();
+        return instant.getNano() % 1_000_000 == 0 ? instant.toEpochMilli() : instant.toEpochMilli() + 1;
+    }
+
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            List<TimingWheel.Entry> due = new ArrayList<>();
+            if (now + lookaheadMs / 2 >= loadedUntilMs) {
+                pageIn(now + lookaheadMs, due);
+            }
+            TimingWheel.Entry entry;
+            while ((entry = inbox.poll()) != null) {
+                if (!wheel.add(entry.id(), entry.dueMs())) {
+                    due.add(entry);
+                }
+            }
+            wheel.advanceTo(now, due);
+            dispatch(due);
+        } catch (RuntimeException e) {
+            log.error("Scheduled transfer tick failed", e);
+        }
+    }
+
+    private void pageIn(long untilMs, List<TimingWheel.Entry> due) {
+        loadedUntilMs = untilMs;
+        OffsetDateTime until = OffsetDateTime.ofInstant(Instant.ofEpochMilli(untilMs), ZoneOffset.UTC);
+        int loaded = 0;
+        List<ScheduledTransferRepository.DueExecution> page;
+        do {
+            page = scheduledTransferRepository.findActiveDueBefore(until, pagedThroughAt, pagedThroughId,
+                    PageRequest.of(0, pageSize));
+            for (ScheduledTransferRepository.DueExecution execution : page) {
+                long dueMs = toMillis(execution.getNextExecutionAt());
+                if (!wheel.add(execution.getId(), dueMs)) {
+                    due.add(new TimingWheel.Entry(execution.getId(), dueMs));
+                }
+                pagedThroughAt = execution.getNextExecutionAt();
+                pagedThroughId = execution.getId();
+            }
+            loaded += page.size();
+        } while (page.size() == pageSize);
+        log.debug("Paged {} scheduled transfers into the timing wheel up to {} ({} pending)", loaded, until, wheel.size());
+    }
+
+    private void dispatch(List<TimingWheel.Entry> due) {
+        if (due.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        due.forEach(entry -> ids.add(entry.id()));
+        List<Long> batch = new ArrayList<>(batchSize);
+        for (Long id : ids) {
+            batch.add(id);
+            if (batch.size() == batchSize) {
+                submit(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            submit(batch);
+        }
+    }
+
+    private void submit(List<Long> batch) {
+        workers.execute(() -> {
+            try {
+                runner.run(batch).forEach(next -> schedule(next.id(), toMillis(next.nextExecutionAt())));
+            } catch (RuntimeException e) {
+                log.error("Scheduled transfer batch {} failed, retrying in {} ms", batch, retryDelayMs, e);
+                long retryAt = System.currentTimeMillis() + retryDelayMs;
+                batch.forEach(id -> schedule(id, retryAt));
+            }
+        });
+    }
+}
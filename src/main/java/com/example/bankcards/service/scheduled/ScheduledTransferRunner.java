@@ -0,0 +1,131 @@
+package com.example.bankcards.service.scheduled;
+
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.dto.TransferResultDto;
+import com.example.bankcards.entity.ScheduledTransfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.Recurrence;
+import com.example.bankcards.entity.enums.ScheduledTransferStatus;
+import com.example.bankcards.exception.UserNotFoundException;
+import com.example.bankcards.repository.ScheduledTransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.transfer.TransferService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScheduledTransferRunner {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final ScheduledTransferRepository scheduledTransferRepository;
+    private final UserRepository userRepository;
+    private final TransferService transferService;
+    private final TransactionTemplate transactionTemplate;
+
+    public List<Rescheduled> run(Collection<Long> scheduleIds) {
+        OffsetDateTime now = OffsetDateTime.now();
+        Map<Long, List<Long>> idsByUser = scheduledTransferRepository.findAllById(scheduleIds).stream()
+                .filter(schedule -> schedule.getStatus() == ScheduledTransferStatus.ACTIVE)
+                .filter(schedule -> !schedule.getNextExecutionAt().isAfter(now))
+                .collect(Collectors.groupingBy(ScheduledTransfer::getUserId, TreeMap::new,
+                        Collectors.mapping(ScheduledTransfer::getId, Collectors.toList())));
+
+        List<Rescheduled> rescheduled = new ArrayList<>();
+        idsByUser.forEach((userId, ids) -> {
+            List<Rescheduled> next;
+            try {
+                next = transactionTemplate.execute(status -> executeForUser(userId, ids, now));
+            } catch (RuntimeException e) {
+                log.warn("Scheduled transfers {} of user {} failed: {}", ids, userId, e.getMessage());
+                next = transactionTemplate.execute(status -> recordFailure(ids, now, e.getMessage()));
+            }
+            if (next != null) {
+                rescheduled.addAll(next);
+            }
+        });
+        return rescheduled;
+    }
+
+    private List<Rescheduled> executeForUser(Long userId, List<Long> ids, OffsetDateTime now) {
+        List<ScheduledTransfer> due = scheduledTransferRepository.findDueByIdsForUpdate(ids, now);
+        if (due.isEmpty()) {
+            return List.of();
+        }
+        User owner = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+
+        List<TransferResultDto> results = transferService.executeTransfersFor(owner,
+                due.stream().map(this::toRequest).toList());
+
+        List<Rescheduled> rescheduled = new ArrayList<>();
+        for (int i = 0; i < due.size(); i++) {
+            ScheduledTransfer schedule = due.get(i);
+            TransferResultDto result = results.get(i);
+            if (result.isSuccess()) {
+                schedule.setLastTransferId(result.getTransfer().getId());
+                schedule.setLastError(null);
+            } else {
+                schedule.setLastError(truncate(result.getError()));
+            }
+            advance(schedule, rescheduled);
+        }
+        log.debug("Executed {} scheduled transfers for user {}", due.size(), userId);
+        return rescheduled;
+    }
+
+    private List<Rescheduled> recordFailure(List<Long> ids, OffsetDateTime now, String error) {
+        List<Rescheduled> rescheduled = new ArrayList<>();
+        for (ScheduledTransfer schedule : scheduledTransferRepository.findDueByIdsForUpdate(ids, now)) {
+            schedule.setLastError(truncate(error));
+            advance(schedule, rescheduled);
+        }
+        return rescheduled;
+    }
+
+    private void advance(ScheduledTransfer schedule, List<Rescheduled> rescheduled) {
+        schedule.setExecutionCount(schedule.getExecutionCount() + 1);
+        OffsetDateTime next = schedule.getRecurrence().occurrence(schedule.getStartAt(), schedule.getExecutionCount());
+        if (next == null || (schedule.getEndAt() != null && next.isAfter(schedule.getEndAt()))) {
+            boolean failed = schedule.getRecurrence() == Recurrence.ONCE && schedule.getLastError() != null;
+            schedule.setStatus(failed ? ScheduledTransferStatus.FAILED : ScheduledTransferStatus.COMPLETED);
+            return;
+        }
+        schedule.setNextExecutionAt(next);
+        rescheduled.add(new Rescheduled(schedule.getId(), next));
+    }
+
+    private TransferRequest toRequest(ScheduledTransfer schedule) {
+        return TransferRequest.builder()
+                .fromCardId(schedule.getFromCardId())
+                .toCardId(schedule.getToCardId())
+                .amount(schedule.getAmount())
+                .currency(schedule.getCurrency())
+                .description(schedule.getDescription() != null
+                        ? schedule.getDescription()
+                        : "Scheduled transfer #" + schedule.getId())
+                .build();
+    }
+
+    private String truncate(String error) {
+        if (error == null) {
+            return "Unknown error";
+        }
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    public record Rescheduled(Long id, OffsetDateTime nextExecutionAt) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.bankcards.service.scheduled;
+
+import com.example.bankcards.dto.ScheduledTransferDto;
+import com.example.bankcards.dto.ScheduledTransferRequest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface ScheduledTransferService {
+
+    ScheduledTransferDto createScheduledTransfer(ScheduledTransferRequest request);
+
+    Page<ScheduledTransferDto> getMyScheduledTransfers(Pageable pageable);
+
+    ScheduledTransferDto getScheduledTransfer(Long id);
+
+    void cancelScheduledTransfer(Long id);
+}
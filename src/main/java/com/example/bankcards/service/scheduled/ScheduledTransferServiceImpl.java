@@ -0,0 +1,135 @@
+package com.example.bankcards.service.scheduled;
+
+import com.example.bankcards.dto.ScheduledTransferDto;
+import com.example.bankcards.dto.ScheduledTransferRequest;
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.ScheduledTransfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.Recurrence;
+import com.example.bankcards.entity.enums.ScheduledTransferStatus;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.exception.ScheduledTransferNotFoundException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.ScheduledTransferRepository;
+import com.example.bankcards.security.SecurityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScheduledTransferServiceImpl implements ScheduledTransferService {
+
+    private final ScheduledTransferRepository scheduledTransferRepository;
+    private final CardRepository cardRepository;
+    private final SecurityService securityService;
+    private final ObjectProvider<ScheduledTransferEngine> engine;
+
+    @Override
+    @Transactional
+    public ScheduledTransferDto createScheduledTransfer(ScheduledTransferRequest request) {
+        if (request.getFromCardId() == null || request.getToCardId() == null || request.getAmount() == null
+                || request.getCurrency() == null || request.getStartAt() == null) {
+            throw new BadRequestException("Source card, destination card, amount, currency and start time are required");
+        }
+        if (request.getAmount() <= 0) {
+            throw new BadRequestException("Amount must be positive");
+        }
+        if (request.getFromCardId().equals(request.getToCardId())) {
+            throw new BadRequestException("Cannot transfer to the same card");
+        }
+        if (!request.getStartAt().isAfter(OffsetDateTime.now())) {
+            throw new BadRequestException("First execution must be in the future");
+        }
+        if (request.getEndAt() != null && request.getEndAt().isBefore(request.getStartAt())) {
+            throw new BadRequestException("End time cannot be before the first execution");
+        }
+
+        User currentUser = securityService.getCurrentUser();
+        BankCard fromCard = cardRepository.findByIdAndUserId(request.getFromCardId(), currentUser.getId())
+                .orElseThrow(() -> new CardNotFoundException("Source card not found or access denied"));
+        if (!cardRepository.existsById(request.getToCardId())) {
+            throw new CardNotFoundException("Destination card not found");
+        }
+        if (fromCard.getCurrency() != request.getCurrency()) {
+            throw new BadRequestException("Source card currency (" + fromCard.getCurrency() +
+                    ") doesn't match transfer currency (" + request.getCurrency() + ")");
+        }
+
+        ScheduledTransfer schedule = scheduledTransferRepository.save(ScheduledTransfer.builder()
+                .userId(currentUser.getId())
+                .fromCardId(fromCard.getId())
+                .toCardId(request.getToCardId())
+                .amount(request.getAmount())
+                .currency(request.getCurrency())
+                .description(request.getDescription())
+                .recurrence(request.getRecurrence() != null ? request.getRecurrence() : Recurrence.ONCE)
+                .startAt(request.getStartAt())
+                .nextExecutionAt(request.getStartAt())
+                .endAt(request.getEndAt())
+                .build());
+        engine.ifAvailable(available -> available.scheduleAfterCommit(schedule.getId(), schedule.getNextExecutionAt()));
+
+        log.info("Scheduled transfer {} created: {} {} from card {} to card {}, {} from {}",
+                schedule.getId(), schedule.getAmount(), schedule.getCurrency(), schedule.getFromCardId(),
+                schedule.getToCardId(), schedule.getRecurrence(), schedule.getStartAt());
+        return toDto(schedule);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ScheduledTransferDto> getMyScheduledTransfers(Pageable pageable) {
+        User currentUser = securityService.getCurrentUser();
+        return scheduledTransferRepository.findByUserId(currentUser.getId(), pageable).map(this::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ScheduledTransferDto getScheduledTransfer(Long id) {
+        return toDto(findOwned(id));
+    }
+
+    @Override
+    @Transactional
+    public void cancelScheduledTransfer(Long id) {
+        ScheduledTransfer schedule = findOwned(id);
+        if (schedule.getStatus() != ScheduledTransferStatus.ACTIVE) {
+            throw new BadRequestException("Only active scheduled transfers can be cancelled");
+        }
+        schedule.setStatus(ScheduledTransferStatus.CANCELLED);
+        log.info("Scheduled transfer {} cancelled", id);
+    }
+
+    private ScheduledTransfer findOwned(Long id) {
+        User currentUser = securityService.getCurrentUser();
+        return scheduledTransferRepository.findByIdAndUserId(id, currentUser.getId())
+                .orElseThrow(() -> new ScheduledTransferNotFoundException("Scheduled transfer not found with id: " + id));
+    }
+
+    private ScheduledTransferDto toDto(ScheduledTransfer schedule) {
+        return ScheduledTransferDto.builder()
+                .id(schedule.getId())
+                .fromCardId(schedule.getFromCardId())
+                .toCardId(schedule.getToCardId())
+                .amount(schedule.getAmount())
+                .currency(schedule.getCurrency())
+                .description(schedule.getDescription())
+                .recurrence(schedule.getRecurrence())
+                .startAt(schedule.getStartAt())
+                .nextExecutionAt(schedule.getNextExecutionAt())
+                .endAt(schedule.getEndAt())
+                .executionCount(schedule.getExecutionCount())
+                .status(schedule.getStatus())
+                .lastTransferId(schedule.getLastTransferId())
+                .lastError(schedule.getLastError())
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.bankcards.service.scheduled;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TimingWheel {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long intervalMs;
+    private final List<List<Entry>> buckets;
+    private long currentTime;
+    private int size;
+    private TimingWheel overflowWheel;
+
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        this(tickMs, wheelSize);
+        this.currentTime = tickStart(startMs);
+    }
+
+    private TimingWheel(long tickMs, int wheelSize) {
+        if (tickMs <= 0 || wheelSize <= 1) {
+            throw new IllegalArgumentException("Tick must be positive and wheel size greater than one");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.intervalMs = Math.multiplyExact(tickMs, wheelSize);
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    public boolean add(long id, long dueMs) {
+        return add(new Entry(id, dueMs));
+    }
+
+    public int advanceTo(long nowMs, List<Entry> expired) {
+        int before = expired.size();
+        advanceClock(tickStart(nowMs), expired);
+        return expired.size() - before;
+    }
+
+    public long currentTime() {
+        return currentTime;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private boolean add(Entry entry) {
+        if (entry.dueMs() < currentTime + tickMs) {
+            return false;
+        }
+        if (entry.dueMs() < currentTime + intervalMs) {
+            buckets.get(slot(entry.dueMs())).add(entry);
+        } else {
+            if (overflowWheel == null) {
+                overflowWheel = new TimingWheel(intervalMs, wheelSize);
+                overflowWheel.currentTime = currentTime - Math.floorMod(currentTime, intervalMs);
+            }
+            overflowWheel.add(entry);
+        }
+        size++;
+        return true;
+    }
+
+    private void advanceClock(long target, List<Entry> expired) {
+        while (currentTime < target) {
+            currentTime += tickMs;
+            if (overflowWheel != null && Math.floorMod(currentTime, intervalMs) == 0) {
+                List<Entry> cascaded = new ArrayList<>();
+                size -= overflowWheel.size;
+                overflowWheel.advanceClock(currentTime, cascaded);
+                size += overflowWheel.size;
+                for (Entry entry : cascaded) {
+                    if (!add(entry)) {
+                        expired.add(entry);
+                    }
+                }
+            }
+            int slot = slot(currentTime);
+            List<Entry> bucket = buckets.get(slot);
+            if (!bucket.isEmpty()) {
+                expired.addAll(bucket);
+                size -= bucket.size();
+                buckets.set(slot, new ArrayList<>());
+            }
+        }
+    }
+
+    private long tickStart(long nowMs) {
+        long time = nowMs + 1 - tickMs;
+        return time - Math.floorMod(time, tickMs);
+    }
+
+    private int slot(long timeMs) {
+        return (int) Math.floorMod(Math.floorDiv(timeMs, tickMs), (long) wheelSize);
+    }
+
+    public record Entry(long id, long dueMs) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.bankcards.service.shard;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.Ordered;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class CardWriterAspect {
+
+    private final CardWriterShards shards;
+    private final ExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+
+    @Around("@annotation(com.example.bankcards.service.shard.CardWriter)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!shards.isEnabled()) {
+            return joinPoint.proceed();
+        }
+
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        CardWriter cardWriter = AnnotationUtils.findAnnotation(
+                AopUtils.getMostSpecificMethod(method, joinPoint.getTarget().getClass()), CardWriter.class);
+        EvaluationContext context = new MethodBasedEvaluationContext(
+                null, method, joinPoint.getArgs(), parameterNameDiscoverer);
+        Long cardId = Stream.of(cardWriter.value())
+                .map(expression -> expressions.computeIfAbsent(expression, parser::parseExpression)
+                        .getValue(context, Long.class))
+                .filter(Objects::nonNull)
+                .min(Long::compare)
+                .orElse(null);
+        return shards.execute(cardId, joinPoint::proceed);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.bankcards.service.shard;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class CardWriterShards {
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private final ExecutorService[] shards;
+
+    @Value("${app.card-writer.enabled:false}")
+    private boolean enabled;
+
+    public CardWriterShards(@Value("${app.card-writer.shards:64}") int shardCount) {
+        this.shards = new ExecutorService[Math.max(shardCount, 1)];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("card-writer-" + i).factory());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int shardOf(Long cardId) {
+        return Math.floorMod(Long.hashCode(cardId), shards.length);
+    }
+
+    public <T> T execute(Long cardId, Work<T> work) throws Throwable {
+        if (!enabled || cardId == null || CURRENT_SHARD.get() != null) {
+            return work.run();
+        }
+
+        int shard = shardOf(cardId);
+        Future<T> future = shards[shard].submit(new DelegatingSecurityContextCallable<>(() -> {
+            CURRENT_SHARD.set(shard);
+            try {
+                return work.run();
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            } finally {
+                CURRENT_SHARD.remove();
+            }
+        }));
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for card writer shard " + shard, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ExecutorService shard : shards) {
+            shard.shutdown();
+        }
+        for (ExecutorService shard : shards) {
+            if (!shard.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Card writer shard did not drain in time");
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Work<T> {
+        T run() throws Throwable;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.bankcards.service.statistics;
+
+import com.example.bankcards.dto.RollupBackfillResultDto;
+import com.example.bankcards.entity.Transfer;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public interface OutgoingRollupService {
+
+    void record(List<Transfer> transfers);
+
+    long getTotalOutgoing(Long userId, OffsetDateTime startDate, OffsetDateTime endDate);
+
+    RollupBackfillResultDto backfill();
+}
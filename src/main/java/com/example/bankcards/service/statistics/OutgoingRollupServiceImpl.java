@@ -0,0 +1,187 @@
+package com.example.bankcards.service.statistics;
+
+import com.example.bankcards.dto.RollupBackfillResultDto;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserDailyOutgoingRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.transfer.TransferCompletedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutgoingRollupServiceImpl implements OutgoingRollupService {
+
+    private static final String LOCK_USER_CARDS_SQL =
+            "SELECT id FROM bank_cards WHERE user_id IN (:ids) ORDER BY id FOR UPDATE";
+
+    private static final String DELETE_ROLLUP_SQL =
+            "DELETE FROM user_daily_outgoing WHERE user_id IN (:ids)";
+
+    private static final String SELECT_COMPLETED_SQL =
+            "SELECT c.user_id, t.currency, t.transfer_date, t.amount " +
+            "FROM transfers t JOIN bank_cards c ON c.id = t.from_card_id " +
+            "WHERE t.status = 'COMPLETED' AND c.user_id IN (:ids)";
+
+    private static final String INSERT_ROLLUP_SQL =
+            "INSERT INTO user_daily_outgoing (user_id, currency, rollup_date, total, transfer_count) " +
+            "VALUES (:userId, :currency, :rollupDate, :total, :count)";
+
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator.comparing(RollupKey::userId)
+            .thenComparing(RollupKey::currency)
+            .thenComparing(RollupKey::rollupDate);
+
+    private final UserDailyOutgoingRepository rollupRepository;
+    private final TransferRepository transferRepository;
+    private final UserRepository userRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.rollup.zone:UTC}")
+    private ZoneId zone = ZoneOffset.UTC;
+
+    @Value("${app.rollup.backfill-batch-size:200}")
+    private int backfillBatchSize = 200;
+
+    @EventListener
+    public void onTransferCompleted(TransferCompletedEvent event) {
+        record(event.transfers());
+    }
+
+    @Override
+    @Transactional
+    public void record(List<Transfer> transfers) {
+        if (transfers.isEmpty()) {
+            return;
+        }
+
+        Map<RollupKey, long[]> deltas = new TreeMap<>(KEY_ORDER);
+        for (Transfer transfer : transfers) {
+            OffsetDateTime transferDate = transfer.getTransferDate() != null ? transfer.getTransferDate() : OffsetDateTime.now();
+            add(deltas, transfer.getFromCard().getUser().getId(), transfer.getCurrency(), transferDate, transfer.getAmount());
+        }
+
+        deltas.forEach((key, delta) ->
+                rollupRepository.addOutgoing(key.userId(), key.currency(), key.rollupDate(), delta[0], delta[1]));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getTotalOutgoing(Long userId, OffsetDateTime startDate, OffsetDateTime endDate) {
+        if (startDate.isAfter(endDate)) {
+            return 0L;
+        }
+        OffsetDateTime endExclusive = endDate.plusNanos(1);
+        ZonedDateTime start = startDate.atZoneSameInstant(zone);
+        LocalDate firstFullDay = start.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? start.toLocalDate()
+                : start.toLocalDate().plusDays(1);
+        LocalDate lastFullDay = endExclusive.atZoneSameInstant(zone).toLocalDate().minusDays(1);
+        if (firstFullDay.isAfter(lastFullDay)) {
+            return transferRepository.sumCompletedOutgoingByUserIdFromTo(userId, startDate, endExclusive);
+        }
+
+        OffsetDateTime fullDaysStart = startOfDay(firstFullDay);
+        OffsetDateTime fullDaysEnd = startOfDay(lastFullDay.plusDays(1));
+        long total = rollupRepository.sumTotalByUserIdBetween(userId, firstFullDay, lastFullDay);
+        if (startDate.isBefore(fullDaysStart)) {
+            total += transferRepository.sumCompletedOutgoingByUserIdFromTo(userId, startDate, fullDaysStart);
+        }
+        if (endExclusive.isAfter(fullDaysEnd)) {
+            total += transferRepository.sumCompletedOutgoingByUserIdFromTo(userId, fullDaysEnd, endExclusive);
+        }
+        return total;
+    }
+
+    @Override
+    public RollupBackfillResultDto backfill() {
+        long startedAt = System.nanoTime();
+        long users = 0L;
+        long rows = 0L;
+        Long afterId = 0L;
+        while (true) {
+            List<Long> userIds = userRepository.findIdsAfter(afterId, PageRequest.of(0, backfillBatchSize));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            Integer written = transactionTemplate.execute(status -> backfillUsers(userIds));
+            rows += written != null ? written : 0;
+            users += userIds.size();
+            afterId = userIds.get(userIds.size() - 1);
+            log.debug("Outgoing rollup backfilled through user {}: {} users, {} rows", afterId, users, rows);
+        }
+
+        long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+        log.info("Outgoing rollup backfill finished: {} users, {} rows in {} ms", users, rows, elapsedMs);
+        return RollupBackfillResultDto.builder()
+                .usersProcessed(users)
+                .rowsWritten(rows)
+                .elapsedMs(elapsedMs)
+                .build();
+    }
+
+    private int backfillUsers(List<Long> userIds) {
+        MapSqlParameterSource ids = new MapSqlParameterSource("ids", userIds);
+        jdbcTemplate.query(LOCK_USER_CARDS_SQL, ids, (RowCallbackHandler) rs -> {
+        });
+        jdbcTemplate.update(DELETE_ROLLUP_SQL, ids);
+
+        Map<RollupKey, long[]> totals = new TreeMap<>(KEY_ORDER);
+        jdbcTemplate.query(SELECT_COMPLETED_SQL, ids, (RowCallbackHandler) rs -> add(totals,
+                rs.getLong("user_id"),
+                Currency.valueOf(rs.getString("currency")),
+                rs.getObject("transfer_date", OffsetDateTime.class),
+                rs.getLong("amount")));
+        if (totals.isEmpty()) {
+            return 0;
+        }
+
+        MapSqlParameterSource[] rows = totals.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("userId", entry.getKey().userId())
+                        .addValue("currency", entry.getKey().currency().name())
+                        .addValue("rollupDate", entry.getKey().rollupDate())
+                        .addValue("total", entry.getValue()[0])
+                        .addValue("count", entry.getValue()[1]))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_ROLLUP_SQL, rows);
+        return rows.length;
+    }
+
+    private void add(Map<RollupKey, long[]> totals, Long userId, Currency currency, OffsetDateTime transferDate, long amount) {
+        long[] total = totals.computeIfAbsent(
+                new RollupKey(userId, currency, transferDate.atZoneSameInstant(zone).toLocalDate()), key -> new long[2]);
+        total[0] += amount;
+        total[1]++;
+    }
+
+    private OffsetDateTime startOfDay(LocalDate date) {
+        return date.atStartOfDay(zone).toOffsetDateTime();
+    }
+
+    private record RollupKey(Long userId, Currency currency, LocalDate rollupDate) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.bankcards.service.sweeper;
+
+import com.example.bankcards.entity.enums.TransferStatus;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.pending-sweeper.enabled", havingValue = "true")
+public class PendingTransferSweeper {
+
+    private static final String SELECT_CHUNK_SQL =
+            "SELECT id, transfer_date FROM transfers " +
+            "WHERE status = 'PENDING' AND transfer_date < :cutoff%s " +
+            "ORDER BY transfer_date, id LIMIT :limit";
+
+    private static final String AFTER_CURSOR =
+            " AND (transfer_date > :afterDate OR (transfer_date = :afterDate AND id > :afterId))";
+
+    private static final String EXPIRE_CHUNK_SQL =
+            "UPDATE transfers SET status = :status WHERE id IN (:ids) AND status = 'PENDING'";
+
+    private static final Set<TransferStatus> TARGET_STATUSES = Set.of(TransferStatus.CANCELLED, TransferStatus.FAILED);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration maxAge;
+    private final int chunkSize;
+    private final TransferStatus targetStatus;
+    private final DistributionSummary sweptRows;
+    private final Timer sweepTimer;
+
+    public PendingTransferSweeper(NamedParameterJdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.pending-sweeper.max-age-minutes:30}") long maxAgeMinutes,
+                                  @Value("${app.pending-sweeper.chunk-size:500}") int chunkSize,
+                                  @Value("${app.pending-sweeper.target-status:CANCELLED}") TransferStatus targetStatus) {
+        if (!TARGET_STATUSES.contains(targetStatus)) {
+            throw new IllegalArgumentException("Stale pending transfers can only be moved to " + TARGET_STATUSES);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+        this.chunkSize = Math.max(chunkSize, 1);
+        this.targetStatus = targetStatus;
+        this.sweptRows = DistributionSummary.builder("transfer.pending.sweep.rows")
+                .tag("status", targetStatus.name())
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("transfer.pending.sweep.duration")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.pending-sweeper.interval-ms:60000}",
+            initialDelayString = "${app.pending-sweeper.interval-ms:60000}")
+    public int sweep() {
+        long startedAt = System.nanoTime();
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(maxAge);
+        int swept = 0;
+        int chunks = 0;
+        Cursor cursor = null;
+        while (true) {
+            List<Cursor> chunk = selectChunk(cutoff, cursor);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            List<Long> ids = chunk.stream().map(Cursor::id).toList();
+            Integer updated = transactionTemplate.execute(status -> jdbcTemplate.update(EXPIRE_CHUNK_SQL,
+                    new MapSqlParameterSource("ids", ids).addValue("status", targetStatus.name())));
+            swept += updated != null ? updated : 0;
+            chunks++;
+            cursor = chunk.get(chunk.size() - 1);
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+
+        sweepTimer.record(Duration.ofNanos(System.nanoTime() - startedAt));
+        sweptRows.record(swept);
+        if (swept > 0) {
+            log.info("Moved {} pending transfers older than {} to {} in {} chunks", swept, cutoff, targetStatus, chunks);
+        }
+        return swept;
+    }
+
+    private List<Cursor> selectChunk(OffsetDateTime cutoff, Cursor after) {
+        MapSqlParameterSource params = new MapSqlParameterSource("cutoff", cutoff).addValue("limit", chunkSize);
+        String sql = SELECT_CHUNK_SQL.formatted("");
+        if (after != null) {
+            params.addValue("afterDate", after.transferDate()).addValue("afterId", after.id());
+            sql = SELECT_CHUNK_SQL.formatted(AFTER_CURSOR);
+        }
+        return jdbcTemplate.query(sql, params, (rs, rowNum) ->
+                new Cursor(rs.getLong("id"), rs.getObject("transfer_date", OffsetDateTime.class)));
+    }
+
+    private record Cursor(Long id, OffsetDateTime transferDate) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.bankcards.service.transfer;
+
+import com.example.bankcards.entity.Transfer;
+
+import java.util.List;
+
+public record TransferCompletedEvent(List<Transfer> transfers) {
+}
@@ -1,26 +1,49 @@
 package com.example.bankcards.service.transfer;
 
+import com.example.bankcards.dto.DisbursementRequest;
+import com.example.bankcards.dto.DisbursementResultDto;
 import com.example.bankcards.dto.TransferDto;
 import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.dto.TransferResultDto;
+import com.example.bankcards.dto.TransferSliceDto;
+import com.example.bankcards.dto.TransferStatusDto;
+import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.enums.TransferStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 
 
 public interface TransferService {
 
     TransferDto createTransfer(TransferRequest request);
 
+    TransferDto createTransfer(TransferRequest request, String idempotencyKey);
+
+    List<TransferResultDto> createTransfers(List<TransferRequest> requests);
+
+    List<TransferResultDto> executeTransfersFor(User owner, List<TransferRequest> requests);
+
+    DisbursementResultDto createDisbursement(DisbursementRequest request);
+
     Page<TransferDto> getUserTransfers(Pageable pageable);
 
     Page<TransferDto> getOutgoingTransfers(Pageable pageable);
 
     Page<TransferDto> getIncomingTransfers(Pageable pageable);
 
+    TransferSliceDto getUserTransfersAfter(String cursor, int size);
+
+    TransferSliceDto getOutgoingTransfersAfter(String cursor, int size);
+
+    TransferSliceDto getIncomingTransfersAfter(String cursor, int size);
+
     TransferDto getTransferById(Long transferId);
 
+    TransferStatusDto getTransferStatus(Long transferId);
+
     Page<TransferDto> getAllTransfers(Pageable pageable);
 
     Page<TransferDto> getTransfersByStatus(TransferStatus status, Pageable pageable);
@@ -1,11 +1,18 @@
 package com.example.bankcards.service.transfer;
 
+import com.example.bankcards.dto.DisbursementLegRequest;
+import com.example.bankcards.dto.DisbursementRequest;
+import com.example.bankcards.dto.DisbursementResultDto;
 import com.example.bankcards.dto.TransferDto;
 import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.dto.TransferResultDto;
+import com.example.bankcards.dto.TransferSliceDto;
+import com.example.bankcards.dto.TransferStatusDto;
 import com.example.bankcards.entity.BankCard;
 import com.example.bankcards.entity.Transfer;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.FeedDirection;
 import com.example.bankcards.entity.enums.TransferStatus;
 import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.exception.CardNotFoundException;
@@ -13,77 +20,328 @@ import com.example.bankcards.exception.TransferNotFoundException;
 import com.example.bankcards.mapper.TransferMapper;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserTransferFeedRepository;
+import com.example.bankcards.repository.projection.TransferView;
 import com.example.bankcards.security.SecurityService;
+import com.example.bankcards.service.card.CardBalanceShardService;
+import com.example.bankcards.service.exchange.ExchangeRateService;
+import com.example.bankcards.service.feed.TransferFeedService;
+import com.example.bankcards.service.idempotency.IdempotencyService;
+import com.example.bankcards.service.ledger.BalanceLedger;
+import com.example.bankcards.service.ledger.LedgerEntry;
+import com.example.bankcards.service.pipeline.TransferPipeline;
+import com.example.bankcards.service.shard.CardWriter;
+import com.example.bankcards.service.statistics.OutgoingRollupService;
+import com.example.bankcards.service.velocity.VelocityLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
-
-
-@Service
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+
+@Service("transferService")
 @Transactional
 @RequiredArgsConstructor
 @Slf4j
 public class TransferServiceImpl implements TransferService {
 
+    private static final int MAX_SLICE_SIZE = 100;
+
+    private static final Set<FeedDirection> ALL_DIRECTIONS = EnumSet.allOf(FeedDirection.class);
+    private static final Set<FeedDirection> OUTGOING_DIRECTIONS = EnumSet.of(FeedDirection.OUTGOING, FeedDirection.INTERNAL);
+    private static final Set<FeedDirection> INCOMING_DIRECTIONS = EnumSet.of(FeedDirection.INCOMING, FeedDirection.INTERNAL);
+    private static final Map<String, String> FEED_SORT_PROPERTIES = Map.of(
+            "transferDate", "transferDate",
+            "id", "transferId");
+
     private final TransferRepository transferRepository;
     private final CardRepository cardRepository;
     private final TransferMapper transferMapper;
     private final SecurityService securityService;
+    private final IdempotencyService idempotencyService;
+    private final CardBalanceShardService cardBalanceShardService;
+    private final VelocityLimiter velocityLimiter;
+    private final OutgoingRollupService outgoingRollupService;
+    private final ExchangeRateService exchangeRateService;
+    private final TransferFeedService transferFeedService;
+    private final UserTransferFeedRepository feedRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<BalanceLedger> balanceLedger;
+    private final ObjectProvider<TransferPipeline> transferPipeline;
+
+    @Value("${app.transfer.strategy:ATOMIC_UPDATE}")
+    private TransferStrategy strategy = TransferStrategy.ATOMIC_UPDATE;
 
     @Override
+    @CardWriter({"#request.fromCardId", "#request.toCardId"})
     @Transactional
+    @Retryable(retryFor = ConcurrencyFailureException.class,
+            maxAttemptsExpression = "${app.transfer.retry.max-attempts:5}",
+            backoff = @Backoff(delayExpression = "${app.transfer.retry.min-delay-ms:20}",
+                    maxDelayExpression = "${app.transfer.retry.max-delay-ms:200}",
+                    multiplierExpression = "${app.transfer.retry.multiplier:2}",
+                    random = true))
     public TransferDto createTransfer(TransferRequest request) {
         User currentUser = securityService.getCurrentUser();
 
+        if (strategy == TransferStrategy.PESSIMISTIC_LOCK) {
+            lockCardsInIdOrder(request.getFromCardId(), request.getToCardId());
+        }
+
         BankCard fromCard = cardRepository.findByIdAndUserId(request.getFromCardId(), currentUser.getId())
                 .orElseThrow(() -> new CardNotFoundException("Source card not found or access denied"));
 
         BankCard toCard = cardRepository.findById(request.getToCardId())
                 .orElseThrow(() -> new CardNotFoundException("Destination card not found"));
 
+        topUpFromShards(fromCard, request.getAmount());
         validateTransfer(fromCard, toCard, request.getAmount(), request.getCurrency());
+        ExchangeRateService.Conversion conversion = convert(toCard, request.getAmount(), request.getCurrency());
+        velocityLimiter.acquire(fromCard, request.getAmount(), request.getCurrency());
 
         Transfer transfer = transferMapper.toEntityFromRequest(request);
         transfer.setFromCard(fromCard);
         transfer.setToCard(toCard);
         transfer.setCurrency(request.getCurrency());
+        applyConversion(transfer, conversion);
 
+        if (strategy == TransferStrategy.LEDGER) {
+            return processLedgerTransfer(transfer);
+        }
+        TransferPipeline pipeline = transferPipeline.getIfAvailable();
+        if (pipeline != null) {
+            return acceptTransfer(transfer, pipeline);
+        }
         return processTransfer(transfer);
     }
 
+    @Override
+    @CardWriter({"#request.fromCardId", "#request.toCardId"})
+    @Transactional
+    @Retryable(retryFor = {ConcurrencyFailureException.class, DataIntegrityViolationException.class},
+            maxAttemptsExpression = "${app.transfer.retry.max-attempts:5}",
+            backoff = @Backoff(delayExpression = "${app.transfer.retry.min-delay-ms:20}",
+                    maxDelayExpression = "${app.transfer.retry.max-delay-ms:200}",
+                    multiplierExpression = "${app.transfer.retry.multiplier:2}",
+                    random = true))
+    public TransferDto createTransfer(TransferRequest request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return createTransfer(request);
+        }
+
+        User currentUser = securityService.getCurrentUser();
+        Optional<TransferDto> stored = idempotencyService.findTransfer(currentUser.getId(), idempotencyKey, request);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+
+        idempotencyService.reserveKey(currentUser.getId(), idempotencyKey, request);
+        TransferDto transfer = createTransfer(request);
+        idempotencyService.saveTransfer(currentUser.getId(), idempotencyKey, request, transfer);
+        return transfer;
+    }
+
+    @Override
+    @Transactional
+    @Retryable(retryFor = ConcurrencyFailureException.class,
+            maxAttemptsExpression = "${app.transfer.retry.max-attempts:5}",
+            backoff = @Backoff(delayExpression = "${app.transfer.retry.min-delay-ms:20}",
+                    maxDelayExpression = "${app.transfer.retry.max-delay-ms:200}",
+                    multiplierExpression = "${app.transfer.retry.multiplier:2}",
+                    random = true))
+    public List<TransferResultDto> createTransfers(List<TransferRequest> requests) {
+        return processBatch(securityService.getCurrentUser(), requests);
+    }
+
+    @Override
+    @Transactional
+    @Retryable(retryFor = ConcurrencyFailureException.class,
+            maxAttemptsExpression = "${app.transfer.retry.max-attempts:5}",
+            backoff = @Backoff(delayExpression = "${app.transfer.retry.min-delay-ms:20}",
+                    maxDelayExpression = "${app.transfer.retry.max-delay-ms:200}",
+                    multiplierExpression = "${app.transfer.retry.multiplier:2}",
+                    random = true))
+    public List<TransferResultDto> executeTransfersFor(User owner, List<TransferRequest> requests) {
+        return processBatch(owner, requests);
+    }
+
+    private List<TransferResultDto> processBatch(User currentUser, List<TransferRequest> requests) {
+        if (strategy == TransferStrategy.LEDGER) {
+            throw new BadRequestException("Batch transfers are not supported by the LEDGER transfer strategy");
+        }
+
+        Set<Long> cardIds = requests.stream()
+                .flatMap(request -> Stream.of(request.getFromCardId(), request.getToCardId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, BankCard> cards = cardRepository.findAllByIdForUpdate(cardIds).stream()
+                .collect(Collectors.toMap(BankCard::getId, Function.identity()));
+
+        TransferResultDto[] results = new TransferResultDto[requests.size()];
+        List<Transfer> transfers = new ArrayList<>();
+        List<Integer> transferIndexes = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            TransferRequest request = requests.get(i);
+            try {
+                Transfer transfer = prepareBatchTransfer(request, cards, currentUser);
+                applyInMemory(transfer);
+                transfers.add(transfer);
+                transferIndexes.add(i);
+            } catch (BadRequestException | CardNotFoundException e) {
+                results[i] = failedResult(i, e.getMessage());
+            }
+        }
+
+        List<Transfer> savedTransfers = saveCompleted(transfers, transferIndexes, results);
+        log.info("Batch of {} transfers processed: {} completed, {} rejected",
+                requests.size(), savedTransfers.size(), requests.size() - savedTransfers.size());
+
+        return List.of(results);
+    }
+
+    @Override
+    @CardWriter("#request.fromCardId")
+    @Transactional
+    @Retryable(retryFor = ConcurrencyFailureException.class,
+            maxAttemptsExpression = "${app.transfer.retry.max-attempts:5}",
+            backoff = @Backoff(delayExpression = "${app.transfer.retry.min-delay-ms:20}",
+                    maxDelayExpression = "${app.transfer.retry.max-delay-ms:200}",
+                    multiplierExpression = "${app.transfer.retry.multiplier:2}",
+                    random = true))
+    public DisbursementResultDto createDisbursement(DisbursementRequest request) {
+        if (strategy == TransferStrategy.LEDGER) {
+            throw new BadRequestException("Disbursements are not supported by the LEDGER transfer strategy");
+        }
+        if (request.getFromCardId() == null || request.getCurrency() == null
+                || request.getLegs() == null || request.getLegs().isEmpty()) {
+            throw new BadRequestException("Source card, currency and at least one leg are required");
+        }
+
+        User currentUser = securityService.getCurrentUser();
+        Set<Long> cardIds = request.getLegs().stream()
+                .map(DisbursementLegRequest::getToCardId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+        cardIds.add(request.getFromCardId());
+        Map<Long, BankCard> cards = cardRepository.findAllByIdForUpdate(cardIds).stream()
+                .collect(Collectors.toMap(BankCard::getId, Function.identity()));
+
+        BankCard fromCard = cards.get(request.getFromCardId());
+        if (fromCard == null || !fromCard.getUser().getId().equals(currentUser.getId())) {
+            throw new CardNotFoundException("Source card not found or access denied");
+        }
+
+        List<DisbursementLegRequest> legs = request.getLegs();
+        TransferResultDto[] results = new TransferResultDto[legs.size()];
+        List<Transfer> transfers = new ArrayList<>();
+        List<Integer> transferIndexes = new ArrayList<>();
+        long totalDebited = 0L;
+        for (int i = 0; i < legs.size(); i++) {
+            DisbursementLegRequest leg = legs.get(i);
+            try {
+                Transfer transfer = prepareDisbursementLeg(request, leg, fromCard, cards);
+                applyInMemory(transfer);
+                transfers.add(transfer);
+                transferIndexes.add(i);
+                totalDebited += transfer.getAmount();
+            } catch (BadRequestException | CardNotFoundException e) {
+                if (!request.isContinueOnError()) {
+                    throw new BadRequestException("Disbursement leg " + i + " failed: " + e.getMessage());
+                }
+                results[i] = failedResult(i, e.getMessage());
+            }
+        }
+
+        List<Transfer> savedTransfers = saveCompleted(transfers, transferIndexes, results);
+        log.info("Disbursement from card {}: {} {} sent in {} legs, {} legs rejected",
+                fromCard.getId(), totalDebited, request.getCurrency(),
+                savedTransfers.size(), legs.size() - savedTransfers.size());
+
+        return DisbursementResultDto.builder()
+                .fromCardId(fromCard.getId())
+                .totalDebited(totalDebited)
+                .completedLegs(savedTransfers.size())
+                .failedLegs(legs.size() - savedTransfers.size())
+                .legs(List.of(results))
+                .build();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<TransferDto> getUserTransfers(Pageable pageable) {
         User currentUser = securityService.getCurrentUser();
-        return transferRepository.findByUserId(currentUser.getId(), pageable)
-                .map(transferMapper::toDTO);
+        return feedPage(currentUser.getId(), ALL_DIRECTIONS, pageable)
+                .orElseGet(() -> transferRepository.findViewsByUserId(currentUser.getId(), pageable)
+                        .map(transferMapper::toDTO));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<TransferDto> getOutgoingTransfers(Pageable pageable) {
         User currentUser = securityService.getCurrentUser();
-        return transferRepository.findOutgoingTransfersByUserId(currentUser.getId(), pageable)
-                .map(transferMapper::toDTO);
+        return feedPage(currentUser.getId(), OUTGOING_DIRECTIONS, pageable)
+                .orElseGet(() -> transferRepository.findOutgoingViewsByUserId(currentUser.getId(), pageable)
+                        .map(transferMapper::toDTO));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<TransferDto> getIncomingTransfers(Pageable pageable) {
         User currentUser = securityService.getCurrentUser();
-        return transferRepository.findIncomingTransfersByUserId(currentUser.getId(), pageable)
-                .map(transferMapper::toDTO);
+        return feedPage(currentUser.getId(), INCOMING_DIRECTIONS, pageable)
+                .orElseGet(() -> transferRepository.findIncomingViewsByUserId(currentUser.getId(), pageable)
+                        .map(transferMapper::toDTO));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TransferSliceDto getUserTransfersAfter(String cursor, int size) {
+        return sliceAfter(cursor, size, ALL_DIRECTIONS);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TransferSliceDto getOutgoingTransfersAfter(String cursor, int size) {
+        return sliceAfter(cursor, size, OUTGOING_DIRECTIONS);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TransferSliceDto getIncomingTransfersAfter(String cursor, int size) {
+        return sliceAfter(cursor, size, INCOMING_DIRECTIONS);
     }
 
     @Override
     @Transactional(readOnly = true)
     public TransferDto getTransferById(Long transferId) {
-        Transfer transfer = transferRepository.findById(transferId)
+        Transfer transfer = transferRepository.findWithCardsById(transferId)
                 .orElseThrow(() -> new TransferNotFoundException("Transfer not found with id: " + transferId));
 
         User currentUser = securityService.getCurrentUser();
@@ -94,32 +352,43 @@ public class TransferServiceImpl implements TransferService {
         return transferMapper.toDTO(transfer);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public TransferStatusDto getTransferStatus(Long transferId) {
+        TransferStatus status = transferRepository.findStatusById(transferId)
+                .orElseThrow(() -> new TransferNotFoundException("Transfer not found with id: " + transferId));
+        return TransferStatusDto.builder()
+                .id(transferId)
+                .status(status)
+                .build();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<TransferDto> getAllTransfers(Pageable pageable) {
         log.debug("Fetching all transfers (ADMIN)");
-        return transferRepository.findAll(pageable)
+        return transferRepository.findAllViews(pageable)
                 .map(transferMapper::toDTO);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<TransferDto> getTransfersByStatus(TransferStatus status, Pageable pageable) {
-        return transferRepository.findByStatus(status, pageable)
+        return transferRepository.findViewsByStatus(status, pageable)
                 .map(transferMapper::toDTO);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<TransferDto> getTransfersByPeriod(OffsetDateTime startDate, OffsetDateTime endDate, Pageable pageable) {
-        return transferRepository.findByTransferDateBetween(startDate, endDate, pageable)
+        return transferRepository.findViewsByTransferDateBetween(startDate, endDate, pageable)
                 .map(transferMapper::toDTO);
     }
 
     @Override
     @Transactional
     public TransferDto updateTransferStatus(Long transferId, TransferStatus status) {
-        Transfer transfer = transferRepository.findById(transferId)
+        Transfer transfer = transferRepository.findByIdForUpdate(transferId)
                 .orElseThrow(() -> new TransferNotFoundException("Transfer not found with id: " + transferId));
 
         if (transfer.getStatus() == TransferStatus.COMPLETED) {
@@ -128,6 +397,9 @@ public class TransferServiceImpl implements TransferService {
 
         transfer.setStatus(status);
         Transfer updatedTransfer = transferRepository.save(transfer);
+        if (status == TransferStatus.COMPLETED) {
+            outgoingRollupService.record(List.of(updatedTransfer));
+        }
         log.info("Transfer status updated: {} -> {}", transferId, status);
 
         return transferMapper.toDTO(updatedTransfer);
@@ -136,7 +408,7 @@ public class TransferServiceImpl implements TransferService {
     @Override
     @Transactional
     public void cancelTransfer(Long transferId) {
-        Transfer transfer = transferRepository.findById(transferId)
+        Transfer transfer = transferRepository.findByIdForUpdate(transferId)
                 .orElseThrow(() -> new TransferNotFoundException("Transfer not found with id: " + transferId));
 
         if (transfer.getStatus() != TransferStatus.PENDING) {
@@ -152,22 +424,89 @@ public class TransferServiceImpl implements TransferService {
     @Transactional(readOnly = true)
     public Long getTotalOutgoingAmountForPeriod(OffsetDateTime startDate, OffsetDateTime endDate) {
         User currentUser = securityService.getCurrentUser();
-        Long totalAmount = transferRepository.getTotalOutgoingAmountByUserIdAndPeriod(
-                currentUser.getId(), startDate, endDate);
-
-        return totalAmount != null ? totalAmount : 0L;
+        return outgoingRollupService.getTotalOutgoing(currentUser.getId(), startDate, endDate);
     }
 
     @Override
     @Transactional(readOnly = true)
     public boolean isTransferParticipant(Long transferId) {
         User currentUser = securityService.getCurrentUser();
-        Transfer transfer = transferRepository.findById(transferId)
+        Transfer transfer = transferRepository.findWithCardsById(transferId)
                 .orElseThrow(() -> new TransferNotFoundException("Transfer not found with id: " + transferId));
 
         return isUserParticipant(transfer, currentUser);
     }
 
+    private Optional<Page<TransferDto>> feedPage(Long userId, Set<FeedDirection> directions, Pageable pageable) {
+        if (!transferFeedService.isBackfilled()) {
+            return Optional.empty();
+        }
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : pageable.getSort()) {
+            String property = FEED_SORT_PROPERTIES.get(order.getProperty());
+            if (property == null) {
+                return Optional.empty();
+            }
+            orders.add(order.withProperty(property));
+        }
+        if (!orders.isEmpty() && orders.stream().noneMatch(order -> order.getProperty().equals("transferId"))) {
+            orders.add(new Sort.Order(orders.get(orders.size() - 1).getDirection(), "transferId"));
+        }
+
+        Page<Long> ids = feedRepository.findTransferIds(userId, directions,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(orders)));
+        return Optional.of(new PageImpl<>(loadInOrder(ids.getContent()), pageable, ids.getTotalElements()));
+    }
+
+    private TransferSliceDto sliceAfter(String cursor, int size, Set<FeedDirection> directions) {
+        TransferCursor after = TransferCursor.decode(cursor);
+        int limit = Math.min(Math.max(size, 1), MAX_SLICE_SIZE);
+        User currentUser = securityService.getCurrentUser();
+
+        PageRequest window = PageRequest.of(0, limit + 1);
+        List<Long> ids = transferFeedService.isBackfilled()
+                ? feedIdsBefore(currentUser.getId(), directions, after, window)
+                : transferIdsBefore(currentUser.getId(), directions, after, window);
+        boolean hasNext = ids.size() > limit;
+        List<TransferDto> page = loadInOrder(ids.subList(0, Math.min(ids.size(), limit)));
+        TransferDto last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return TransferSliceDto.builder()
+                .content(page)
+                .nextCursor(hasNext ? new TransferCursor(last.getTransferDate(), last.getId()).encode() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    private List<Long> feedIdsBefore(Long userId, Set<FeedDirection> directions, TransferCursor after,
+                                     Pageable window) {
+        return after == null
+                ? feedRepository.findLatestTransferIds(userId, directions, window)
+                : feedRepository.findTransferIdsBefore(userId, directions, after.transferDate(), after.id(), window);
+    }
+
+    private List<Long> transferIdsBefore(Long userId, Set<FeedDirection> directions, TransferCursor after,
+                                         Pageable window) {
+        boolean outgoing = directions.contains(FeedDirection.OUTGOING);
+        boolean incoming = directions.contains(FeedDirection.INCOMING);
+        return after == null
+                ? transferRepository.findLatestIdsByUserId(userId, outgoing, incoming, window)
+                : transferRepository.findIdsByUserIdBefore(userId, outgoing, incoming,
+                        after.transferDate(), after.id(), window);
+    }
+
+    private List<TransferDto> loadInOrder(List<Long> transferIds) {
+        if (transferIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, TransferView> transfers = transferRepository.findViewsByIdIn(transferIds).stream()
+                .collect(Collectors.toMap(TransferView::id, Function.identity()));
+        return transferIds.stream()
+                .map(transfers::get)
+                .filter(Objects::nonNull)
+                .map(transferMapper::toDTO)
+                .toList();
+    }
+
     private boolean isUserParticipant(Transfer transfer, User user) {
         return transfer.getFromCard().getUser().getId().equals(user.getId()) ||
                 transfer.getToCard().getUser().getId().equals(user.getId());
@@ -190,7 +529,7 @@ public class TransferServiceImpl implements TransferService {
             throw new BadRequestException("Amount must be positive");
         }
 
-        if (fromCard.getBalance() < amount) {
+        if (availableBalance(fromCard) < amount) {
             throw new BadRequestException("Insufficient funds");
         }
 
@@ -202,28 +541,51 @@ public class TransferServiceImpl implements TransferService {
             throw new BadRequestException("Source card currency (" + fromCard.getCurrency() +
                     ") doesn't match transfer currency (" + currency + ")");
         }
+    }
 
-        if (fromCard.getCurrency() != toCard.getCurrency()) {
-            throw new BadRequestException("Currency mismatch: source card (" + fromCard.getCurrency() +
-                    ") and destination card (" + toCard.getCurrency() + ")");
+    private TransferDto acceptTransfer(Transfer transfer, TransferPipeline pipeline) {
+        TransferPipeline.Ticket ticket = pipeline.claim(transfer.getFromCard().getId());
+        Transfer savedTransfer;
+        try {
+            transfer.setStatus(TransferStatus.PENDING);
+            savedTransfer = transferRepository.save(transfer);
+            transferFeedService.append(List.of(savedTransfer));
+        } catch (RuntimeException e) {
+            pipeline.abandon(ticket);
+            throw e;
         }
+        pipeline.publishAfterCommit(ticket, savedTransfer.getId());
+        log.debug("Transfer {} accepted for asynchronous settlement", savedTransfer.getId());
+        return transferMapper.toDTO(savedTransfer);
     }
 
     private TransferDto processTransfer(Transfer transfer) {
         try {
-            transfer.getFromCard().setBalance(transfer.getFromCard().getBalance() - transfer.getAmount());
-
-            transfer.getToCard().setBalance(transfer.getToCard().getBalance() + transfer.getAmount());
+            if (strategy == TransferStrategy.ATOMIC_UPDATE) {
+                applyAtomically(transfer);
+            } else {
+                transfer.getFromCard().setBalance(transfer.getFromCard().getBalance() - transfer.getAmount());
+
+                if (transfer.getToCard().isSharded()) {
+                    cardBalanceShardService.credit(transfer.getToCard(), transfer.getCreditedAmount());
+                } else {
+                    transfer.getToCard().setBalance(transfer.getToCard().getBalance() + transfer.getCreditedAmount());
+                }
+            }
 
             transfer.setStatus(TransferStatus.COMPLETED);
 
             Transfer savedTransfer = transferRepository.save(transfer);
+            transferFeedService.append(List.of(savedTransfer));
+            eventPublisher.publishEvent(new TransferCompletedEvent(List.of(savedTransfer)));
             log.info("Transfer completed successfully: {} {} from card {} to card {}",
                     transfer.getAmount(), transfer.getCurrency(),
                     transfer.getFromCard().getId(), transfer.getToCard().getId());
 
             return transferMapper.toDTO(savedTransfer);
 
+        } catch (ConcurrencyFailureException e) {
+            throw e;
         } catch (Exception e) {
             transfer.setStatus(TransferStatus.FAILED);
             transferRepository.save(transfer);
@@ -231,4 +593,179 @@ public class TransferServiceImpl implements TransferService {
             throw new BadRequestException("Transfer failed: " + e.getMessage());
         }
     }
+
+    private Transfer prepareBatchTransfer(TransferRequest request, Map<Long, BankCard> cards, User currentUser) {
+        if (request.getFromCardId() == null || request.getToCardId() == null
+                || request.getAmount() == null || request.getCurrency() == null) {
+            throw new BadRequestException("Source card, destination card, amount and currency are required");
+        }
+
+        BankCard fromCard = cards.get(request.getFromCardId());
+        if (fromCard == null || !fromCard.getUser().getId().equals(currentUser.getId())) {
+            throw new CardNotFoundException("Source card not found or access denied");
+        }
+
+        BankCard toCard = cards.get(request.getToCardId());
+        if (toCard == null) {
+            throw new CardNotFoundException("Destination card not found");
+        }
+
+        topUpFromShards(fromCard, request.getAmount());
+        validateTransfer(fromCard, toCard, request.getAmount(), request.getCurrency());
+        ExchangeRateService.Conversion conversion = convert(toCard, request.getAmount(), request.getCurrency());
+        velocityLimiter.acquire(fromCard, request.getAmount(), request.getCurrency());
+
+        Transfer transfer = transferMapper.toEntityFromRequest(request);
+        transfer.setFromCard(fromCard);
+        transfer.setToCard(toCard);
+        transfer.setCurrency(request.getCurrency());
+        applyConversion(transfer, conversion);
+        return transfer;
+    }
+
+    private Transfer prepareDisbursementLeg(DisbursementRequest request, DisbursementLegRequest leg,
+                                            BankCard fromCard, Map<Long, BankCard> cards) {
+        if (leg.getToCardId() == null || leg.getAmount() == null) {
+            throw new BadRequestException("Destination card and amount are required");
+        }
+
+        BankCard toCard = cards.get(leg.getToCardId());
+        if (toCard == null) {
+            throw new CardNotFoundException("Destination card not found");
+        }
+
+        topUpFromShards(fromCard, leg.getAmount());
+        validateTransfer(fromCard, toCard, leg.getAmount(), request.getCurrency());
+        ExchangeRateService.Conversion conversion = convert(toCard, leg.getAmount(), request.getCurrency());
+        velocityLimiter.acquire(fromCard, leg.getAmount(), request.getCurrency());
+
+        Transfer transfer = Transfer.builder()
+                .fromCard(fromCard)
+                .toCard(toCard)
+                .amount(leg.getAmount())
+                .currency(request.getCurrency())
+                .description(leg.getDescription() != null ? leg.getDescription() : request.getDescription())
+                .build();
+        applyConversion(transfer, conversion);
+        return transfer;
+    }
+
+    private ExchangeRateService.Conversion convert(BankCard toCard, Long amount, Currency currency) {
+        if (toCard.getCurrency() == currency) {
+            return ExchangeRateService.Conversion.identity(currency, amount);
+        }
+        if (strategy == TransferStrategy.LEDGER) {
+            throw new BadRequestException("Cross-currency transfers are not supported by the LEDGER transfer strategy");
+        }
+        return exchangeRateService.convert(currency, toCard.getCurrency(), amount);
+    }
+
+    private void applyConversion(Transfer transfer, ExchangeRateService.Conversion conversion) {
+        transfer.setExchangeRate(conversion.rate());
+        transfer.setCreditedAmount(conversion.amount());
+        transfer.setCreditedCurrency(conversion.currency());
+    }
+
+    private void applyInMemory(Transfer transfer) {
+        transfer.getFromCard().setBalance(transfer.getFromCard().getBalance() - transfer.getAmount());
+        if (transfer.getToCard().isSharded()) {
+            cardBalanceShardService.credit(transfer.getToCard(), transfer.getCreditedAmount());
+        } else {
+            transfer.getToCard().setBalance(transfer.getToCard().getBalance() + transfer.getCreditedAmount());
+        }
+        transfer.setStatus(TransferStatus.COMPLETED);
+    }
+
+    private List<Transfer> saveCompleted(List<Transfer> transfers, List<Integer> transferIndexes,
+                                         TransferResultDto[] results) {
+        List<Transfer> savedTransfers = transferRepository.saveAll(transfers);
+        transferFeedService.append(savedTransfers);
+        if (!savedTransfers.isEmpty()) {
+            eventPublisher.publishEvent(new TransferCompletedEvent(savedTransfers));
+        }
+        for (int i = 0; i < savedTransfers.size(); i++) {
+            int index = transferIndexes.get(i);
+            results[index] = TransferResultDto.builder()
+                    .index(index)
+                    .success(true)
+                    .transfer(transferMapper.toDTO(savedTransfers.get(i)))
+                    .build();
+        }
+        return savedTransfers;
+    }
+
+    private TransferResultDto failedResult(int index, String error) {
+        return TransferResultDto.builder()
+                .index(index)
+                .success(false)
+                .error(error)
+                .build();
+    }
+
+    private void topUpFromShards(BankCard card, Long amount) {
+        if (strategy != TransferStrategy.LEDGER && card.isSharded() && amount != null
+                && card.getAvailableBalance() < amount) {
+            cardBalanceShardService.drain(card, amount - card.getAvailableBalance());
+        }
+    }
+
+    private long availableBalance(BankCard card) {
+        if (strategy == TransferStrategy.LEDGER) {
+            return balanceLedger.getObject().balanceOf(card.getId(), card.getBalance());
+        }
+        return card.getAvailableBalance();
+    }
+
+    private TransferDto processLedgerTransfer(Transfer transfer) {
+        LedgerEntry entry = balanceLedger.getObject().transfer(
+                transfer.getFromCard().getId(), transfer.getToCard().getId(),
+                transfer.getAmount(), transfer.getCurrency(), transfer.getDescription());
+
+        transfer.setId(entry.transferId());
+        transfer.setJournalSequence(entry.sequence());
+        transfer.setTransferDate(OffsetDateTime.ofInstant(Instant.ofEpochMilli(entry.timestamp()), ZoneOffset.UTC));
+        transfer.setStatus(TransferStatus.COMPLETED);
+        log.info("Transfer {} accepted by ledger: {} {} from card {} to card {} (journal sequence {})",
+                transfer.getId(), transfer.getAmount(), transfer.getCurrency(),
+                transfer.getFromCard().getId(), transfer.getToCard().getId(), entry.sequence());
+
+        return transferMapper.toDTO(transfer);
+    }
+
+    private void lockCardsInIdOrder(Long firstCardId, Long secondCardId) {
+        Stream.of(firstCardId, secondCardId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .forEach(cardRepository::findByIdForUpdate);
+    }
+
+    private void applyAtomically(Transfer transfer) {
+        if (transfer.getFromCard().getId() < transfer.getToCard().getId()) {
+            debitAtomically(transfer);
+            creditAtomically(transfer);
+        } else {
+            creditAtomically(transfer);
+            debitAtomically(transfer);
+        }
+    }
+
+    private void debitAtomically(Transfer transfer) {
+        if (cardRepository.debitIfSufficient(transfer.getFromCard().getId(), transfer.getAmount()) == 0) {
+            throw new BadRequestException("Insufficient funds");
+        }
+    }
+
+    private void creditAtomically(Transfer transfer) {
+        if (transfer.getToCard().isSharded()) {
+            if (!cardRepository.isActiveById(transfer.getToCard().getId())) {
+                throw new BadRequestException("Destination card is not active");
+            }
+            cardBalanceShardService.credit(transfer.getToCard(), transfer.getCreditedAmount());
+            return;
+        }
+        if (cardRepository.creditIfActive(transfer.getToCard().getId(), transfer.getCreditedAmount()) == 0) {
+            throw new BadRequestException("Destination card is not active");
+        }
+    }
 }
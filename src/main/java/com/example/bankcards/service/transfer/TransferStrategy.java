@@ -0,0 +1,8 @@
+package com.example.bankcards.service.transfer;
+
+public enum TransferStrategy {
+    OPTIMISTIC_LOCK,
+    ATOMIC_UPDATE,
+    PESSIMISTIC_LOCK,
+    LEDGER
+}
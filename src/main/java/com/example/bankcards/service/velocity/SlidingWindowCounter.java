@@ -0,0 +1,63 @@
+package com.example.bankcards.service.velocity;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class SlidingWindowCounter {
+
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    public SlidingWindowCounter(Duration window, int bucketCount) {
+        this.bucketCount = bucketCount;
+        this.bucketMillis = Math.max(1L, window.toMillis() / bucketCount);
+        this.buckets = new AtomicReferenceArray<>(bucketCount);
+    }
+
+    public void add(long timestampMillis, long amount) {
+        Bucket bucket = bucket(timestampMillis / bucketMillis);
+        if (bucket != null) {
+            bucket.sum.add(amount);
+        }
+    }
+
+    public long sum(long nowMillis) {
+        long current = nowMillis / bucketMillis;
+        long total = 0L;
+        for (int i = 0; i < bucketCount; i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null && bucket.epoch > current - bucketCount && bucket.epoch <= current) {
+                total += bucket.sum.sum();
+            }
+        }
+        return total;
+    }
+
+    private Bucket bucket(long epoch) {
+        int slot = (int) Math.floorMod(epoch, (long) bucketCount);
+        while (true) {
+            Bucket bucket = buckets.get(slot);
+            if (bucket != null && bucket.epoch == epoch) {
+                return bucket;
+            }
+            if (bucket != null && bucket.epoch > epoch) {
+                return null;
+            }
+            Bucket fresh = new Bucket(epoch);
+            if (buckets.compareAndSet(slot, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private static final class Bucket {
+        private final long epoch;
+        private final LongAdder sum = new LongAdder();
+
+        private Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.bankcards.service.velocity;
+
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.Role;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.velocity")
+public class VelocityLimitProperties {
+
+    private boolean enabled = true;
+
+    private long cacheSize = 100_000L;
+
+    private Map<Role, Map<Currency, Limits>> limits = new HashMap<>();
+
+    public Limits limitsFor(Role role, Currency currency) {
+        Map<Currency, Limits> byCurrency = limits.get(role);
+        return byCurrency != null ? byCurrency.get(currency) : null;
+    }
+
+    @Getter
+    @Setter
+    public static class Limits {
+        private Long cardHourly;
+        private Long cardDaily;
+        private Long userHourly;
+        private Long userDaily;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.bankcards.service.velocity;
+
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.repository.CardHoldRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Component
+public class VelocityLimiter {
+
+    private static final Duration HOUR = Duration.ofHours(1);
+    private static final Duration DAY = Duration.ofDays(1);
+    private static final int HOURLY_BUCKETS = 60;
+    private static final int DAILY_BUCKETS = 96;
+    private static final Set<TransferStatus> SPENT_STATUSES = EnumSet.of(TransferStatus.PENDING, TransferStatus.COMPLETED);
+
+    private final TransferRepository transferRepository;
+    private final CardHoldRepository holdRepository;
+    private final VelocityLimitProperties properties;
+    private final Cache<Long, SpendWindows> cardWindows;
+    private final Cache<UserCurrency, SpendWindows> userWindows;
+
+    public VelocityLimiter(TransferRepository transferRepository, CardHoldRepository holdRepository,
+                           VelocityLimitProperties properties) {
+        this.transferRepository = transferRepository;
+        this.holdRepository = holdRepository;
+        this.properties = properties;
+        this.cardWindows = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .expireAfterAccess(DAY)
+                .build();
+        this.userWindows = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .expireAfterAccess(DAY)
+                .build();
+    }
+
+    public void acquire(BankCard fromCard, long amount, Currency currency) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        User owner = fromCard.getUser();
+        VelocityLimitProperties.Limits limits = properties.limitsFor(owner.getRole(), currency);
+        if (limits == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        OffsetDateTime since = OffsetDateTime.ofInstant(Instant.ofEpochMilli(now).minus(DAY), ZoneOffset.UTC);
+        SpendWindows card = cardWindows.get(fromCard.getId(), cardId -> seed(
+                transferRepository.findSpendByCardIdSince(cardId, SPENT_STATUSES, since),
+                holdRepository.findAuthorizedSpendByCardIdSince(cardId, since)));
+        SpendWindows user = userWindows.get(new UserCurrency(owner.getId(), currency), key -> seed(
+                transferRepository.findSpendByUserIdSince(key.userId(), key.currency(), SPENT_STATUSES, since),
+                holdRepository.findAuthorizedSpendByUserIdSince(key.userId(), key.currency(), since)));
+
+        card.acquire(now, amount, limits.getCardHourly(), limits.getCardDaily(), "Card");
+        try {
+            user.acquire(now, amount, limits.getUserHourly(), limits.getUserDaily(), "User");
+        } catch (BadRequestException e) {
+            card.release(now, amount);
+            throw e;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        card.release(now, amount);
+                        user.release(now, amount);
+                    }
+                }
+            });
+        }
+    }
+
+    public void release(Long cardId, Long userId, Currency currency, long amount, OffsetDateTime acquiredAt) {
+        if (!properties.isEnabled() || amount <= 0) {
+            return;
+        }
+        long timestamp = acquiredAt.toInstant().toEpochMilli();
+        Runnable release = () -> {
+            SpendWindows card = cardWindows.getIfPresent(cardId);
+            if (card != null) {
+                card.release(timestamp, amount);
+            }
+            SpendWindows user = userWindows.getIfPresent(new UserCurrency(userId, currency));
+            if (user != null) {
+                user.release(timestamp, amount);
+            }
+        };
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    release.run();
+                }
+            }
+        });
+    }
+
+    private SpendWindows seed(List<TransferRepository.SpendEntry> transfers, List<TransferRepository.SpendEntry> holds) {
+        List<TransferRepository.SpendEntry> entries = new ArrayList<>(transfers);
+        entries.addAll(holds);
+        SpendWindows windows = new SpendWindows();
+        for (TransferRepository.SpendEntry entry : entries) {
+            windows.record(entry.getTransferDate().toInstant().toEpochMilli(), entry.getAmount());
+        }
+        return windows;
+    }
+
+    private record UserCurrency(Long userId, Currency currency) {
+    }
+
+    private static final class SpendWindows {
+        private final SlidingWindowCounter hourly = new SlidingWindowCounter(HOUR, HOURLY_BUCKETS);
+        private final SlidingWindowCounter daily = new SlidingWindowCounter(DAY, DAILY_BUCKETS);
+
+        private void record(long timestamp, long amount) {
+            hourly.add(timestamp, amount);
+            daily.add(timestamp, amount);
+        }
+
+        private void release(long timestamp, long amount) {
+            record(timestamp, -amount);
+        }
+
+        private void acquire(long now, long amount, Long hourlyLimit, Long dailyLimit, String scope) {
+            record(now, amount);
+            if (hourlyLimit != null && hourly.sum(now) > hourlyLimit) {
+                release(now, amount);
+                throw new BadRequestException(scope + " hourly spend limit of " + hourlyLimit + " exceeded");
+            }
+            if (dailyLimit != null && daily.sum(now) > dailyLimit) {
+                release(now, amount);
+                throw new BadRequestException(scope + " daily spend limit of " + dailyLimit + " exceeded");
+            }
+        }
+    }
+}
@@ -3,10 +3,16 @@ package com.example.bankcards.controller;
 import com.example.bankcards.config.SecurityConfig;
 import com.example.bankcards.config.TestConfig;
 import com.example.bankcards.config.TestSecurityConfig;
+import com.example.bankcards.dto.DisbursementResultDto;
+import com.example.bankcards.dto.RollupBackfillResultDto;
 import com.example.bankcards.dto.TransferDto;
 import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.dto.TransferResultDto;
+import com.example.bankcards.dto.TransferSliceDto;
 import com.example.bankcards.entity.enums.Currency;
 import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.service.feed.TransferFeedService;
+import com.example.bankcards.service.statistics.OutgoingRollupService;
 import com.example.bankcards.service.transfer.TransferService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,8 +24,12 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.doNothing;
@@ -36,6 +46,12 @@ class TransferControllerTest {
     @MockBean
     private TransferService transferService;
 
+    @MockBean
+    private OutgoingRollupService outgoingRollupService;
+
+    @MockBean
+    private TransferFeedService transferFeedService;
+
     private TransferDto createTestTransferDto(Long id, Currency currency) {
         return TransferDto.builder()
                 .id(id)
@@ -56,7 +72,7 @@ class TransferControllerTest {
     void createTransfer_ShouldCreateTransfer() throws Exception {
         TransferDto response = createTestTransferDto(1L, Currency.USD);
 
-        when(transferService.createTransfer(any(TransferRequest.class))).thenReturn(response);
+        when(transferService.createTransfer(any(TransferRequest.class), isNull())).thenReturn(response);
 
         mockMvc.perform(post("/api/transfers")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -94,6 +110,47 @@ class TransferControllerTest {
                 .andExpect(content().string("5000"));
     }
 
+    @Test
+    @WithMockUser(roles = "USER")
+    void getUserTransfersAfter_ShouldReturnSliceWithContinuationCursor() throws Exception {
+        when(transferService.getUserTransfersAfter("abc", 1)).thenReturn(TransferSliceDto.builder()
+                .content(List.of(createTestTransferDto(7L, Currency.USD)))
+                .nextCursor("def")
+                .hasNext(true)
+                .build());
+
+        mockMvc.perform(get("/api/transfers/my/cursor")
+                        .param("cursor", "abc")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(7))
+                .andExpect(jsonPath("$.nextCursor").value("def"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void backfillOutgoingRollups_AsAdmin_ShouldReturnSummary() throws Exception {
+        when(outgoingRollupService.backfill()).thenReturn(RollupBackfillResultDto.builder()
+                .usersProcessed(3L)
+                .rowsWritten(7L)
+                .elapsedMs(12L)
+                .build());
+
+        mockMvc.perform(post("/api/transfers/statistics/outgoing/backfill"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usersProcessed").value(3))
+                .andExpect(jsonPath("$.rowsWritten").value(7));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void backfillOutgoingRollups_AsUser_ShouldReturnForbidden() throws Exception {
+        mockMvc.perform(post("/api/transfers/statistics/outgoing/backfill"))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void updateTransferStatus_AsAdmin_ShouldUpdateStatus() throws Exception {
@@ -129,4 +186,87 @@ class TransferControllerTest {
         mockMvc.perform(get("/api/transfers"))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void createTransfers_ShouldReturnPerItemResults() throws Exception {
+        List<TransferResultDto> results = List.of(
+                TransferResultDto.builder().index(0).success(true).transfer(createTestTransferDto(1L, Currency.USD)).build(),
+                TransferResultDto.builder().index(1).success(false).error("Insufficient funds").build());
+
+        when(transferService.createTransfers(anyList())).thenReturn(results);
+
+        mockMvc.perform(post("/api/transfers/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                    [
+                        {"fromCardId": 1, "toCardId": 2, "amount": 100, "currency": "USD"},
+                        {"fromCardId": 1, "toCardId": 3, "amount": 900000, "currency": "USD"}
+                    ]
+                    """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[0].transfer.id").value(1))
+                .andExpect(jsonPath("$[1].success").value(false))
+                .andExpect(jsonPath("$[1].error").value("Insufficient funds"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void createDisbursement_ShouldReturnPerLegResults() throws Exception {
+        DisbursementResultDto result = DisbursementResultDto.builder()
+                .fromCardId(1L)
+                .totalDebited(100L)
+                .completedLegs(1)
+                .failedLegs(1)
+                .legs(List.of(
+                        TransferResultDto.builder().index(0).success(true).transfer(createTestTransferDto(1L, Currency.USD)).build(),
+                        TransferResultDto.builder().index(1).success(false).error("Destination card is not active").build()))
+                .build();
+
+        when(transferService.createDisbursement(any())).thenReturn(result);
+
+        mockMvc.perform(post("/api/transfers/disbursements")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                    {
+                        "fromCardId": 1,
+                        "currency": "USD",
+                        "continueOnError": true,
+                        "legs": [
+                            {"toCardId": 2, "amount": 100},
+                            {"toCardId": 3, "amount": 100}
+                        ]
+                    }
+                    """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalDebited").value(100))
+                .andExpect(jsonPath("$.completedLegs").value(1))
+                .andExpect(jsonPath("$.legs[1].success").value(false))
+                .andExpect(jsonPath("$.legs[1].error").value("Destination card is not active"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void createTransfer_WithIdempotencyKey_ShouldPassKeyToService() throws Exception {
+        TransferDto response = createTestTransferDto(1L, Currency.USD);
+
+        when(transferService.createTransfer(any(TransferRequest.class), eq("retry-42"))).thenReturn(response);
+
+        mockMvc.perform(post("/api/transfers")
+                        .header("Idempotency-Key", "retry-42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                    {
+                        "fromCardId": 1,
+                        "toCardId": 2,
+                        "amount": 100,
+                        "currency": "USD"
+                    }
+                    """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+
+        verify(transferService).createTransfer(any(TransferRequest.class), eq("retry-42"));
+    }
 }
@@ -0,0 +1,201 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.ledger.BalanceLedger;
+import com.example.bankcards.service.ledger.LedgerEntry;
+import com.example.bankcards.service.ledger.LedgerFlushWriter;
+import com.example.bankcards.service.ledger.TransferJournal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceLedgerTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Mock
+    private TransferJournal journal;
+
+    @Mock
+    private LedgerFlushWriter flushWriter;
+
+    private BalanceLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new BalanceLedger(cardRepository, transferRepository, journal, flushWriter, 4, 100, 2, false);
+    }
+
+    @Test
+    void transfer_ShouldMoveBalancesInMemoryAndJournalEntry() {
+        when(transferRepository.nextIdBlock()).thenReturn(100L);
+        when(cardRepository.findLedgerSeedById(1L)).thenReturn(Optional.of(seed(1000L)));
+        when(cardRepository.findLedgerSeedById(2L)).thenReturn(Optional.of(seed(0L)));
+
+        LedgerEntry entry = ledger.transfer(1L, 2L, 300L, Currency.RUB, "Rent");
+
+        assertEquals(1L, entry.sequence());
+        assertEquals(51L, entry.transferId());
+        assertEquals(700L, ledger.balanceOf(1L, 1000L));
+        assertEquals(300L, ledger.balanceOf(2L, 0L));
+        assertEquals(1, ledger.pendingCount());
+        verify(journal).append(entry);
+        verify(journal).awaitDurable(1L);
+        verify(flushWriter, never()).persist(anyList());
+    }
+
+    @Test
+    void transfer_WhenInsufficientFunds_ShouldThrowException() {
+        when(cardRepository.findLedgerSeedById(1L)).thenReturn(Optional.of(seed(100L)));
+        when(cardRepository.findLedgerSeedById(2L)).thenReturn(Optional.of(seed(0L)));
+
+        assertThrows(BadRequestException.class, () -> ledger.transfer(1L, 2L, 300L, Currency.RUB, null));
+        assertEquals(100L, ledger.balanceOf(1L, 100L));
+        assertEquals(0, ledger.pendingCount());
+        verify(journal, never()).append(any());
+    }
+
+    @Test
+    void flush_ShouldPersistPendingEntriesAndCheckpointJournal() {
+        when(cardRepository.findLedgerSeedById(1L)).thenReturn(Optional.of(seed(1000L)));
+        when(cardRepository.findLedgerSeedById(2L)).thenReturn(Optional.of(seed(0L)));
+        ledger.transfer(1L, 2L, 100L, Currency.RUB, null);
+        ledger.transfer(2L, 1L, 50L, Currency.RUB, null);
+
+        ledger.flush();
+
+        verify(flushWriter).persist(argThat(entries -> entries.size() == 2));
+        verify(journal).checkpoint(2L);
+        assertEquals(0, ledger.pendingCount());
+    }
+
+    @Test
+    void flush_WhenWriterFails_ShouldKeepEntriesPending() {
+        when(cardRepository.findLedgerSeedById(1L)).thenReturn(Optional.of(seed(1000L)));
+        when(cardRepository.findLedgerSeedById(2L)).thenReturn(Optional.of(seed(0L)));
+        ledger.transfer(1L, 2L, 100L, Currency.RUB, null);
+        doThrow(new IllegalStateException("database unavailable")).when(flushWriter).persist(anyList());
+
+        ledger.flush();
+
+        assertEquals(1, ledger.pendingCount());
+        verify(journal, never()).checkpoint(anyLong());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recover_ShouldPersistJournaledEntriesAndContinueSequence() {
+        LedgerEntry journaled = new LedgerEntry(5L, 40L, 0L, 1L, 2L, 100L, Currency.RUB, null);
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(journaled);
+            return null;
+        }).when(journal).replay(any());
+        when(journal.lastSequence()).thenReturn(5L);
+        when(cardRepository.findLedgerSeedById(1L)).thenReturn(Optional.of(seed(900L)));
+        when(cardRepository.findLedgerSeedById(2L)).thenReturn(Optional.of(seed(100L)));
+
+        ledger.recover();
+        LedgerEntry next = ledger.transfer(1L, 2L, 10L, Currency.RUB, null);
+
+        verify(flushWriter).persist(List.of(journaled));
+        verify(journal).checkpoint(5L);
+        assertEquals(6L, next.sequence());
+    }
+
+    @Test
+    void recover_WhenJournalIsBehindDatabase_ShouldContinueAfterPersistedSequence() {
+        when(journal.lastSequence()).thenReturn(0L);
+        when(transferRepository.findMaxJournalSequence()).thenReturn(42L);
+        when(cardRepository.findLedgerSeedById(1L)).thenReturn(Optional.of(seed(1000L)));
+        when(cardRepository.findLedgerSeedById(2L)).thenReturn(Optional.of(seed(0L)));
+
+        ledger.recover();
+        LedgerEntry next = ledger.transfer(1L, 2L, 10L, Currency.RUB, null);
+
+        assertEquals(43L, next.sequence());
+    }
+
+    @Test
+    void flush_WhenEntryKeepsFailing_ShouldDeadLetterItAndFlushTheRest() {
+        when(cardRepository.findLedgerSeedById(1L)).thenReturn(Optional.of(seed(1000L)));
+        when(cardRepository.findLedgerSeedById(2L)).thenReturn(Optional.of(seed(0L)));
+        when(cardRepository.findLedgerSeedById(3L)).thenReturn(Optional.of(seed(0L)));
+        LedgerEntry poison = ledger.transfer(1L, 2L, 100L, Currency.RUB, null);
+        LedgerEntry healthy = ledger.transfer(1L, 3L, 50L, Currency.RUB, null);
+        doThrow(new IllegalStateException("card deleted"))
+                .when(flushWriter).persist(argThat(entries -> entries.contains(poison)));
+
+        ledger.flush();
+
+        assertEquals(1, ledger.pendingCount());
+        verify(flushWriter).persist(List.of(healthy));
+        verify(journal, never()).checkpoint(anyLong());
+
+        ledger.flush();
+
+        verify(flushWriter).deadLetter(poison, "card deleted");
+        verify(journal).checkpoint(poison.sequence());
+        assertEquals(0, ledger.pendingCount());
+        assertEquals(950L, ledger.balanceOf(1L, 0L));
+        assertEquals(0L, ledger.balanceOf(2L, 0L));
+        assertEquals(50L, ledger.balanceOf(3L, 0L));
+    }
+
+    @Test
+    void transfer_WhenCardHasBalanceShards_ShouldRejectIt() {
+        when(cardRepository.findLedgerSeedById(1L)).thenReturn(Optional.of(seed(1000L, 4)));
+
+        assertThrows(BadRequestException.class, () -> ledger.transfer(1L, 2L, 10L, Currency.RUB, null));
+        verify(journal, never()).append(any());
+    }
+
+    @Test
+    void constructor_WhenAsyncPipelineEnabled_ShouldRefuseToStart() {
+        assertThrows(IllegalStateException.class, () ->
+                new BalanceLedger(cardRepository, transferRepository, journal, flushWriter, 4, 100, 2, true));
+    }
+
+    private CardRepository.LedgerSeed seed(long balance) {
+        return seed(balance, 0);
+    }
+
+    private CardRepository.LedgerSeed seed(long balance, int shards) {
+        return new CardRepository.LedgerSeed() {
+            @Override
+            public Long getBalance() {
+                return balance;
+            }
+
+            @Override
+            public Long getHeldAmount() {
+                return 0L;
+            }
+
+            @Override
+            public Integer getBalanceShards() {
+                return shards;
+            }
+        };
+    }
+}
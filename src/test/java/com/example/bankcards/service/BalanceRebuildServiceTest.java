@@ -0,0 +1,173 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.BalanceRebuildJobDto;
+import com.example.bankcards.dto.BalanceRebuildRequest;
+import com.example.bankcards.entity.BalanceRebuildJob;
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.RebuildStatus;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.repository.BalanceRebuildJobRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.posting.PostingService;
+import com.example.bankcards.service.rebuild.BalanceRebuildService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.balance-rebuild.batch-size=1")
+class BalanceRebuildServiceTest {
+
+    @Autowired
+    private BalanceRebuildService balanceRebuildService;
+
+    @Autowired
+    private BalanceRebuildJobRepository jobRepository;
+
+    @Autowired
+    private PostingService postingService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void startRebuild_ShouldRestoreCorruptedBalancesFromCompletedTransfers() throws InterruptedException {
+        BankCard payer = createCard(1000L);
+        BankCard payee = createCard(200L);
+        for (int i = 0; i < 3; i++) {
+            transfer(payer, payee, 100L);
+        }
+        corrupt(payer, 55L);
+
+        BalanceRebuildJobDto job = awaitCompletion(balanceRebuildService.startRebuild(BalanceRebuildRequest.builder()
+                .cardIds(List.of(payee.getId(), payer.getId()))
+                .build()).getId());
+
+        assertEquals(RebuildStatus.COMPLETED, job.getStatus());
+        assertEquals(2, job.getCardsRebuilt());
+        assertEquals(1, job.getCardsCorrected());
+        assertEquals(6, job.getEventsReplayed());
+        assertEquals(700L, balanceOf(payer));
+        assertEquals(500L, balanceOf(payee));
+    }
+
+    @Test
+    void startRebuild_FromSnapshot_ShouldReplayPostingsAfterLatestSnapshot() throws InterruptedException {
+        BankCard payer = createCard(1000L);
+        BankCard payee = createCard(0L);
+        postingService.openCard(payer.getId(), 1000L);
+        postingService.openCard(payee.getId(), 0L);
+        postingService.post(List.of(transfer(payer, payee, 250L), transfer(payer, payee, 50L)));
+        corrupt(payee, -10L);
+
+        BalanceRebuildJobDto job = awaitCompletion(balanceRebuildService.startRebuild(BalanceRebuildRequest.builder()
+                .cardIds(List.of(payer.getId(), payee.getId()))
+                .fromSnapshot(true)
+                .build()).getId());
+
+        assertEquals(RebuildStatus.COMPLETED, job.getStatus());
+        assertEquals(1, job.getCardsCorrected());
+        assertEquals(4, job.getEventsReplayed());
+        assertEquals(700L, balanceOf(payer));
+        assertEquals(300L, balanceOf(payee));
+    }
+
+    @Test
+    void resumeRebuild_ShouldContinueAfterLastCheckpoint() throws InterruptedException {
+        BankCard first = createCard(100L);
+        BankCard second = createCard(100L);
+        corrupt(first, 1L);
+        corrupt(second, 1L);
+        OffsetDateTime now = OffsetDateTime.now();
+        BalanceRebuildJob interrupted = jobRepository.save(BalanceRebuildJob.builder()
+                .status(RebuildStatus.RUNNING)
+                .cardIds(first.getId() + "," + second.getId())
+                .lastCardId(first.getId())
+                .cardsRebuilt(1)
+                .startedAt(now)
+                .updatedAt(now)
+                .build());
+
+        BalanceRebuildJobDto job = awaitCompletion(balanceRebuildService.resumeRebuild(interrupted.getId()).getId());
+
+        assertEquals(RebuildStatus.COMPLETED, job.getStatus());
+        assertEquals(2, job.getCardsRebuilt());
+        assertEquals(1, job.getCardsCorrected());
+        assertEquals(101L, balanceOf(first));
+        assertEquals(100L, balanceOf(second));
+    }
+
+    private BalanceRebuildJobDto awaitCompletion(Long jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        BalanceRebuildJobDto job = balanceRebuildService.getRebuild(jobId);
+        while (job.getStatus() == RebuildStatus.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            job = balanceRebuildService.getRebuild(jobId);
+        }
+        return job;
+    }
+
+    private long balanceOf(BankCard card) {
+        return cardRepository.findBalanceById(card.getId()).orElseThrow();
+    }
+
+    private void corrupt(BankCard card, long delta) {
+        transactionTemplate.executeWithoutResult(status -> cardRepository.adjustBalance(card.getId(), delta));
+    }
+
+    private Transfer transfer(BankCard from, BankCard to, long amount) {
+        return transactionTemplate.execute(tx -> {
+            cardRepository.adjustBalance(from.getId(), -amount);
+            cardRepository.adjustBalance(to.getId(), amount);
+            return transferRepository.save(Transfer.builder()
+                    .fromCard(from)
+                    .toCard(to)
+                    .amount(amount)
+                    .currency(Currency.RUB)
+                    .status(TransferStatus.COMPLETED)
+                    .build());
+        });
+    }
+
+    private BankCard createCard(long balance) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User owner = userRepository.save(User.builder()
+                .username("rebuild-" + suffix)
+                .password("password")
+                .email("rebuild-" + suffix + "@bank.com")
+                .role(Role.ROLE_USER)
+                .build());
+        return cardRepository.save(BankCard.builder()
+                .cardNumber("B-" + suffix)
+                .cardHolderName(owner.getUsername().toUpperCase())
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .currency(Currency.RUB)
+                .balance(balance)
+                .user(owner)
+                .build());
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.CardBalanceShard;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.repository.CardBalanceShardRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.card.CardBalanceShardServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardBalanceShardServiceImplTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardBalanceShardRepository shardRepository;
+
+    @Mock
+    private CardMapper cardMapper;
+
+    @InjectMocks
+    private CardBalanceShardServiceImpl shardService;
+
+    private BankCard createCard(Long balance, int shards) {
+        BankCard card = new BankCard();
+        card.setId(1L);
+        card.setBalance(balance);
+        card.setBalanceShards(shards);
+        return card;
+    }
+
+    private CardBalanceShard createShard(int index, long balance) {
+        return CardBalanceShard.builder().cardId(1L).shardIndex(index).balance(balance).build();
+    }
+
+    private CardBalanceShardRepository.ShardBalance shardBalance(int index, long balance) {
+        return new ShardBalanceRow(index, balance);
+    }
+
+    @Test
+    void drain_ShouldTakeFromShardsInIndexOrder() {
+        BankCard card = createCard(100L, 3);
+        when(shardRepository.findBalancesByCardId(1L))
+                .thenReturn(List.of(shardBalance(0, 200L), shardBalance(1, 500L), shardBalance(2, 900L)));
+        when(shardRepository.debit(eq(1L), anyInt(), anyLong())).thenReturn(1);
+
+        long drained = shardService.drain(card, 600L);
+
+        assertEquals(600L, drained);
+        assertEquals(700L, card.getBalance());
+        verify(shardRepository).debit(1L, 0, 200L);
+        verify(shardRepository).debit(1L, 1, 400L);
+        verify(shardRepository, never()).debit(eq(1L), eq(2), anyLong());
+    }
+
+    @Test
+    void drain_WhenShardsHoldLessThanRequested_ShouldDrainEverything() {
+        BankCard card = createCard(0L, 2);
+        when(shardRepository.findBalancesByCardId(1L))
+                .thenReturn(List.of(shardBalance(0, 10L), shardBalance(1, 20L)));
+        when(shardRepository.debit(eq(1L), anyInt(), anyLong())).thenReturn(1);
+
+        assertEquals(30L, shardService.drain(card, 100L));
+        assertEquals(30L, card.getBalance());
+    }
+
+    @Test
+    void drain_WhenShardDrainedConcurrently_ShouldSkipIt() {
+        BankCard card = createCard(0L, 2);
+        when(shardRepository.findBalancesByCardId(1L))
+                .thenReturn(List.of(shardBalance(0, 10L), shardBalance(1, 20L)));
+        when(shardRepository.debit(1L, 0, 10L)).thenReturn(0);
+        when(shardRepository.debit(1L, 1, 20L)).thenReturn(1);
+
+        assertEquals(20L, shardService.drain(card, 30L));
+        assertEquals(20L, card.getBalance());
+    }
+
+    @Test
+    void credit_ShouldUpdateOneOfTheCardShards() {
+        BankCard card = createCard(0L, 4);
+        when(shardRepository.credit(eq(1L), anyInt(), eq(50L))).thenReturn(1);
+
+        shardService.credit(card, 50L);
+
+        verify(shardRepository).credit(eq(1L), intThat(index -> index >= 0 && index < 4), eq(50L));
+    }
+
+    @Test
+    void enableShards_ShouldCreateMissingShardRows() {
+        BankCard card = createCard(0L, 2);
+        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(card));
+        when(cardMapper.toDTO(card)).thenReturn(CardDto.builder().id(1L).balance(0L).build());
+
+        CardDto result = shardService.enableShards(1L, 5);
+
+        assertEquals(5, card.getBalanceShards());
+        assertEquals(0L, result.getBalance());
+        verify(shardRepository).saveAll(argThat(shards -> ((List<?>) shards).size() == 3));
+    }
+
+    @Test
+    void enableShards_WhenShrinking_ShouldThrowException() {
+        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(createCard(0L, 8)));
+
+        assertThrows(BadRequestException.class, () -> shardService.enableShards(1L, 4));
+        verify(shardRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void disableShards_ShouldFoldShardsIntoCard() {
+        BankCard card = createCard(100L, 2);
+        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(card));
+        when(shardRepository.findByCardIdForUpdate(1L))
+                .thenReturn(List.of(createShard(0, 10L), createShard(1, 20L)));
+        when(shardRepository.sumBalanceByCardId(1L)).thenReturn(30L);
+
+        shardService.disableShards(1L);
+
+        assertEquals(130L, card.getBalance());
+        assertEquals(0, card.getBalanceShards());
+        verify(shardRepository).deleteByCardId(1L);
+    }
+
+    private record ShardBalanceRow(Integer getShardIndex, Long getBalance)
+            implements CardBalanceShardRepository.ShardBalance {
+    }
+}
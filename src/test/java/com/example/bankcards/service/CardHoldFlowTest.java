@@ -0,0 +1,165 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.HoldCaptureRequest;
+import com.example.bankcards.dto.HoldDto;
+import com.example.bankcards.dto.HoldRequest;
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.dto.TransferResultDto;
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.CardHold;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.HoldStatus;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.repository.CardHoldRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.hold.HoldService;
+import com.example.bankcards.service.transfer.TransferService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CardHoldFlowTest {
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private CardHoldRepository holdRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private BankCard payer;
+    private BankCard payee;
+
+    @BeforeEach
+    void setUp() {
+        payer = createCard(1000L);
+        payee = createCard(0L);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                payer.getUser().getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void holds_ShouldReduceAvailableBalanceAndSettleInOneBatchCapture() {
+        HoldDto first = holdService.authorize(holdRequest(600L));
+
+        assertEquals(HoldStatus.AUTHORIZED, first.getStatus());
+        assertEquals(1000L, card(payer).getBalance());
+        assertEquals(600L, card(payer).getHeldAmount());
+        assertThrows(BadRequestException.class, () -> transferService.createTransfer(TransferRequest.builder()
+                .fromCardId(payer.getId())
+                .toCardId(payee.getId())
+                .amount(500L)
+                .currency(Currency.RUB)
+                .build()));
+        assertThrows(BadRequestException.class, () -> holdService.authorize(holdRequest(401L)));
+
+        HoldDto second = holdService.authorize(holdRequest(300L));
+        List<TransferResultDto> results = holdService.capture(List.of(
+                HoldCaptureRequest.builder().holdId(first.getId()).amount(450L).build(),
+                HoldCaptureRequest.builder().holdId(second.getId()).build(),
+                HoldCaptureRequest.builder().holdId(first.getId()).build()));
+
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(450L, results.get(0).getTransfer().getAmount());
+        assertTrue(results.get(1).isSuccess());
+        assertFalse(results.get(2).isSuccess());
+        assertEquals(250L, card(payer).getBalance());
+        assertEquals(0L, card(payer).getHeldAmount());
+        assertEquals(750L, card(payee).getBalance());
+        CardHold captured = holdRepository.findById(first.getId()).orElseThrow();
+        assertEquals(HoldStatus.CAPTURED, captured.getStatus());
+        assertEquals(450L, captured.getCapturedAmount());
+        assertEquals(results.get(0).getTransfer().getId(), captured.getTransferId());
+        assertFalse(holdService.capture(List.of(HoldCaptureRequest.builder().holdId(second.getId()).build()))
+                .get(0).isSuccess());
+    }
+
+    @Test
+    void voidAndExpiry_ShouldReleaseHeldFundsWithoutMovingMoney() {
+        HoldDto voided = holdService.authorize(holdRequest(200L));
+        HoldDto stale = holdService.authorize(holdRequest(100L));
+        assertEquals(300L, card(payer).getHeldAmount());
+
+        holdService.voidHold(voided.getId());
+
+        assertEquals(100L, card(payer).getHeldAmount());
+        assertEquals(HoldStatus.VOIDED, holdService.getHold(voided.getId()).getStatus());
+        assertThrows(BadRequestException.class, () -> holdService.voidHold(voided.getId()));
+
+        jdbcTemplate.update("UPDATE card_holds SET expires_at = ? WHERE id = ?",
+                OffsetDateTime.now().minusMinutes(1), stale.getId());
+        assertTrue(holdService.expireHolds() >= 1);
+
+        assertEquals(HoldStatus.EXPIRED, holdService.getHold(stale.getId()).getStatus());
+        assertEquals(0L, card(payer).getHeldAmount());
+        assertEquals(1000L, card(payer).getBalance());
+        assertEquals(0L, card(payee).getBalance());
+    }
+
+    private HoldRequest holdRequest(long amount) {
+        return HoldRequest.builder()
+                .fromCardId(payer.getId())
+                .toCardId(payee.getId())
+                .amount(amount)
+                .currency(Currency.RUB)
+                .description("Card-present purchase")
+                .build();
+    }
+
+    private BankCard card(BankCard card) {
+        return cardRepository.findById(card.getId()).orElseThrow();
+    }
+
+    private BankCard createCard(long balance) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User owner = userRepository.save(User.builder()
+                .username("hold-" + suffix)
+                .password("password")
+                .email("hold-" + suffix + "@bank.com")
+                .role(Role.ROLE_USER)
+                .build());
+        return cardRepository.save(BankCard.builder()
+                .cardNumber("H-" + suffix)
+                .cardHolderName(owner.getUsername().toUpperCase())
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .currency(Currency.RUB)
+                .balance(balance)
+                .user(owner)
+                .build());
+    }
+}
@@ -4,12 +4,16 @@ import com.example.bankcards.dto.CardDto;
 import com.example.bankcards.entity.BankCard;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Currency;
 import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.exception.CardNotFoundException;
 import com.example.bankcards.mapper.CardMapper;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.projection.CardView;
 import com.example.bankcards.security.SecurityService;
+import com.example.bankcards.service.card.CardBalanceShardService;
 import com.example.bankcards.service.card.CardServiceImpl;
+import com.example.bankcards.service.posting.PostingService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -42,6 +46,12 @@ class CardServiceImplTest {
     @Mock
     private SecurityService securityService;
 
+    @Mock
+    private CardBalanceShardService cardBalanceShardService;
+
+    @Mock
+    private PostingService postingService;
+
     @InjectMocks
     private CardServiceImpl cardService;
 
@@ -64,6 +74,11 @@ class CardServiceImplTest {
         return card;
     }
 
+    private CardView createTestCardView(Long id, CardStatus status) {
+        return new CardView(id, "1234567812345678", "Thomas A. Anderson", LocalDate.now().plusYears(2),
+                status, 1000L, 0L, Currency.RUB, 1L, "testuser", OffsetDateTime.now());
+    }
+
     private CardDto createTestCardDto(Long id) {
         return CardDto.builder()
                 .id(id)
@@ -106,12 +121,12 @@ class CardServiceImplTest {
     void getUserCards_ShouldReturnCards() {
         User user = createTestUser();
         Pageable pageable = PageRequest.of(0, 10);
-        List<BankCard> cards = Arrays.asList(new BankCard(), new BankCard());
-        Page<BankCard> cardsPage = new PageImpl<>(cards, pageable, 2);
+        List<CardView> cards = Arrays.asList(createTestCardView(1L, CardStatus.ACTIVE), createTestCardView(2L, CardStatus.ACTIVE));
+        Page<CardView> cardsPage = new PageImpl<>(cards, pageable, 2);
 
         when(securityService.getCurrentUser()).thenReturn(user);
-        when(cardRepository.findByUserId(user.getId(), pageable)).thenReturn(cardsPage);
-        when(cardMapper.toDTO(any(BankCard.class))).thenReturn(createTestCardDto(1L));
+        when(cardRepository.findViewsByUserId(user.getId(), pageable)).thenReturn(cardsPage);
+        when(cardMapper.toDTO(any(CardView.class))).thenReturn(createTestCardDto(1L));
 
         Page<CardDto> result = cardService.getUserCards(pageable);
 
@@ -167,6 +182,7 @@ class CardServiceImplTest {
         assertNotNull(result);
         assertEquals(1L, result.getId());
         verify(cardRepository).save(cardEntity);
+        verify(postingService).openCard(1L, 1000L);
         assertEquals(user, cardEntity.getUser());
     }
 
@@ -252,14 +268,14 @@ class CardServiceImplTest {
     @Test
     void getAllCards_ShouldReturnAllCards() {
         Pageable pageable = PageRequest.of(0, 10);
-        List<BankCard> cards = Arrays.asList(
-                createTestBankCard(1L, CardStatus.ACTIVE),
-                createTestBankCard(2L, CardStatus.BLOCKED)
+        List<CardView> cards = Arrays.asList(
+                createTestCardView(1L, CardStatus.ACTIVE),
+                createTestCardView(2L, CardStatus.BLOCKED)
         );
-        Page<BankCard> cardsPage = new PageImpl<>(cards, pageable, 2);
+        Page<CardView> cardsPage = new PageImpl<>(cards, pageable, 2);
 
-        when(cardRepository.findAll(pageable)).thenReturn(cardsPage);
-        when(cardMapper.toDTO(any(BankCard.class))).thenReturn(createTestCardDto(1L));
+        when(cardRepository.findAllViews(pageable)).thenReturn(cardsPage);
+        when(cardMapper.toDTO(any(CardView.class))).thenReturn(createTestCardDto(1L));
 
         Page<CardDto> result = cardService.getAllCards(pageable);
 
@@ -342,18 +358,60 @@ class CardServiceImplTest {
     void getCardsByUserId_ShouldReturnUserCards() {
         Long userId = 1L;
         Pageable pageable = PageRequest.of(0, 10);
-        List<BankCard> cards = Arrays.asList(
-                createTestBankCard(1L, CardStatus.ACTIVE),
-                createTestBankCard(2L, CardStatus.BLOCKED)
+        List<CardView> cards = Arrays.asList(
+                createTestCardView(1L, CardStatus.ACTIVE),
+                createTestCardView(2L, CardStatus.BLOCKED)
         );
-        Page<BankCard> cardsPage = new PageImpl<>(cards, pageable, 2);
+        Page<CardView> cardsPage = new PageImpl<>(cards, pageable, 2);
 
-        when(cardRepository.findByUserId(userId, pageable)).thenReturn(cardsPage);
-        when(cardMapper.toDTO(any(BankCard.class))).thenReturn(createTestCardDto(1L));
+        when(cardRepository.findViewsByUserId(userId, pageable)).thenReturn(cardsPage);
+        when(cardMapper.toDTO(any(CardView.class))).thenReturn(createTestCardDto(1L));
 
         Page<CardDto> result = cardService.getCardsByUserId(userId, pageable);
 
         assertNotNull(result);
         assertEquals(2, result.getContent().size());
     }
+
+    @Test
+    void getCardById_WhenCardSharded_ShouldSumBalanceShards() {
+        Long cardId = 1L;
+        User user = createTestUser();
+        BankCard card = createTestBankCard(cardId, CardStatus.ACTIVE);
+        card.setBalanceShards(4);
+
+        when(securityService.getCurrentUser()).thenReturn(user);
+        when(cardRepository.findByIdAndUserId(cardId, user.getId())).thenReturn(Optional.of(card));
+        when(cardMapper.toDTO(card)).thenReturn(createTestCardDto(cardId));
+        when(cardBalanceShardService.getShardedBalance(cardId)).thenReturn(2500L);
+
+        CardDto result = cardService.getCardById(cardId);
+
+        assertEquals(3500L, result.getBalance());
+    }
+
+    @Test
+    void getTotalUserBalance_ShouldIncludeBalanceShards() {
+        User user = createTestUser();
+        when(securityService.getCurrentUser()).thenReturn(user);
+        when(cardRepository.getTotalBalanceByUserId(user.getId())).thenReturn(5000L);
+        when(cardBalanceShardService.getShardedBalanceForUser(user.getId())).thenReturn(700L);
+
+        assertEquals(5700L, cardService.getTotalUserBalance());
+    }
+
+    @Test
+    void deleteCard_WhenBalanceShardsHoldFunds_ShouldThrowException() {
+        Long cardId = 1L;
+        BankCard card = createTestBankCard(cardId, CardStatus.ACTIVE);
+        card.setBalance(0L);
+        card.setBalanceShards(2);
+
+        when(cardRepository.findById(cardId)).thenReturn(Optional.of(card));
+        when(cardBalanceShardService.getShardedBalance(cardId)).thenReturn(10L);
+
+        assertThrows(BadRequestException.class, () -> cardService.deleteCard(cardId));
+        verify(cardBalanceShardService, never()).deleteShards(any());
+        verify(cardRepository, never()).delete(any(BankCard.class));
+    }
 }
@@ -0,0 +1,121 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.TransferDto;
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.card.CardService;
+import com.example.bankcards.service.shard.CardWriterShards;
+import com.example.bankcards.service.transfer.TransferService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.card-writer.enabled=true")
+class CardWriterRoutingTest {
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardWriterShards shards;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private BankCard from;
+    private BankCard to;
+
+    @BeforeEach
+    void setUp() {
+        owner = createUser();
+        from = createCard(owner);
+        to = createCard(owner);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void createTransfer_ThroughProxy_ShouldRouteAndComplete() {
+        assertTrue(shards.isEnabled());
+        assertTrue(AopUtils.isAopProxy(transferService));
+        authenticate(owner, "ROLE_USER");
+
+        TransferDto transfer = transferService.createTransfer(TransferRequest.builder()
+                .fromCardId(from.getId())
+                .toCardId(to.getId())
+                .amount(250L)
+                .currency(Currency.RUB)
+                .build());
+
+        assertEquals(TransferStatus.COMPLETED, transfer.getStatus());
+        assertEquals(750L, cardRepository.findById(from.getId()).orElseThrow().getBalance());
+        assertEquals(1250L, cardRepository.findById(to.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    void blockCard_ThroughProxy_ShouldRouteAndBlock() {
+        authenticate(owner, "ROLE_ADMIN");
+
+        CardDto blocked = cardService.blockCard(from.getId());
+
+        assertEquals(CardStatus.BLOCKED, blocked.getStatus());
+        assertEquals(CardStatus.BLOCKED, cardRepository.findById(from.getId()).orElseThrow().getStatus());
+    }
+
+    private void authenticate(User user, String role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user.getUsername(), null, List.of(new SimpleGrantedAuthority(role))));
+    }
+
+    private User createUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(User.builder()
+                .username("writer-" + suffix)
+                .password("password")
+                .email("writer-" + suffix + "@bank.com")
+                .role(Role.ROLE_USER)
+                .build());
+    }
+
+    private BankCard createCard(User user) {
+        return cardRepository.save(BankCard.builder()
+                .cardNumber("W-" + UUID.randomUUID().toString().substring(0, 8))
+                .cardHolderName(user.getUsername().toUpperCase())
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .currency(Currency.RUB)
+                .balance(1000L)
+                .user(user)
+                .build());
+    }
+}
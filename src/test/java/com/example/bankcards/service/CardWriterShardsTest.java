@@ -0,0 +1,109 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.service.shard.CardWriterShards;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardWriterShardsTest {
+
+    private CardWriterShards shards;
+
+    @BeforeEach
+    void setUp() {
+        shards = new CardWriterShards(4);
+        ReflectionTestUtils.setField(shards, "enabled", true);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        shards.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void execute_ForSameCard_ShouldNeverRunConcurrently() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 8; i++) {
+            futures.add(callers.submit(() -> {
+                for (int k = 0; k < 50; k++) {
+                    try {
+                        shards.execute(7L, () -> {
+                            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                            Thread.sleep(0, 100_000);
+                            active.decrementAndGet();
+                            return null;
+                        });
+                    } catch (Throwable t) {
+                        throw new IllegalStateException(t);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        callers.shutdown();
+
+        assertEquals(1, maxActive.get());
+    }
+
+    @Test
+    void execute_ShouldRunOnVirtualShardThreadWithCallerSecurityContext() throws Throwable {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+
+        String username = shards.execute(3L, () -> {
+            assertTrue(Thread.currentThread().isVirtual());
+            assertTrue(Thread.currentThread().getName().startsWith("card-writer-"));
+            return SecurityContextHolder.getContext().getAuthentication().getName();
+        });
+
+        assertEquals("alice", username);
+    }
+
+    @Test
+    void execute_WhenWorkThrows_ShouldRethrowOriginalException() {
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> shards.execute(1L, () -> {
+                    throw new BadRequestException("Insufficient funds");
+                }));
+
+        assertEquals("Insufficient funds", exception.getMessage());
+    }
+
+    @Test
+    void execute_WhenNestedOnWriterThread_ShouldRunInline() throws Throwable {
+        String nested = shards.execute(1L, () -> shards.execute(2L, () -> Thread.currentThread().getName()));
+
+        assertEquals("card-writer-" + shards.shardOf(1L), nested);
+    }
+
+    @Test
+    void execute_WhenDisabled_ShouldRunOnCallerThread() throws Throwable {
+        ReflectionTestUtils.setField(shards, "enabled", false);
+
+        Thread caller = Thread.currentThread();
+
+        assertSame(caller, shards.execute(1L, Thread::currentThread));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.ExchangeRate;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.repository.ExchangeRateRepository;
+import com.example.bankcards.service.exchange.ExchangeRateService;
+import com.example.bankcards.service.exchange.ExchangeRateServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExchangeRateServiceImplTest {
+
+    @Mock
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @InjectMocks
+    private ExchangeRateServiceImpl exchangeRateService;
+
+    private ExchangeRate rate(Currency currency, String unitsPerBase) {
+        return ExchangeRate.builder().currency(currency).rate(new BigDecimal(unitsPerBase)).build();
+    }
+
+    @Test
+    void convert_ShouldUseCrossRateDerivedFromBaseRates() {
+        when(exchangeRateRepository.findAll())
+                .thenReturn(List.of(rate(Currency.USD, "1"), rate(Currency.EUR, "0.8"), rate(Currency.RUB, "100")));
+        exchangeRateService.refresh();
+
+        ExchangeRateService.Conversion toRubles = exchangeRateService.convert(Currency.EUR, Currency.RUB, 2000L);
+        ExchangeRateService.Conversion toDollars = exchangeRateService.convert(Currency.RUB, Currency.USD, 12345L);
+
+        assertEquals(Currency.RUB, toRubles.currency());
+        assertEquals(250000L, toRubles.amount());
+        assertEquals(new BigDecimal("125.00000000"), toRubles.rate());
+        assertEquals(123L, toDollars.amount());
+        assertEquals(new BigDecimal("0.01000000"), toDollars.rate());
+    }
+
+    @Test
+    void convert_ToSameCurrency_ShouldReturnAmountUnchanged() {
+        ExchangeRateService.Conversion conversion = exchangeRateService.convert(Currency.GBP, Currency.GBP, 700L);
+
+        assertEquals(700L, conversion.amount());
+        assertEquals(BigDecimal.ONE, conversion.rate());
+    }
+
+    @Test
+    void convert_WithoutRateForCurrency_ShouldThrowBadRequest() {
+        when(exchangeRateRepository.findAll()).thenReturn(List.of(rate(Currency.USD, "1"), rate(Currency.EUR, "0.9")));
+        exchangeRateService.refresh();
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> exchangeRateService.convert(Currency.USD, Currency.JPY, 100L));
+
+        assertEquals("No exchange rate available from USD to JPY", exception.getMessage());
+    }
+
+    @Test
+    void convert_WhenConvertedAmountRoundsToZero_ShouldThrowBadRequest() {
+        when(exchangeRateRepository.findAll()).thenReturn(List.of(rate(Currency.USD, "1"), rate(Currency.JPY, "150")));
+        exchangeRateService.refresh();
+
+        assertThrows(BadRequestException.class, () -> exchangeRateService.convert(Currency.JPY, Currency.USD, 50L));
+    }
+
+    @Test
+    void updateRate_ShouldSaveAndSwapInNewSnapshot() {
+        ExchangeRate euro = rate(Currency.EUR, "0.9");
+        when(exchangeRateRepository.findAll())
+                .thenReturn(List.of(rate(Currency.USD, "1"), euro))
+                .thenReturn(List.of(rate(Currency.USD, "1"), rate(Currency.EUR, "0.5")));
+        exchangeRateService.refresh();
+        when(exchangeRateRepository.findByCurrency(Currency.EUR)).thenReturn(Optional.of(euro));
+        when(exchangeRateRepository.saveAndFlush(euro)).thenReturn(euro);
+
+        exchangeRateService.updateRate(Currency.EUR, new BigDecimal("0.5"));
+
+        assertEquals(new BigDecimal("0.50000000"), euro.getRate());
+        assertNotNull(euro.getUpdatedAt());
+        assertEquals(200L, exchangeRateService.convert(Currency.USD, Currency.EUR, 400L).amount());
+        verify(exchangeRateRepository, times(2)).findAll();
+    }
+
+    @Test
+    void updateRate_WithNonPositiveRate_ShouldThrowBadRequest() {
+        assertThrows(BadRequestException.class,
+                () -> exchangeRateService.updateRate(Currency.EUR, BigDecimal.ZERO));
+        verify(exchangeRateRepository, never()).saveAndFlush(any());
+    }
+}
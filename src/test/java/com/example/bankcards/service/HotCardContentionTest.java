@@ -0,0 +1,125 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.card.CardBalanceShardService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Slf4j
+@SpringBootTest
+class HotCardContentionTest {
+
+    private static final int THREADS = 8;
+    private static final int CREDITS_PER_THREAD = 100;
+    private static final long AMOUNT = 5L;
+
+    @Autowired
+    private CardBalanceShardService cardBalanceShardService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void credits_ShouldConserveFundsAndReportThroughputPerShardCount() throws Exception {
+        List<String> report = new ArrayList<>();
+        for (int shardCount : List.of(1, 4, 16)) {
+            BankCard card = createCard();
+            cardBalanceShardService.enableShards(card.getId(), shardCount);
+            BankCard sharded = cardRepository.findById(card.getId()).orElseThrow();
+
+            ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger credited = new AtomicInteger();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int k = 0; k < CREDITS_PER_THREAD; k++) {
+                        transactionTemplate.executeWithoutResult(
+                                status -> cardBalanceShardService.credit(sharded, AMOUNT));
+                        credited.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+
+            long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            long elapsed = System.nanoTime() - startedAt;
+            pool.shutdown();
+
+            assertEquals(credited.get() * AMOUNT, cardBalanceShardService.getShardedBalance(card.getId()));
+            report.add(String.format("shards=%-3d credits=%d throughput=%.1f tx/s",
+                    shardCount, credited.get(), credited.get() / (elapsed / 1_000_000_000.0)));
+        }
+
+        report.forEach(line -> log.info("{}", line));
+    }
+
+    @Test
+    void drain_AfterCreditInSameTransaction_ShouldKeepTheCredit() {
+        BankCard card = createCard();
+        cardBalanceShardService.enableShards(card.getId(), 1);
+        BankCard sharded = cardRepository.findById(card.getId()).orElseThrow();
+        transactionTemplate.executeWithoutResult(status -> cardBalanceShardService.credit(sharded, 100L));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            BankCard managed = cardRepository.findById(card.getId()).orElseThrow();
+            cardBalanceShardService.drain(managed, 30L);
+            cardBalanceShardService.credit(managed, 50L);
+            cardBalanceShardService.drain(managed, 30L);
+        });
+
+        assertEquals(90L, cardBalanceShardService.getShardedBalance(card.getId()));
+        assertEquals(60L, cardRepository.findBalanceById(card.getId()).orElseThrow());
+    }
+
+    private BankCard createCard() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User owner = userRepository.save(User.builder()
+                .username("merchant-" + suffix)
+                .password("password")
+                .email("merchant-" + suffix + "@bank.com")
+                .role(Role.ROLE_USER)
+                .build());
+        return cardRepository.save(BankCard.builder()
+                .cardNumber("H-" + suffix)
+                .cardHolderName(owner.getUsername().toUpperCase())
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .currency(Currency.RUB)
+                .user(owner)
+                .build());
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferDto;
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.entity.IdempotencyKey;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.repository.IdempotencyKeyRepository;
+import com.example.bankcards.service.idempotency.IdempotencyServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceImplTest {
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private IdempotencyServiceImpl idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyServiceImpl(
+                idempotencyKeyRepository, new ObjectMapper().findAndRegisterModules(), 100, 24);
+    }
+
+    private TransferRequest createTransferRequest(Long amount) {
+        return TransferRequest.builder()
+                .fromCardId(1L)
+                .toCardId(2L)
+                .amount(amount)
+                .currency(Currency.RUB)
+                .build();
+    }
+
+    private TransferDto createTransferDto() {
+        return TransferDto.builder()
+                .id(5L)
+                .fromCardId(1L)
+                .toCardId(2L)
+                .amount(100L)
+                .currency(Currency.RUB)
+                .status(TransferStatus.COMPLETED)
+                .transferDate(OffsetDateTime.parse("2024-01-01T10:00:00Z"))
+                .build();
+    }
+
+    @Test
+    void findTransfer_WhenKeyUnknown_ShouldReturnEmpty() {
+        when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(1L, "key")).thenReturn(Optional.empty());
+
+        assertTrue(idempotencyService.findTransfer(1L, "key", createTransferRequest(100L)).isEmpty());
+    }
+
+    @Test
+    void saveTransfer_ThenFindTransfer_ShouldServeFromCacheWithoutDatabase() {
+        TransferRequest request = createTransferRequest(100L);
+        when(idempotencyKeyRepository.storeResponse(eq(1L), eq("key"), any())).thenReturn(1);
+
+        idempotencyService.saveTransfer(1L, "key", request, createTransferDto());
+        Optional<TransferDto> result = idempotencyService.findTransfer(1L, "key", request);
+
+        assertTrue(result.isPresent());
+        assertEquals(5L, result.get().getId());
+        verify(idempotencyKeyRepository, never()).findByUserIdAndIdempotencyKey(any(), any());
+    }
+
+    @Test
+    void findTransfer_WhenOnlyPersisted_ShouldRestoreStoredResponse() {
+        TransferRequest request = createTransferRequest(100L);
+        IdempotencyServiceImpl writer = new IdempotencyServiceImpl(
+                idempotencyKeyRepository, new ObjectMapper().findAndRegisterModules(), 100, 24);
+        when(idempotencyKeyRepository.storeResponse(eq(1L), eq("key"), any())).thenReturn(1);
+        writer.reserveKey(1L, "key", request);
+        writer.saveTransfer(1L, "key", request, createTransferDto());
+        ArgumentCaptor<IdempotencyKey> saved = ArgumentCaptor.forClass(IdempotencyKey.class);
+        ArgumentCaptor<String> response = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyKeyRepository).saveAndFlush(saved.capture());
+        verify(idempotencyKeyRepository).storeResponse(eq(1L), eq("key"), response.capture());
+        assertNull(saved.getValue().getResponse());
+        saved.getValue().setResponse(response.getValue());
+
+        when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(1L, "key"))
+                .thenReturn(Optional.of(saved.getValue()));
+
+        Optional<TransferDto> result = idempotencyService.findTransfer(1L, "key", request);
+
+        assertTrue(result.isPresent());
+        assertEquals(5L, result.get().getId());
+        assertEquals(TransferStatus.COMPLETED, result.get().getStatus());
+        assertEquals(OffsetDateTime.parse("2024-01-01T10:00:00Z").toInstant(),
+                result.get().getTransferDate().toInstant());
+    }
+
+    @Test
+    void saveTransfer_WhenKeyNotReserved_ShouldThrowException() {
+        when(idempotencyKeyRepository.storeResponse(eq(1L), eq("key"), any())).thenReturn(0);
+
+        assertThrows(IllegalStateException.class,
+                () -> idempotencyService.saveTransfer(1L, "key", createTransferRequest(100L), createTransferDto()));
+    }
+
+    @Test
+    void findTransfer_WhenKeyReusedForDifferentRequest_ShouldThrowException() {
+        when(idempotencyKeyRepository.storeResponse(eq(1L), eq("key"), any())).thenReturn(1);
+        idempotencyService.saveTransfer(1L, "key", createTransferRequest(100L), createTransferDto());
+
+        assertThrows(BadRequestException.class,
+                () -> idempotencyService.findTransfer(1L, "key", createTransferRequest(200L)));
+    }
+
+    @Test
+    void findTransfer_WhenKeyBlank_ShouldThrowException() {
+        assertThrows(BadRequestException.class,
+                () -> idempotencyService.findTransfer(1L, " ", createTransferRequest(100L)));
+    }
+}
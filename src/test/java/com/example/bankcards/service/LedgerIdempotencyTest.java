@@ -0,0 +1,116 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferDto;
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.ledger.BalanceLedger;
+import com.example.bankcards.service.transfer.TransferService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.transfer.strategy=LEDGER",
+        "app.ledger.journal-dir=target/ledger-recovery-test/${random.uuid}"
+})
+class LedgerIdempotencyTest {
+
+    private static final int THREADS = 8;
+    private static final long INITIAL_BALANCE = 10_000L;
+    private static final long AMOUNT = 100L;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private BalanceLedger balanceLedger;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void createTransfer_WithConcurrentDuplicateKey_ShouldApplyLedgerPostingsOnce() throws Exception {
+        User owner = createUser();
+        BankCard from = createCard(owner);
+        BankCard to = createCard(owner);
+        TransferRequest request = TransferRequest.builder()
+                .fromCardId(from.getId())
+                .toCardId(to.getId())
+                .amount(AMOUNT)
+                .currency(Currency.RUB)
+                .build();
+        String idempotencyKey = "ledger-" + UUID.randomUUID();
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<TransferDto>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(pool.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                        owner.getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+                try {
+                    start.await();
+                    return transferService.createTransfer(request, idempotencyKey);
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            }));
+        }
+        start.countDown();
+        List<Long> transferIds = new ArrayList<>();
+        for (Future<TransferDto> future : futures) {
+            transferIds.add(future.get(1, TimeUnit.MINUTES).getId());
+        }
+        pool.shutdown();
+
+        assertEquals(1, transferIds.stream().distinct().count(), "duplicates created transfers " + transferIds);
+        assertEquals(INITIAL_BALANCE - AMOUNT, balanceLedger.balanceOf(from.getId(), INITIAL_BALANCE));
+        assertEquals(INITIAL_BALANCE + AMOUNT, balanceLedger.balanceOf(to.getId(), INITIAL_BALANCE));
+    }
+
+    private User createUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(User.builder()
+                .username("ledger-" + suffix)
+                .password("password")
+                .email("ledger-" + suffix + "@bank.com")
+                .role(Role.ROLE_USER)
+                .build());
+    }
+
+    private BankCard createCard(User user) {
+        return cardRepository.save(BankCard.builder()
+                .cardNumber("L-" + UUID.randomUUID().toString().substring(0, 8))
+                .cardHolderName(user.getUsername().toUpperCase())
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .currency(Currency.RUB)
+                .balance(INITIAL_BALANCE)
+                .user(user)
+                .build());
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.ledger.BalanceLedger;
+import com.example.bankcards.service.ledger.LedgerEntry;
+import com.example.bankcards.service.ledger.LedgerFlushWriter;
+import com.example.bankcards.service.ledger.MappedTransferJournal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.transfer.strategy=LEDGER",
+        "app.ledger.journal-dir=target/ledger-recovery-test/${random.uuid}"
+})
+class LedgerRecoveryTest {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+    private static final long INITIAL_BALANCE = 10_000L;
+    private static final long AMOUNT = 100L;
+    private static final int ACKNOWLEDGED = 10;
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private LedgerFlushWriter flushWriter;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private BankCard from;
+    private BankCard to;
+    private long baseSequence;
+    private long firstTransferId;
+
+    @BeforeEach
+    void setUp() {
+        User owner = createUser();
+        from = createCard(owner);
+        to = createCard(owner);
+        baseSequence = transferRepository.findMaxJournalSequence() + 1_000L;
+        firstTransferId = transferRepository.nextIdBlock() - Transfer.ID_ALLOCATION_SIZE + 1;
+    }
+
+    @Test
+    void recover_AfterWriterKilledBetweenCommitAndCheckpoint_ShouldApplyEveryAcknowledgedTransferExactlyOnce()
+            throws IOException {
+        MappedTransferJournal crashed = new MappedTransferJournal(directory, SEGMENT_SIZE);
+        for (int i = 1; i <= ACKNOWLEDGED; i++) {
+            crashed.append(entry(i));
+        }
+        crashed.awaitDurable(sequence(ACKNOWLEDGED));
+
+        flushWriter.persist(entries(1, 4));
+        crashed.checkpoint(sequence(4));
+        flushWriter.persist(entries(5, 7));
+        crashed.append(entry(ACKNOWLEDGED + 1));
+        writeTornRecord(segments().get(0), (ACKNOWLEDGED + 1L) * recordSize());
+
+        MappedTransferJournal recovered = new MappedTransferJournal(directory, SEGMENT_SIZE);
+        try {
+            new BalanceLedger(cardRepository, transferRepository, recovered, flushWriter, 4, 100, 2, false).recover();
+
+            Map<Long, Long> rows = persistedRows();
+            assertTrue(rows.values().stream().allMatch(count -> count == 1), "duplicated transfers: " + rows);
+            assertTrue(rows.keySet().containsAll(LongStream.rangeClosed(1, ACKNOWLEDGED)
+                    .mapToObj(this::sequence).toList()), "lost acknowledged transfers: " + rows.keySet());
+            assertBalances(rows.size());
+            assertEquals(rows.size(), recovered.lastSequence() - baseSequence);
+
+            new BalanceLedger(cardRepository, transferRepository, recovered, flushWriter, 4, 100, 2, false).recover();
+
+            assertEquals(rows, persistedRows());
+            assertBalances(rows.size());
+        } finally {
+            recovered.close();
+        }
+    }
+
+    private void assertBalances(long applied) {
+        assertEquals(INITIAL_BALANCE - applied * AMOUNT, cardRepository.findBalanceById(from.getId()).orElseThrow());
+        assertEquals(INITIAL_BALANCE + applied * AMOUNT, cardRepository.findBalanceById(to.getId()).orElseThrow());
+    }
+
+    private Map<Long, Long> persistedRows() {
+        return jdbcTemplate.queryForList("SELECT journal_sequence FROM transfers WHERE journal_sequence > ?",
+                        Long.class, baseSequence).stream()
+                .collect(Collectors.groupingBy(sequence -> sequence, Collectors.counting()));
+    }
+
+    private List<LedgerEntry> entries(int first, int last) {
+        return LongStream.rangeClosed(first, last).mapToObj(i -> entry((int) i)).toList();
+    }
+
+    private LedgerEntry entry(int i) {
+        return new LedgerEntry(sequence(i), firstTransferId + i - 1, System.currentTimeMillis(),
+                from.getId(), to.getId(), AMOUNT, Currency.RUB, null);
+    }
+
+    private long sequence(long i) {
+        return baseSequence + i;
+    }
+
+    private int recordSize() {
+        return 2 * Integer.BYTES + entry(1).encodedSize();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+
+    private void writeTornRecord(Path segment, long offset) throws IOException {
+        ByteBuffer torn = ByteBuffer.allocate(2 * Integer.BYTES + 10);
+        torn.putInt(entry(1).encodedSize()).putInt(0xCAFEBABE).put(new byte[]{0, 0, 0, 0, 0, 0, 0, 12, 1, 2});
+        torn.flip();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(torn, offset);
+        }
+    }
+
+    private User createUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(User.builder()
+                .username("ledger-" + suffix)
+                .password("password")
+                .email("ledger-" + suffix + "@bank.com")
+                .role(Role.ROLE_USER)
+                .build());
+    }
+
+    private BankCard createCard(User user) {
+        return cardRepository.save(BankCard.builder()
+                .cardNumber("L-" + UUID.randomUUID().toString().substring(0, 8))
+                .cardHolderName(user.getUsername().toUpperCase())
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .currency(Currency.RUB)
+                .balance(INITIAL_BALANCE)
+                .user(user)
+                .build());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.service.reconciliation.LongLongHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongLongHashMapTest {
+
+    @Test
+    void addTo_ShouldMatchBoxedMapAcrossResizes() {
+        LongLongHashMap map = new LongLongHashMap(4);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextInt(5_000) - 100L;
+            long delta = random.nextInt(1_000) - 500L;
+            map.addTo(key, delta);
+            expected.merge(key, delta, Long::sum);
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+        assertEquals(0L, map.get(1_000_000L));
+    }
+
+    @Test
+    void addAll_ShouldSumOverlappingKeys() {
+        LongLongHashMap left = new LongLongHashMap();
+        left.addTo(1L, 100L);
+        left.addTo(2L, -50L);
+        LongLongHashMap right = new LongLongHashMap();
+        right.addTo(2L, 50L);
+        right.addTo(3L, 7L);
+
+        left.addAll(right);
+
+        Map<Long, Long> entries = new HashMap<>();
+        left.forEach(entries::put);
+        assertEquals(Map.of(1L, 100L, 2L, 0L, 3L, 7L), entries);
+    }
+
+    @Test
+    void addTo_WithReservedKey_ShouldThrowException() {
+        LongLongHashMap map = new LongLongHashMap();
+
+        assertThrows(IllegalArgumentException.class, () -> map.addTo(Long.MIN_VALUE, 1L));
+    }
+}
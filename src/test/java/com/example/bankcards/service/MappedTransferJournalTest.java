@@ -0,0 +1,141 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.service.ledger.LedgerEntry;
+import com.example.bankcards.service.ledger.MappedTransferJournal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedTransferJournalTest {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+    private static final int RECORD_SIZE = 2 * Integer.BYTES + entry(1L).encodedSize();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replay_AfterCrashWithTornTail_ShouldReturnEveryEntryAfterTheCheckpoint() throws IOException {
+        MappedTransferJournal journal = new MappedTransferJournal(directory, SEGMENT_SIZE);
+        for (long sequence = 1; sequence <= 10; sequence++) {
+            journal.append(entry(sequence));
+        }
+        journal.awaitDurable(10L);
+        journal.checkpoint(4L);
+        writeTornRecord(segments().get(0), 10L * RECORD_SIZE);
+
+        MappedTransferJournal recovered = new MappedTransferJournal(directory, SEGMENT_SIZE);
+        List<Long> replayed = new ArrayList<>();
+        recovered.replay(entry -> replayed.add(entry.sequence()));
+
+        assertEquals(List.of(5L, 6L, 7L, 8L, 9L, 10L), replayed);
+        assertEquals(10L, recovered.lastSequence());
+
+        recovered.append(entry(11L));
+        recovered.awaitDurable(11L);
+        recovered.close();
+
+        MappedTransferJournal reopened = new MappedTransferJournal(directory, SEGMENT_SIZE);
+        replayed.clear();
+        reopened.replay(entry -> replayed.add(entry.sequence()));
+        reopened.close();
+
+        assertEquals(List.of(5L, 6L, 7L, 8L, 9L, 10L, 11L), replayed);
+    }
+
+    @Test
+    void checkpoint_ShouldDeleteFullyPersistedSegments() throws IOException {
+        MappedTransferJournal journal = new MappedTransferJournal(directory, SEGMENT_SIZE);
+        int records = 3 * (SEGMENT_SIZE / RECORD_SIZE);
+        for (long sequence = 1; sequence <= records; sequence++) {
+            journal.append(entry(sequence));
+        }
+        journal.awaitDurable(records);
+        assertTrue(segments().size() >= 3);
+
+        journal.checkpoint(records - 1);
+        journal.close();
+
+        assertEquals(1, segments().size());
+        MappedTransferJournal reopened = new MappedTransferJournal(directory, SEGMENT_SIZE);
+        List<Long> replayed = new ArrayList<>();
+        reopened.replay(entry -> replayed.add(entry.sequence()));
+        reopened.close();
+
+        assertEquals(List.of((long) records), replayed);
+    }
+
+    @Test
+    void append_FromConcurrentWriters_ShouldGroupCommitEveryEntry() throws Exception {
+        MappedTransferJournal journal = new MappedTransferJournal(directory, SEGMENT_SIZE);
+        Object sequenceLock = new Object();
+        long[] lastSequence = {0L};
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int thread = 0; thread < 8; thread++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    LedgerEntry entry;
+                    synchronized (sequenceLock) {
+                        entry = entry(++lastSequence[0]);
+                        journal.append(entry);
+                    }
+                    journal.awaitDurable(entry.sequence());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+        journal.close();
+
+        MappedTransferJournal reopened = new MappedTransferJournal(directory, SEGMENT_SIZE);
+        List<Long> replayed = new ArrayList<>();
+        reopened.replay(entry -> replayed.add(entry.sequence()));
+        reopened.close();
+
+        assertEquals(1600, replayed.size());
+        for (int i = 0; i < replayed.size(); i++) {
+            assertEquals(i + 1L, replayed.get(i));
+        }
+    }
+
+    private static LedgerEntry entry(long sequence) {
+        return new LedgerEntry(sequence, 1_000L + sequence, 1_700_000_000_000L + sequence,
+                1L, 2L, 100L, Currency.RUB, null);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+
+    private void writeTornRecord(Path segment, long offset) throws IOException {
+        ByteBuffer torn = ByteBuffer.allocate(2 * Integer.BYTES + 10);
+        torn.putInt(entry(11L).encodedSize()).putInt(0xCAFEBABE).put(new byte[]{0, 0, 0, 0, 0, 0, 0, 11, 1, 2});
+        torn.flip();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(torn, offset);
+            channel.force(true);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.RollupBackfillResultDto;
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.statistics.OutgoingRollupService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.rollup.backfill-batch-size=1")
+class OutgoingRollupBackfillTest {
+
+    @Autowired
+    private OutgoingRollupService rollupService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void backfill_ThenIncrementalRecord_ShouldMatchRawTransferTotals() {
+        BankCard payer = createCard();
+        BankCard payee = createCard();
+        Long userId = payer.getUser().getId();
+        saveTransfer(payer, payee, 100L, Currency.RUB, TransferStatus.COMPLETED);
+        saveTransfer(payer, payee, 40L, Currency.USD, TransferStatus.COMPLETED);
+        saveTransfer(payer, payee, 999L, Currency.RUB, TransferStatus.PENDING);
+        saveTransfer(payee, payer, 7L, Currency.RUB, TransferStatus.COMPLETED);
+        OffsetDateTime start = OffsetDateTime.now().minusDays(3);
+        OffsetDateTime end = OffsetDateTime.now().plusDays(1);
+
+        assertEquals(0L, rollupService.getTotalOutgoing(userId, start, end));
+
+        RollupBackfillResultDto result = rollupService.backfill();
+
+        assertTrue(result.getUsersProcessed() >= 2);
+        assertTrue(result.getRowsWritten() >= 3);
+        assertEquals(140L, rollupService.getTotalOutgoing(userId, start, end));
+        assertEquals(7L, rollupService.getTotalOutgoing(payee.getUser().getId(), start, end));
+
+        transactionTemplate.executeWithoutResult(status -> rollupService.record(
+                List.of(saveTransfer(payer, payee, 60L, Currency.RUB, TransferStatus.COMPLETED))));
+
+        assertEquals(200L, rollupService.getTotalOutgoing(userId, start, end));
+        assertEquals(transferRepository.sumCompletedOutgoingByUserIdFromTo(userId, start, end),
+                rollupService.getTotalOutgoing(userId, start, end));
+    }
+
+    private Transfer saveTransfer(BankCard from, BankCard to, long amount, Currency currency, TransferStatus status) {
+        return transferRepository.save(Transfer.builder()
+                .fromCard(from)
+                .toCard(to)
+                .amount(amount)
+                .currency(currency)
+                .status(status)
+                .build());
+    }
+
+    private BankCard createCard() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User owner = userRepository.save(User.builder()
+                .username("rollup-" + suffix)
+                .password("password")
+                .email("rollup-" + suffix + "@bank.com")
+                .role(Role.ROLE_USER)
+                .build());
+        return cardRepository.save(BankCard.builder()
+                .cardNumber("O-" + suffix)
+                .cardHolderName(owner.getUsername().toUpperCase())
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .currency(Currency.RUB)
+                .balance(1000L)
+                .user(owner)
+                .build());
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserDailyOutgoingRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.statistics.OutgoingRollupServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutgoingRollupServiceImplTest {
+
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+
+    @Mock
+    private UserDailyOutgoingRepository rollupRepository;
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private OutgoingRollupServiceImpl rollupService;
+
+    private OffsetDateTime at(LocalDate date, LocalTime time) {
+        return date.atTime(time).atZone(ZONE).toOffsetDateTime();
+    }
+
+    private OffsetDateTime startOf(LocalDate date) {
+        return date.atStartOfDay(ZONE).toOffsetDateTime();
+    }
+
+    private Transfer createTransfer(Long userId, long amount, Currency currency, OffsetDateTime transferDate) {
+        User user = new User();
+        user.setId(userId);
+        BankCard fromCard = new BankCard();
+        fromCard.setUser(user);
+        return Transfer.builder()
+                .fromCard(fromCard)
+                .amount(amount)
+                .currency(currency)
+                .transferDate(transferDate)
+                .build();
+    }
+
+    @Test
+    void getTotalOutgoing_AcrossSeveralDays_ShouldReadRollupForFullDaysAndRawTransfersForPartialEdges() {
+        LocalDate day = LocalDate.of(2024, 3, 10);
+        OffsetDateTime start = at(day, LocalTime.of(15, 30));
+        OffsetDateTime end = at(day.plusDays(5), LocalTime.of(9, 0));
+
+        when(transferRepository.sumCompletedOutgoingByUserIdFromTo(1L, start, startOf(day.plusDays(1)))).thenReturn(100L);
+        when(rollupRepository.sumTotalByUserIdBetween(1L, day.plusDays(1), day.plusDays(4))).thenReturn(4000L);
+        when(transferRepository.sumCompletedOutgoingByUserIdFromTo(1L, startOf(day.plusDays(5)), end.plusNanos(1))).thenReturn(20L);
+
+        assertEquals(4120L, rollupService.getTotalOutgoing(1L, start, end));
+    }
+
+    @Test
+    void getTotalOutgoing_StartingAtMidnight_ShouldNotScanFirstDayRaw() {
+        LocalDate day = LocalDate.of(2024, 3, 10);
+        OffsetDateTime start = startOf(day);
+        OffsetDateTime end = at(day.plusDays(2), LocalTime.of(12, 0));
+
+        when(rollupRepository.sumTotalByUserIdBetween(1L, day, day.plusDays(1))).thenReturn(700L);
+        when(transferRepository.sumCompletedOutgoingByUserIdFromTo(1L, startOf(day.plusDays(2)), end.plusNanos(1))).thenReturn(30L);
+
+        assertEquals(730L, rollupService.getTotalOutgoing(1L, start, end));
+        verify(transferRepository, times(1)).sumCompletedOutgoingByUserIdFromTo(anyLong(), any(), any());
+    }
+
+    @Test
+    void getTotalOutgoing_WithinOneDay_ShouldOnlyScanRawTransfers() {
+        LocalDate day = LocalDate.of(2024, 3, 10);
+        OffsetDateTime start = at(day, LocalTime.of(8, 0));
+        OffsetDateTime end = at(day, LocalTime.of(18, 0));
+
+        when(transferRepository.sumCompletedOutgoingByUserIdFromTo(1L, start, end.plusNanos(1))).thenReturn(500L);
+
+        assertEquals(500L, rollupService.getTotalOutgoing(1L, start, end));
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    void getTotalOutgoing_WithReversedPeriod_ShouldReturnZero() {
+        OffsetDateTime now = OffsetDateTime.now();
+
+        assertEquals(0L, rollupService.getTotalOutgoing(1L, now, now.minusDays(1)));
+        verifyNoInteractions(rollupRepository, transferRepository);
+    }
+
+    @Test
+    void record_ShouldAggregatePerUserCurrencyAndDayAndUpsertRows() {
+        LocalDate day = LocalDate.of(2024, 3, 10);
+        List<Transfer> transfers = List.of(
+                createTransfer(2L, 100L, Currency.RUB, at(day, LocalTime.of(10, 0))),
+                createTransfer(2L, 50L, Currency.RUB, at(day, LocalTime.of(23, 0))),
+                createTransfer(1L, 70L, Currency.USD, at(day.plusDays(1), LocalTime.of(1, 0))));
+
+        rollupService.record(transfers);
+
+        verify(rollupRepository).addOutgoing(2L, Currency.RUB, day, 150L, 2L);
+        verify(rollupRepository).addOutgoing(1L, Currency.USD, day.plusDays(1), 70L, 1L);
+        verifyNoMoreInteractions(rollupRepository);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void record_ShouldBucketByConfiguredZone() {
+        ReflectionTestUtils.setField(rollupService, "zone", ZoneId.of("Asia/Tokyo"));
+        LocalDate day = LocalDate.of(2024, 3, 10);
+
+        rollupService.record(List.of(createTransfer(1L, 40L, Currency.RUB, at(day, LocalTime.of(20, 0)))));
+
+        verify(rollupRepository).addOutgoing(1L, Currency.RUB, day.plusDays(1), 40L, 1L);
+    }
+
+    @Test
+    void record_WithNoTransfers_ShouldNotTouchRollups() {
+        rollupService.record(List.of());
+
+        verifyNoInteractions(userRepository, rollupRepository);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.sweeper.PendingTransferSweeper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.pending-sweeper.enabled=true",
+        "app.pending-sweeper.chunk-size=2",
+        "app.pending-sweeper.max-age-minutes=30",
+        "app.pending-sweeper.interval-ms=3600000"
+})
+class PendingTransferSweeperTest {
+
+    @Autowired
+    private PendingTransferSweeper sweeper;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void sweep_ShouldCancelOnlyStalePendingTransfersAcrossChunks() {
+        BankCard payer = createCard();
+        BankCard payee = createCard();
+        List<Long> stale = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            stale.add(backdate(saveTransfer(payer, payee, TransferStatus.PENDING), 60 + i));
+        }
+        Long fresh = saveTransfer(payer, payee, TransferStatus.PENDING);
+        Long completed = backdate(saveTransfer(payer, payee, TransferStatus.COMPLETED), 90);
+        long balanceBefore = cardRepository.findById(payer.getId()).orElseThrow().getBalance();
+
+        int swept = sweeper.sweep();
+
+        assertTrue(swept >= 5);
+        stale.forEach(id -> assertEquals(TransferStatus.CANCELLED, statusOf(id)));
+        assertEquals(TransferStatus.PENDING, statusOf(fresh));
+        assertEquals(TransferStatus.COMPLETED, statusOf(completed));
+        assertEquals(balanceBefore, cardRepository.findById(payer.getId()).orElseThrow().getBalance());
+        assertEquals(0, sweeper.sweep());
+
+        DistributionSummary rows = meterRegistry.get("transfer.pending.sweep.rows").tag("status", "CANCELLED").summary();
+        assertEquals(2, rows.count());
+        assertEquals(swept, rows.totalAmount());
+    }
+
+    private TransferStatus statusOf(Long transferId) {
+        return transferRepository.findById(transferId).orElseThrow().getStatus();
+    }
+
+    private Long backdate(Long transferId, int minutesAgo) {
+        jdbcTemplate.update("UPDATE transfers SET transfer_date = ? WHERE id = ?",
+                OffsetDateTime.now().minusMinutes(minutesAgo), transferId);
+        return transferId;
+    }
+
+    private Long saveTransfer(BankCard from, BankCard to, TransferStatus status) {
+        return transferRepository.save(Transfer.builder()
+                .fromCard(from)
+                .toCard(to)
+                .amount(100L)
+                .currency(Currency.RUB)
+                .status(status)
+                .build()).getId();
+    }
+
+    private BankCard createCard() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User owner = userRepository.save(User.builder()
+                .username("sweeper-" + suffix)
+                .password("password")
+                .email("sweeper-" + suffix + "@bank.com")
+                .role(Role.ROLE_USER)
+                .build());
+        return cardRepository.save(BankCard.builder()
+                .cardNumber("P-" + suffix)
+                .cardHolderName(owner.getUsername().toUpperCase())
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .currency(Currency.RUB)
+                .balance(1000L)
+                .user(owner)
+                .build());
+    }
+}
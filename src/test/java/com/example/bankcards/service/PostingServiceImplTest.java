@@ -0,0 +1,174 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.CardBalanceSnapshot;
+import com.example.bankcards.entity.LedgerPosting;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.PostingDirection;
+import com.example.bankcards.repository.CardBalanceSnapshotRepository;
+import com.example.bankcards.repository.LedgerPostingRepository;
+import com.example.bankcards.service.posting.PostingServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostingServiceImplTest {
+
+    @Mock
+    private LedgerPostingRepository postingRepository;
+
+    @Mock
+    private CardBalanceSnapshotRepository snapshotRepository;
+
+    @InjectMocks
+    private PostingServiceImpl postingService;
+
+    private Transfer createTransfer(Long id, Long fromCardId, Long toCardId, long amount) {
+        BankCard fromCard = new BankCard();
+        fromCard.setId(fromCardId);
+        BankCard toCard = new BankCard();
+        toCard.setId(toCardId);
+        return Transfer.builder()
+                .id(id)
+                .fromCard(fromCard)
+                .toCard(toCard)
+                .amount(amount)
+                .currency(Currency.RUB)
+                .creditedAmount(amount)
+                .creditedCurrency(Currency.RUB)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void post_ShouldWriteBalancedDebitAndCreditForEveryTransfer() {
+        postingService.post(List.of(createTransfer(10L, 1L, 2L, 300L), createTransfer(11L, 2L, 3L, 50L)));
+
+        ArgumentCaptor<List<LedgerPosting>> captor = ArgumentCaptor.forClass(List.class);
+        verify(postingRepository).saveAll(captor.capture());
+        List<LedgerPosting> postings = captor.getValue();
+
+        assertEquals(4, postings.size());
+        assertEquals(0L, postings.stream().mapToLong(LedgerPosting::getAmount).sum());
+        LedgerPosting debit = postings.get(0);
+        assertEquals(PostingDirection.DEBIT, debit.getDirection());
+        assertEquals(1L, debit.getCardId());
+        assertEquals(-300L, debit.getAmount());
+        assertEquals(10L, debit.getTransferId());
+        LedgerPosting credit = postings.get(1);
+        assertEquals(PostingDirection.CREDIT, credit.getDirection());
+        assertEquals(2L, credit.getCardId());
+        assertEquals(300L, credit.getAmount());
+        Map<Long, Long> net = postings.stream()
+                .collect(Collectors.groupingBy(LedgerPosting::getCardId, Collectors.summingLong(LedgerPosting::getAmount)));
+        assertEquals(Map.of(1L, -300L, 2L, 250L, 3L, 50L), net);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void post_CrossCurrencyTransfer_ShouldCreditConvertedAmountInDestinationCurrency() {
+        Transfer transfer = createTransfer(10L, 1L, 2L, 9250L);
+        transfer.setCreditedAmount(100L);
+        transfer.setCreditedCurrency(Currency.USD);
+
+        postingService.post(List.of(transfer));
+
+        ArgumentCaptor<List<LedgerPosting>> captor = ArgumentCaptor.forClass(List.class);
+        verify(postingRepository).saveAll(captor.capture());
+        LedgerPosting debit = captor.getValue().get(0);
+        assertEquals(-9250L, debit.getAmount());
+        assertEquals(Currency.RUB, debit.getCurrency());
+        LedgerPosting credit = captor.getValue().get(1);
+        assertEquals(100L, credit.getAmount());
+        assertEquals(Currency.USD, credit.getCurrency());
+    }
+
+    @Test
+    void post_WithNoTransfers_ShouldNotTouchRepository() {
+        postingService.post(List.of());
+
+        verifyNoInteractions(postingRepository);
+    }
+
+    @Test
+    void getPostedBalance_ShouldAddPostingsNotCoveredByLatestSnapshotRun() {
+        OffsetDateTime asOf = OffsetDateTime.now().minusMinutes(5);
+        when(snapshotRepository.findFirstByCardIdOrderByIdDesc(1L)).thenReturn(Optional.of(
+                CardBalanceSnapshot.builder().cardId(1L).balance(1000L).asOf(asOf).snapshotRun(7L).build()));
+        when(postingRepository.sumAmountAfterRun(1L, 7L)).thenReturn(-250L);
+
+        assertEquals(750L, postingService.getPostedBalance(1L));
+        verify(postingRepository, never()).sumAmountByCardId(any());
+    }
+
+    @Test
+    void getPostedBalance_WithoutSnapshot_ShouldSumAllPostings() {
+        when(snapshotRepository.findFirstByCardIdOrderByIdDesc(1L)).thenReturn(Optional.empty());
+        when(postingRepository.sumAmountByCardId(1L)).thenReturn(400L);
+
+        assertEquals(400L, postingService.getPostedBalance(1L));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void takeSnapshots_ShouldRollLatestSnapshotForwardByPostingsMarkedInThisRun() {
+        OffsetDateTime previousAsOf = OffsetDateTime.now().minusMinutes(10);
+        when(postingRepository.nextSnapshotRun()).thenReturn(8L);
+        when(postingRepository.markUnsnapshotted(8L)).thenReturn(3);
+        when(postingRepository.findDeltasBySnapshotRun(8L))
+                .thenReturn(List.of(new Delta(1L, -300L), new Delta(2L, 300L)));
+        when(snapshotRepository.findLatestByCardIds(List.of(1L, 2L)))
+                .thenReturn(List.of(CardBalanceSnapshot.builder().cardId(1L).balance(1000L).asOf(previousAsOf).build()));
+
+        int taken = postingService.takeSnapshots();
+
+        ArgumentCaptor<List<CardBalanceSnapshot>> captor = ArgumentCaptor.forClass(List.class);
+        verify(snapshotRepository).saveAll(captor.capture());
+        List<CardBalanceSnapshot> snapshots = captor.getValue();
+        assertEquals(2, taken);
+        assertEquals(700L, snapshots.get(0).getBalance());
+        assertEquals(300L, snapshots.get(1).getBalance());
+        assertEquals(8L, snapshots.get(0).getSnapshotRun());
+        assertEquals(8L, snapshots.get(1).getSnapshotRun());
+        verify(snapshotRepository).deleteSupersededBefore(any());
+    }
+
+    @Test
+    void takeSnapshots_WithNothingPosted_ShouldOnlyPrune() {
+        when(postingRepository.nextSnapshotRun()).thenReturn(8L);
+        when(postingRepository.markUnsnapshotted(8L)).thenReturn(0);
+
+        assertEquals(0, postingService.takeSnapshots());
+        verify(postingRepository, never()).findDeltasBySnapshotRun(any());
+        verify(snapshotRepository, never()).findLatestByCardIds(anyList());
+        verify(snapshotRepository, never()).saveAll(anyList());
+    }
+
+    private record Delta(Long cardId, Long delta) implements LedgerPostingRepository.CardDelta {
+        @Override
+        public Long getCardId() {
+            return cardId;
+        }
+
+        @Override
+        public Long getDelta() {
+            return delta;
+        }
+    }
+}
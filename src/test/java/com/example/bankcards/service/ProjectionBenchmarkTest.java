@@ -0,0 +1,186 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.TransferDto;
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.mapper.TransferMapper;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Slf4j
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProjectionBenchmarkTest {
+
+    private static final int USERS = 500;
+    private static final int CARDS_PER_USER = 4;
+    private static final int TRANSFERS = 100_000;
+    private static final int INSERT_BATCH = 10_000;
+    private static final int WARMUP = 500;
+    private static final int ROUNDS = 2_000;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardMapper cardMapper;
+
+    @Autowired
+    private TransferMapper transferMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyListings_EntityMappingVersusProjection() {
+        List<Long> cardIds = new ArrayList<>();
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        for (int u = 0; u < USERS; u++) {
+            User user = createUser("proj-" + u + "-" + suffix);
+            for (int c = 0; c < CARDS_PER_USER; c++) {
+                cardIds.add(createCard(user, "PJ-" + u + "-" + c + "-" + suffix).getId());
+            }
+        }
+        seedTransfers(cardIds);
+
+        PageRequest cardPage = PageRequest.of(3, 50, Sort.by("id"));
+        PageRequest transferPage = PageRequest.of(3, 50, Sort.by("id"));
+
+        assertEquals(
+                ids(inTransaction(() -> cardRepository.findAll(cardPage).map(cardMapper::toDTO)), CardDto::getId),
+                ids(inTransaction(() -> cardRepository.findAllViews(cardPage).map(cardMapper::toDTO)), CardDto::getId));
+        assertEquals(
+                ids(inTransaction(() -> transferRepository.findAll(transferPage).map(transferMapper::toDTO)), TransferDto::getId),
+                ids(inTransaction(() -> transferRepository.findAllViews(transferPage).map(transferMapper::toDTO)), TransferDto::getId));
+
+        List<Result> results = List.of(
+                measure("CARDS_ENTITY", () -> cardRepository.findAll(cardPage).map(cardMapper::toDTO)),
+                measure("CARDS_PROJECTION", () -> cardRepository.findAllViews(cardPage).map(cardMapper::toDTO)),
+                measure("TRANSFERS_ENTITY", () -> transferRepository.findAll(transferPage).map(transferMapper::toDTO)),
+                measure("TRANSFERS_PROJECTION", () -> transferRepository.findAllViews(transferPage).map(transferMapper::toDTO)));
+
+        results.forEach(result -> log.info("{} {} bytes/request {} requests/s",
+                result.label(), result.bytesPerRequest(), String.format("%.0f", result.requestsPerSecond())));
+    }
+
+    private Result measure(String label, Supplier<Page<?>> request) {
+        for (int i = 0; i < WARMUP; i++) {
+            inTransaction(request);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            inTransaction(request);
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Result(label, allocated / ROUNDS, ROUNDS * 1e9 / elapsedNanos);
+    }
+
+    private <T extends Page<?>> T inTransaction(Supplier<T> request) {
+        return readOnly.execute(status -> request.get());
+    }
+
+    private <T> List<Long> ids(Page<T> page, Function<T, Long> id) {
+        return page.getContent().stream().map(id).toList();
+    }
+
+    private void seedTransfers(List<Long> cardIds) {
+        Random random = new Random(42);
+        OffsetDateTime start = OffsetDateTime.now().minusDays(30);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < TRANSFERS; i++) {
+            int from = random.nextInt(cardIds.size());
+            int to = (from + 1 + random.nextInt(cardIds.size() - 1)) % cardIds.size();
+            long amount = 1L + random.nextInt(10_000);
+            batch.add(new Object[]{cardIds.get(from), cardIds.get(to), amount, "RUB", "COMPLETED",
+                    start.plusSeconds(i), amount, "RUB"});
+            if (batch.size() == INSERT_BATCH) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+    }
+
+    private void insert(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO transfers (id, from_card_id, to_card_id, amount, currency, status, " +
+                "transfer_date, credited_amount, credited_currency) " +
+                "VALUES (NEXT VALUE FOR transfer_seq, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    private User createUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .password("password")
+                .email(username + "@bank.com")
+                .role(Role.ROLE_USER)
+                .build());
+    }
+
+    private BankCard createCard(User user, String cardNumber) {
+        return cardRepository.save(BankCard.builder()
+                .cardNumber(cardNumber)
+                .cardHolderName(user.getUsername().toUpperCase())
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .currency(Currency.RUB)
+                .balance(0L)
+                .user(user)
+                .build());
+    }
+
+    private record Result(String label, long bytesPerRequest, double requestsPerSecond) {
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:plandb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.example.bankcards.service.SqlStatementRecorder",
+        "app.transfer-feed.backfill-on-startup=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    private static final int USERS = 2_000;
+    private static final int CARDS_PER_USER = 2;
+    private static final int TRANSFERS = 100_000;
+    private static final int INSERT_BATCH = 10_000;
+    private static final String[] STATUSES = {"COMPLETED", "COMPLETED", "COMPLETED", "PENDING", "FAILED", "CANCELLED"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private long userId;
+    private long cardId;
+    private long transferId;
+    private final OffsetDateTime since = OffsetDateTime.now().minusDays(1);
+
+    @BeforeAll
+    void seed() {
+        Random random = new Random(42);
+        List<Object[]> users = new ArrayList<>();
+        for (int u = 0; u < USERS; u++) {
+            users.add(new Object[]{"plan-" + u, "password", "plan-" + u + "@bank.com", "ROLE_USER"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (username, password, email, role) VALUES (?, ?, ?, ?)", users);
+        List<Long> userIds = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE username LIKE 'plan-%' ORDER BY id", Long.class);
+
+        List<Object[]> cards = new ArrayList<>();
+        for (Long owner : userIds) {
+            for (int c = 0; c < CARDS_PER_USER; c++) {
+                cards.add(new Object[]{"PLAN-" + owner + "-" + c, "PLAN HOLDER", LocalDate.now().plusDays(random.nextInt(2_000) - 200),
+                        random.nextInt(20) == 0 ? "BLOCKED" : "ACTIVE", "RUB", 100_000L, owner});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bank_cards (card_number, card_holder_name, expiration_date, status, " +
+                "currency, balance, user_id) VALUES (?, ?, ?, ?, ?, ?, ?)", cards);
+        List<Long> cardIds = jdbcTemplate.queryForList(
+                "SELECT id FROM bank_cards WHERE card_number LIKE 'PLAN-%' ORDER BY id", Long.class);
+
+        OffsetDateTime start = OffsetDateTime.now().minusDays(90);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < TRANSFERS; i++) {
+            int from = random.nextInt(cardIds.size());
+            int to = (from + 1 + random.nextInt(cardIds.size() - 1)) % cardIds.size();
+            long amount = 1L + random.nextInt(10_000);
+            batch.add(new Object[]{cardIds.get(from), cardIds.get(to), amount, "RUB", STATUSES[random.nextInt(STATUSES.length)],
+                    start.plusSeconds(i * 77L), amount, "RUB"});
+            if (batch.size() == INSERT_BATCH) {
+                insertTransfers(batch);
+            }
+        }
+        insertTransfers(batch);
+        jdbcTemplate.execute("ANALYZE");
+
+        userId = userIds.get(USERS / 2);
+        cardId = cardIds.get(cardIds.size() / 2);
+        transferId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM transfers", Long.class);
+    }
+
+    @Test
+    void transferRepositoryQueries_ShouldUseIndexes() {
+        PageRequest byDate = PageRequest.of(0, 20, Sort.by("transferDate"));
+        PageRequest unsorted = PageRequest.of(0, 20);
+        List<TransferStatus> spendStatuses = List.of(TransferStatus.PENDING, TransferStatus.COMPLETED);
+
+        assertIndexed("findViewsByUserId", () -> transferRepository.findViewsByUserId(userId, byDate));
+        assertIndexed("findOutgoingViewsByUserId", () -> transferRepository.findOutgoingViewsByUserId(userId, byDate));
+        assertIndexed("findIncomingViewsByUserId", () -> transferRepository.findIncomingViewsByUserId(userId, byDate));
+        assertIndexed("findLatestIdsByUserId",
+                () -> transferRepository.findLatestIdsByUserId(userId, true, true, PageRequest.of(0, 21)));
+        assertIndexed("findIdsByUserIdBefore",
+                () -> transferRepository.findIdsByUserIdBefore(userId, true, false, since, transferId, PageRequest.of(0, 21)));
+        assertIndexed("findAllViews", () -> transferRepository.findAllViews(byDate));
+        assertIndexed("findViewsByIdIn", () -> transferRepository.findViewsByIdIn(List.of(transferId, transferId + 1)));
+        assertIndexed("findViewsByStatus", () -> transferRepository.findViewsByStatus(TransferStatus.PENDING, unsorted));
+        assertIndexed("findViewsByTransferDateBetween",
+                () -> transferRepository.findViewsByTransferDateBetween(since.minusDays(1), since, unsorted));
+        assertIndexed("findWithCardsById", () -> transferRepository.findWithCardsById(transferId));
+        assertIndexed("findByIdForUpdate", () -> transferRepository.findByIdForUpdate(transferId));
+        assertIndexed("findAllByIdForUpdate", () -> transferRepository.findAllByIdForUpdate(List.of(transferId)));
+        assertIndexed("findPendingAfter", () -> transferRepository.findPendingAfter(transferId, PageRequest.of(0, 100)));
+        assertIndexed("findMaxJournalSequence", () -> transferRepository.findMaxJournalSequence());
+        assertIndexed("findPersistedJournalSequences", () -> transferRepository.findPersistedJournalSequences(List.of(1L, 2L)));
+        assertIndexed("findStatusById", () -> transferRepository.findStatusById(transferId));
+        assertIndexed("findSpendByCardIdSince", () -> transferRepository.findSpendByCardIdSince(cardId, spendStatuses, since));
+        assertIndexed("findSpendByUserIdSince",
+                () -> transferRepository.findSpendByUserIdSince(userId, Currency.RUB, spendStatuses, since));
+        assertIndexed("sumCompletedOutgoingByUserIdFromTo",
+                () -> transferRepository.sumCompletedOutgoingByUserIdFromTo(userId, since.minusDays(30), since));
+    }
+
+    @Test
+    void cardRepositoryQueries_ShouldUseIndexes() {
+        PageRequest byCreated = PageRequest.of(0, 20, Sort.by("createdAt"));
+
+        assertIndexed("findViewsByUserId", () -> cardRepository.findViewsByUserId(userId, byCreated));
+        assertIndexed("findAllViews", () -> cardRepository.findAllViews(byCreated));
+        assertIndexed("findExpiredCardsByUserId", () -> cardRepository.findExpiredCardsByUserId(userId));
+        assertIndexed("findByIdAndUserId", () -> cardRepository.findByIdAndUserId(cardId, userId));
+        assertIndexed("existsByCardNumber", () -> cardRepository.existsByCardNumber("PLAN-1-0"));
+        assertIndexed("getTotalBalanceByUserId", () -> cardRepository.getTotalBalanceByUserId(userId));
+        assertIndexed("findIdsAfter", () -> cardRepository.findIdsAfter(cardId, PageRequest.of(0, 100)));
+        assertIndexed("findBalanceById", () -> cardRepository.findBalanceById(cardId));
+        assertIndexed("findLedgerSeedById", () -> cardRepository.findLedgerSeedById(cardId));
+        assertIndexed("findByIdForUpdate", () -> cardRepository.findByIdForUpdate(cardId));
+        assertIndexed("findAllByIdForUpdate", () -> cardRepository.findAllByIdForUpdate(List.of(cardId)));
+        assertIndexed("debitIfSufficient", () -> cardRepository.debitIfSufficient(cardId, 1L));
+        assertIndexed("holdIfAvailable", () -> cardRepository.holdIfAvailable(cardId, 1L));
+        assertIndexed("releaseHold", () -> cardRepository.releaseHold(cardId, 1L));
+        assertIndexed("creditIfActive", () -> cardRepository.creditIfActive(cardId, 1L));
+        assertIndexed("isActiveById", () -> cardRepository.isActiveById(cardId));
+        assertIndexed("adjustBalance", () -> cardRepository.adjustBalance(cardId, 1L));
+    }
+
+    @Test
+    void compositeIndexes_ShouldServeTheQueriesTheyWereAddedFor() {
+        assertUsesIndex("IDX_TRANSFER_FROM_CARD_STATUS_DATE",
+                () -> transferRepository.sumCompletedOutgoingByUserIdFromTo(userId, since.minusDays(30), since));
+        assertUsesIndex("IDX_CARD_USER_CREATED",
+                () -> cardRepository.findViewsByUserId(userId, PageRequest.of(0, 20, Sort.by("createdAt"))));
+        assertUsesIndex("IDX_CARD_CREATED_AT",
+                () -> cardRepository.findAllViews(PageRequest.of(0, 20, Sort.by("createdAt"))));
+        assertUsesIndex("IDX_CARD_EXPIRATION_DATE", () -> cardRepository.findExpiredCardsByUserId(userId));
+    }
+
+    private void assertIndexed(String query, Supplier<?> call) {
+        for (String plan : explain(query, call)) {
+            assertFalse(plan.contains("tableScan") && !plan.contains("direct lookup"), query + " scans a table:\n" + plan);
+        }
+    }
+
+    private void assertUsesIndex(String index, Supplier<?> call) {
+        List<String> plans = explain(index, call);
+        assertTrue(plans.stream().anyMatch(plan -> plan.toUpperCase().contains(index)),
+                index + " is not used:\n" + String.join("\n", plans));
+    }
+
+    private List<String> explain(String query, Supplier<?> call) {
+        List<String> statements = transactionTemplate.execute(status -> {
+            SqlStatementRecorder.reset();
+            call.get();
+            status.setRollbackOnly();
+            return SqlStatementRecorder.statements();
+        });
+        assertFalse(statements == null || statements.isEmpty(), query + " issued no SQL");
+        return statements.stream()
+                .map(sql -> jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql),
+                        (ResultSetExtractor<String>) rs -> rs.next() ? rs.getString(1) : ""))
+                .toList();
+    }
+
+    private void insertTransfers(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO transfers (id, from_card_id, to_card_id, amount, currency, status, " +
+                "transfer_date, credited_amount, credited_currency) " +
+                "VALUES (NEXT VALUE FOR transfer_seq, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.feed.TransferFeedService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.example.bankcards.service.SqlStatementCounter")
+@AutoConfigureMockMvc
+class QueryStatementCountTest {
+
+    private static final int ROWS = 20;
+    private static final int PAGE_SIZE = ROWS / 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransferFeedService transferFeedService;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private BankCard own;
+    private Long lastTransferId;
+
+    @BeforeEach
+    void setUp() {
+        owner = createUser();
+        own = createCard(owner);
+        for (int i = 0; i < ROWS; i++) {
+            createCard(owner);
+            BankCard counterparty = createCard(createUser());
+            lastTransferId = i % 2 == 0 ? saveTransfer(own, counterparty) : saveTransfer(counterparty, own);
+        }
+        transferFeedService.backfill();
+    }
+
+    @Test
+    void transferHistoryPages_ShouldNotGrowWithPageSize() throws Exception {
+        RequestPostProcessor asOwner = user(owner.getUsername()).roles("USER");
+
+        assertFlat("/api/transfers/my", asOwner, 4);
+        assertFlat("/api/transfers/my/outgoing", asOwner, 4);
+        assertFlat("/api/transfers/my/incoming", asOwner, 4);
+        assertFlat("/api/transfers/my?sort=amount", asOwner, 3);
+        assertFlat("/api/transfers/my/cursor", asOwner, 3);
+    }
+
+    @Test
+    void adminTransferPages_ShouldNotGrowWithPageSize() throws Exception {
+        RequestPostProcessor asAdmin = user("admin").roles("ADMIN");
+
+        assertFlat("/api/transfers", asAdmin, 2);
+        assertFlat("/api/transfers/status/COMPLETED", asAdmin, 2);
+    }
+
+    @Test
+    void cardPages_ShouldNotGrowWithPageSize() throws Exception {
+        assertFlat("/api/cards/my", user(owner.getUsername()).roles("USER"), 3);
+        assertFlat("/api/cards", user("admin").roles("ADMIN"), 2);
+        assertFlat("/api/cards/user/" + owner.getId(), user("admin").roles("ADMIN"), 2);
+    }
+
+    @Test
+    void transferDetail_ShouldUseFixedStatementCount() throws Exception {
+        int statements = count("/api/transfers/my/" + lastTransferId, user(owner.getUsername()).roles("USER"));
+
+        assertTrue(statements <= 4, "GET /api/transfers/my/{id} issued " + statements + " statements");
+    }
+
+    private void assertFlat(String uri, RequestPostProcessor principal, int budget) throws Exception {
+        String separator = uri.contains("?") ? "&" : "?";
+        int single = count(uri + separator + "size=1", principal);
+        int full = count(uri + separator + "size=" + PAGE_SIZE, principal);
+
+        assertEquals(single, full, uri + " issued " + single + " statements for 1 row and " + full + " for " + PAGE_SIZE);
+        assertTrue(full <= budget, uri + " issued " + full + " statements, budget is " + budget);
+    }
+
+    private int count(String uri, RequestPostProcessor principal) throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(get(uri).with(principal)).andExpect(status().isOk());
+        return SqlStatementCounter.count();
+    }
+
+    private Long saveTransfer(BankCard from, BankCard to) {
+        return transferRepository.save(Transfer.builder()
+                .fromCard(from)
+                .toCard(to)
+                .amount(100L)
+                .currency(Currency.RUB)
+                .status(TransferStatus.COMPLETED)
+                .build()).getId();
+    }
+
+    private User createUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(User.builder()
+                .username("sql-" + suffix)
+                .password("password")
+                .email("sql-" + suffix + "@bank.com")
+                .role(Role.ROLE_USER)
+                .build());
+    }
+
+    private BankCard createCard(User user) {
+        return cardRepository.save(BankCard.builder()
+                .cardNumber("S-" + UUID.randomUUID().toString().substring(0, 8))
+                .cardHolderName(user.getUsername().toUpperCase())
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .currency(Currency.RUB)
+                .balance(1000L)
+                .user(user)
+                .build());
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.BalanceMismatchDto;
+import com.example.bankcards.dto.ReconciliationReportDto;
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.reconciliation.ReconciliationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.reconciliation.chunk-size=2")
+class ReconciliationServiceTest {
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void reconcile_ShouldReportOnlyCardsWhoseBalanceDivergesFromCompletedTransfers() {
+        BankCard payer = createCard(1000L);
+        BankCard payee = createCard(500L);
+        BankCard drifted = createCard(300L);
+        for (int i = 0; i < 5; i++) {
+            transfer(payer, payee, 40L);
+            transfer(payee, drifted, 10L);
+        }
+        transferRepository.save(Transfer.builder()
+                .fromCard(payer)
+                .toCard(payee)
+                .amount(999L)
+                .currency(Currency.RUB)
+                .status(TransferStatus.PENDING)
+                .build());
+        transactionTemplate.executeWithoutResult(status -> cardRepository.adjustBalance(drifted.getId(), 7L));
+
+        ReconciliationReportDto report = reconciliationService.reconcile();
+
+        Map<Long, BalanceMismatchDto> mismatches = report.getMismatches().stream()
+                .collect(Collectors.toMap(BalanceMismatchDto::getCardId, Function.identity()));
+        assertFalse(mismatches.containsKey(payer.getId()));
+        assertFalse(mismatches.containsKey(payee.getId()));
+        BalanceMismatchDto mismatch = mismatches.get(drifted.getId());
+        assertNotNull(mismatch);
+        assertEquals(357L, mismatch.getRecordedBalance());
+        assertEquals(350L, mismatch.getExpectedBalance());
+        assertEquals(7L, mismatch.getDifference());
+        assertTrue(report.getTransfersScanned() >= 10);
+        assertTrue(report.getCardsChecked() >= 3);
+
+        ReconciliationReportDto latest = reconciliationService.getLatestReport().orElseThrow();
+        assertEquals(report.getRunId(), latest.getRunId());
+        assertEquals(report.getMismatchCount(), latest.getMismatches().size());
+    }
+
+    private void transfer(BankCard from, BankCard to, long amount) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            cardRepository.adjustBalance(from.getId(), -amount);
+            cardRepository.adjustBalance(to.getId(), amount);
+            transferRepository.save(Transfer.builder()
+                    .fromCard(from)
+                    .toCard(to)
+                    .amount(amount)
+                    .currency(Currency.RUB)
+                    .status(TransferStatus.COMPLETED)
+                    .build());
+        });
+    }
+
+    private BankCard createCard(long balance) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User owner = userRepository.save(User.builder()
+                .username("recon-" + suffix)
+                .password("password")
+                .email("recon-" + suffix + "@bank.com")
+                .role(Role.ROLE_USER)
+                .build());
+        return cardRepository.save(BankCard.builder()
+                .cardNumber("R-" + suffix)
+                .cardHolderName(owner.getUsername().toUpperCase())
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .currency(Currency.RUB)
+                .balance(balance)
+                .user(owner)
+                .build());
+    }
+}
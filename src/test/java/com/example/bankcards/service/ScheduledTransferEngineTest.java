@@ -0,0 +1,132 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.ScheduledTransfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.Recurrence;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.entity.enums.ScheduledTransferStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.ScheduledTransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.scheduled.ScheduledTransferEngine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.scheduled-transfers.tick-ms=20",
+        "app.scheduled-transfers.wheel-size=16",
+        "app.scheduled-transfers.lookahead-ms=2000"
+})
+class ScheduledTransferEngineTest {
+
+    @Autowired
+    private ScheduledTransferEngine engine;
+
+    @Autowired
+    private ScheduledTransferRepository scheduledTransferRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void dueOneOffTransfer_ShouldExecuteOnceAndComplete() throws InterruptedException {
+        BankCard payer = createCard(1000L);
+        BankCard payee = createCard(0L);
+        ScheduledTransfer schedule = save(payer, payee, 250L, Recurrence.ONCE, OffsetDateTime.now().plusNanos(300_000_000));
+        engine.scheduleAfterCommit(schedule.getId(), schedule.getNextExecutionAt());
+
+        ScheduledTransfer executed = await(schedule.getId(), s -> s.getStatus() != ScheduledTransferStatus.ACTIVE);
+
+        assertEquals(ScheduledTransferStatus.COMPLETED, executed.getStatus());
+        assertEquals(1, executed.getExecutionCount());
+        assertNotNull(executed.getLastTransferId());
+        assertEquals(750L, cardRepository.findById(payer.getId()).orElseThrow().getBalance());
+        assertEquals(250L, cardRepository.findById(payee.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    void overdueRecurringTransfer_ShouldCatchUpMissedOccurrencesAndStayActive() throws InterruptedException {
+        BankCard payer = createCard(1000L);
+        BankCard payee = createCard(0L);
+        OffsetDateTime startAt = OffsetDateTime.now().minusDays(2).minusMinutes(1);
+        ScheduledTransfer schedule = save(payer, payee, 100L, Recurrence.DAILY, startAt);
+        engine.scheduleAfterCommit(schedule.getId(), schedule.getNextExecutionAt());
+
+        ScheduledTransfer executed = await(schedule.getId(), s -> s.getExecutionCount() == 3);
+
+        assertEquals(ScheduledTransferStatus.ACTIVE, executed.getStatus());
+        assertTrue(executed.getNextExecutionAt().isAfter(OffsetDateTime.now()));
+        assertEquals(700L, cardRepository.findById(payer.getId()).orElseThrow().getBalance());
+        assertEquals(300L, cardRepository.findById(payee.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    void oneOffTransferWithoutFunds_ShouldFailWithReason() throws InterruptedException {
+        BankCard payer = createCard(10L);
+        BankCard payee = createCard(0L);
+        ScheduledTransfer schedule = save(payer, payee, 500L, Recurrence.ONCE, OffsetDateTime.now());
+        engine.scheduleAfterCommit(schedule.getId(), schedule.getNextExecutionAt());
+
+        ScheduledTransfer executed = await(schedule.getId(), s -> s.getStatus() != ScheduledTransferStatus.ACTIVE);
+
+        assertEquals(ScheduledTransferStatus.FAILED, executed.getStatus());
+        assertEquals("Insufficient funds", executed.getLastError());
+        assertEquals(10L, cardRepository.findById(payer.getId()).orElseThrow().getBalance());
+    }
+
+    private ScheduledTransfer await(Long id, Predicate<ScheduledTransfer> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        ScheduledTransfer schedule = scheduledTransferRepository.findById(id).orElseThrow();
+        while (!condition.test(schedule) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            schedule = scheduledTransferRepository.findById(id).orElseThrow();
+        }
+        return schedule;
+    }
+
+    private ScheduledTransfer save(BankCard from, BankCard to, long amount, Recurrence recurrence, OffsetDateTime startAt) {
+        return scheduledTransferRepository.save(ScheduledTransfer.builder()
+                .userId(from.getUser().getId())
+                .fromCardId(from.getId())
+                .toCardId(to.getId())
+                .amount(amount)
+                .currency(Currency.RUB)
+                .recurrence(recurrence)
+                .startAt(startAt)
+                .nextExecutionAt(startAt)
+                .build());
+    }
+
+    private BankCard createCard(long balance) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User owner = userRepository.save(User.builder()
+                .username("scheduled-" + suffix)
+                .password("password")
+                .email("scheduled-" + suffix + "@bank.com")
+                .role(Role.ROLE_USER)
+                .build());
+        return cardRepository.save(BankCard.builder()
+                .cardNumber("S-" + suffix)
+                .cardHolderName(owner.getUsername().toUpperCase())
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .currency(Currency.RUB)
+                .balance(balance)
+                .user(owner)
+                .build());
+    }
+}
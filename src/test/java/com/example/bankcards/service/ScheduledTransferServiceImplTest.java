@@ -0,0 +1,137 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.ScheduledTransferDto;
+import com.example.bankcards.dto.ScheduledTransferRequest;
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.ScheduledTransfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.Recurrence;
+import com.example.bankcards.entity.enums.ScheduledTransferStatus;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.exception.ScheduledTransferNotFoundException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.ScheduledTransferRepository;
+import com.example.bankcards.security.SecurityService;
+import com.example.bankcards.service.scheduled.ScheduledTransferEngine;
+import com.example.bankcards.service.scheduled.ScheduledTransferServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduledTransferServiceImplTest {
+
+    @Mock
+    private ScheduledTransferRepository scheduledTransferRepository;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private SecurityService securityService;
+
+    @Mock
+    private ObjectProvider<ScheduledTransferEngine> engine;
+
+    @InjectMocks
+    private ScheduledTransferServiceImpl scheduledTransferService;
+
+    private User createUser(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private BankCard createCard(Long id, Currency currency) {
+        BankCard card = new BankCard();
+        card.setId(id);
+        card.setCurrency(currency);
+        return card;
+    }
+
+    private ScheduledTransferRequest.ScheduledTransferRequestBuilder request(OffsetDateTime startAt) {
+        return ScheduledTransferRequest.builder()
+                .fromCardId(1L)
+                .toCardId(2L)
+                .amount(5000L)
+                .currency(Currency.RUB)
+                .startAt(startAt);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void createScheduledTransfer_ShouldPersistActiveScheduleAndRegisterItWithEngine() {
+        OffsetDateTime startAt = OffsetDateTime.now().plusDays(3);
+        ScheduledTransferEngine scheduledTransferEngine = mock(ScheduledTransferEngine.class);
+        when(securityService.getCurrentUser()).thenReturn(createUser(7L));
+        when(cardRepository.findByIdAndUserId(1L, 7L)).thenReturn(Optional.of(createCard(1L, Currency.RUB)));
+        when(cardRepository.existsById(2L)).thenReturn(true);
+        when(scheduledTransferRepository.save(any(ScheduledTransfer.class))).thenAnswer(invocation -> {
+            ScheduledTransfer schedule = invocation.getArgument(0);
+            schedule.setId(42L);
+            return schedule;
+        });
+        doAnswer(invocation -> {
+            ((Consumer<ScheduledTransferEngine>) invocation.getArgument(0)).accept(scheduledTransferEngine);
+            return null;
+        }).when(engine).ifAvailable(any());
+
+        ScheduledTransferDto result = scheduledTransferService.createScheduledTransfer(
+                request(startAt).recurrence(Recurrence.MONTHLY).build());
+
+        assertEquals(42L, result.getId());
+        assertEquals(ScheduledTransferStatus.ACTIVE, result.getStatus());
+        assertEquals(Recurrence.MONTHLY, result.getRecurrence());
+        assertEquals(startAt, result.getNextExecutionAt());
+        verify(scheduledTransferEngine).scheduleAfterCommit(42L, startAt);
+    }
+
+    @Test
+    void createScheduledTransfer_WithPastStart_ShouldThrowBadRequest() {
+        assertThrows(BadRequestException.class, () -> scheduledTransferService.createScheduledTransfer(
+                request(OffsetDateTime.now().minusMinutes(1)).build()));
+        verifyNoInteractions(scheduledTransferRepository);
+    }
+
+    @Test
+    void createScheduledTransfer_FromForeignCard_ShouldThrowCardNotFound() {
+        when(securityService.getCurrentUser()).thenReturn(createUser(7L));
+        when(cardRepository.findByIdAndUserId(1L, 7L)).thenReturn(Optional.empty());
+
+        assertThrows(CardNotFoundException.class, () -> scheduledTransferService.createScheduledTransfer(
+                request(OffsetDateTime.now().plusDays(1)).build()));
+        verify(scheduledTransferRepository, never()).save(any());
+    }
+
+    @Test
+    void cancelScheduledTransfer_ShouldMarkActiveScheduleCancelled() {
+        ScheduledTransfer schedule = ScheduledTransfer.builder().id(42L).userId(7L).build();
+        when(securityService.getCurrentUser()).thenReturn(createUser(7L));
+        when(scheduledTransferRepository.findByIdAndUserId(42L, 7L)).thenReturn(Optional.of(schedule));
+
+        scheduledTransferService.cancelScheduledTransfer(42L);
+
+        assertEquals(ScheduledTransferStatus.CANCELLED, schedule.getStatus());
+    }
+
+    @Test
+    void getScheduledTransfer_OfAnotherUser_ShouldThrowNotFound() {
+        when(securityService.getCurrentUser()).thenReturn(createUser(7L));
+        when(scheduledTransferRepository.findByIdAndUserId(42L, 7L)).thenReturn(Optional.empty());
+
+        assertThrows(ScheduledTransferNotFoundException.class, () -> scheduledTransferService.getScheduledTransfer(42L));
+    }
+}
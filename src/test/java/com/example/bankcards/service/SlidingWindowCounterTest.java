@@ -0,0 +1,65 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.service.velocity.SlidingWindowCounter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowCounterTest {
+
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    void sum_ShouldDropBucketsOlderThanWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofHours(1), 60);
+        long start = 1_700_000_000_000L;
+
+        counter.add(start, 100L);
+        counter.add(start + 30 * MINUTE, 50L);
+        counter.add(start + 59 * MINUTE, 25L);
+
+        assertEquals(175L, counter.sum(start + 59 * MINUTE));
+        assertEquals(75L, counter.sum(start + 61 * MINUTE));
+        assertEquals(0L, counter.sum(start + 3 * 60 * MINUTE));
+    }
+
+    @Test
+    void add_WhenSlotWasReusedByNewerBucket_ShouldIgnoreExpiredEntry() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofHours(1), 60);
+        long start = 1_700_000_000_000L;
+
+        counter.add(start + 60 * MINUTE, 10L);
+        counter.add(start, 500L);
+
+        assertEquals(10L, counter.sum(start + 60 * MINUTE));
+    }
+
+    @Test
+    void add_FromConcurrentThreads_ShouldNotLoseUpdates() throws Exception {
+        SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofHours(1), 60);
+        long now = System.currentTimeMillis();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    counter.add(now, 1L);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertEquals(80_000L, counter.sum(now));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.service.scheduled.TimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    @Test
+    void advanceTo_ShouldExpireEntriesWithinOneTickAfterTheyAreDue() {
+        TimingWheel wheel = new TimingWheel(10, 8, 1_000);
+        wheel.add(1L, 1_015);
+        wheel.add(2L, 1_045);
+        wheel.add(3L, 1_049);
+
+        List<TimingWheel.Entry> expired = new ArrayList<>();
+        assertEquals(0, wheel.advanceTo(1_018, expired));
+        assertEquals(1, wheel.advanceTo(1_019, expired));
+        assertEquals(1L, expired.get(0).id());
+        assertEquals(0, wheel.advanceTo(1_048, expired));
+        assertEquals(2, wheel.advanceTo(1_049, expired));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void add_WhenAlreadyDue_ShouldReturnFalse() {
+        TimingWheel wheel = new TimingWheel(10, 8, 1_000);
+
+        assertFalse(wheel.add(1L, 999));
+        assertFalse(wheel.add(2L, 500));
+        assertTrue(wheel.add(3L, 1_000));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void advanceTo_ShouldCascadeEntriesFromOverflowWheels() {
+        TimingWheel wheel = new TimingWheel(10, 4, 9);
+        wheel.add(1L, 35);
+        wheel.add(2L, 95);
+        wheel.add(3L, 650);
+        assertEquals(3, wheel.size());
+
+        List<TimingWheel.Entry> expired = new ArrayList<>();
+        wheel.advanceTo(98, expired);
+        assertEquals(List.of(1L), expired.stream().map(TimingWheel.Entry::id).toList());
+
+        wheel.advanceTo(99, expired);
+        assertEquals(List.of(1L, 2L), expired.stream().map(TimingWheel.Entry::id).toList());
+
+        wheel.advanceTo(658, expired);
+        assertEquals(2, expired.size());
+        wheel.advanceTo(659, expired);
+        assertEquals(3L, expired.get(2).id());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advanceTo_WithManyRandomEntries_ShouldExpireEachExactlyOnceNoEarlierThanItsTick() {
+        TimingWheel wheel = new TimingWheel(7, 16, 3);
+        Random random = new Random(42);
+        long[] due = new long[10_000];
+        for (int i = 0; i < due.length; i++) {
+            due[i] = 10 + random.nextInt(200_000);
+            assertTrue(wheel.add(i, due[i]));
+        }
+
+        boolean[] seen = new boolean[due.length];
+        List<TimingWheel.Entry> expired = new ArrayList<>();
+        for (long now = 0; now <= 200_100; now += 1 + random.nextInt(50)) {
+            expired.clear();
+            wheel.advanceTo(now, expired);
+            for (TimingWheel.Entry entry : expired) {
+                assertFalse(seen[(int) entry.id()]);
+                seen[(int) entry.id()] = true;
+                assertTrue(entry.dueMs() <= now);
+                assertTrue(entry.dueMs() > now - 7 - 50);
+            }
+        }
+
+        for (boolean entrySeen : seen) {
+            assertTrue(entrySeen);
+        }
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.shard.CardWriterShards;
+import com.example.bankcards.service.transfer.TransferService;
+import com.example.bankcards.service.transfer.TransferStrategy;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@SpringBootTest
+class TransferConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int TRANSFERS_PER_THREAD = 50;
+    private static final long INITIAL_BALANCE = 1_000_000L;
+    private static final long AMOUNT = 10L;
+    private static final int TRANSFERS = THREADS * TRANSFERS_PER_THREAD;
+    private static final double MAX_OPTIMISTIC_FAILURE_RATE = 0.5;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private CardWriterShards cardWriterShards;
+
+    private BankCard cardA;
+    private BankCard cardB;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        cardA = createCard(createUser("alice-" + suffix), "A-" + suffix);
+        cardB = createCard(createUser("bob-" + suffix), "B-" + suffix);
+    }
+
+    @AfterEach
+    void tearDown() {
+        setStrategy(TransferStrategy.ATOMIC_UPDATE);
+        ReflectionTestUtils.setField(cardWriterShards, "enabled", false);
+    }
+
+    @Test
+    void crossTransfers_ShouldCompleteAndConserveBalancesAgainstBaseline() throws Exception {
+        List<RunResult> results = new ArrayList<>();
+        for (TransferStrategy strategy : List.of(
+                TransferStrategy.OPTIMISTIC_LOCK,
+                TransferStrategy.ATOMIC_UPDATE,
+                TransferStrategy.PESSIMISTIC_LOCK)) {
+            resetBalances();
+            RunResult result = hammer(strategy);
+            results.add(result);
+
+            assertTrue(result.forward() > 0, strategy + " completed no A->B transfers");
+            assertTrue(result.backward() > 0, strategy + " completed no B->A transfers");
+            assertEquals(TRANSFERS, result.forward() + result.backward() + result.failed());
+            if (strategy == TransferStrategy.OPTIMISTIC_LOCK) {
+                assertTrue(result.failed() <= TRANSFERS * MAX_OPTIMISTIC_FAILURE_RATE,
+                        strategy + " exhausted retries on " + result.failed() + " of " + TRANSFERS + " transfers");
+            } else {
+                assertEquals(0, result.failed(), strategy + " failed transfers");
+            }
+
+            long balanceA = cardRepository.findById(cardA.getId()).orElseThrow().getBalance();
+            long balanceB = cardRepository.findById(cardB.getId()).orElseThrow().getBalance();
+            assertEquals(2 * INITIAL_BALANCE, balanceA + balanceB);
+            assertEquals(INITIAL_BALANCE - (result.forward() - result.backward()) * AMOUNT, balanceA);
+            assertEquals(INITIAL_BALANCE + (result.forward() - result.backward()) * AMOUNT, balanceB);
+        }
+
+        results.forEach(this::print);
+    }
+
+    @Test
+    void hotMerchantCard_ShouldConserveBalancesWithAndWithoutSingleWriter() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        BankCard merchant = createCard(createUser("merchant-" + suffix), "M-" + suffix);
+        List<Route> routes = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            BankCard payer = createCard(createUser("payer-" + i + "-" + suffix), "P-" + i + "-" + suffix);
+            routes.add(new Route(payer, merchant, true));
+        }
+        setStrategy(TransferStrategy.ATOMIC_UPDATE);
+
+        List<RunResult> results = new ArrayList<>();
+        for (boolean singleWriter : List.of(false, true)) {
+            ReflectionTestUtils.setField(cardWriterShards, "enabled", singleWriter);
+            long before = cardRepository.findById(merchant.getId()).orElseThrow().getBalance();
+            RunResult result = hammer(singleWriter ? "SINGLE_WRITER" : "TRANSACTIONAL", routes);
+            results.add(result);
+
+            assertEquals(TRANSFERS, result.forward(), result.label() + " failed " + result.failed() + " transfers");
+            long after = cardRepository.findById(merchant.getId()).orElseThrow().getBalance();
+            assertEquals(before + result.forward() * AMOUNT, after);
+        }
+
+        results.forEach(this::print);
+    }
+
+    private RunResult hammer(TransferStrategy strategy) throws Exception {
+        setStrategy(strategy);
+        List<Route> routes = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            routes.add(i % 2 == 0 ? new Route(cardA, cardB, true) : new Route(cardB, cardA, false));
+        }
+        return hammer(strategy == TransferStrategy.OPTIMISTIC_LOCK ? "BASELINE_OPTIMISTIC_LOCK" : strategy.name(), routes);
+    }
+
+    private RunResult hammer(String label, List<Route> routes) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(routes.size());
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger forward = new AtomicInteger();
+        AtomicInteger backward = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (Route route : routes) {
+            futures.add(pool.submit(() -> {
+                authenticate(route.from().getUser().getUsername());
+                try {
+                    start.await();
+                    for (int k = 0; k < TRANSFERS_PER_THREAD; k++) {
+                        long startedAt = System.nanoTime();
+                        try {
+                            transferService.createTransfer(TransferRequest.builder()
+                                    .fromCardId(route.from().getId())
+                                    .toCardId(route.to().getId())
+                                    .amount(AMOUNT)
+                                    .currency(Currency.RUB)
+                                    .build());
+                            (route.forward() ? forward : backward).incrementAndGet();
+                        } catch (RuntimeException e) {
+                            failed.incrementAndGet();
+                        }
+                        latencies.add(System.nanoTime() - startedAt);
+                    }
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        pool.shutdown();
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new RunResult(label, forward.get(), backward.get(), failed.get(), elapsed, sorted);
+    }
+
+    private void print(RunResult result) {
+        log.info("{} ok={} failed={} throughput={} tx/s p50={} ms p99={} ms",
+                result.label(), result.forward() + result.backward(), result.failed(),
+                String.format("%.1f", result.throughput()),
+                String.format("%.2f", result.percentileMillis(0.50)),
+                String.format("%.2f", result.percentileMillis(0.99)));
+    }
+
+    private void setStrategy(TransferStrategy strategy) {
+        Object target = AopTestUtils.getUltimateTargetObject(transferService);
+        ReflectionTestUtils.setField(target, "strategy", strategy);
+    }
+
+    private void resetBalances() {
+        for (BankCard card : List.of(cardA, cardB)) {
+            BankCard stored = cardRepository.findById(card.getId()).orElseThrow();
+            stored.setBalance(INITIAL_BALANCE);
+            cardRepository.save(stored);
+        }
+    }
+
+    private void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    private User createUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .password("password")
+                .email(username + "@bank.com")
+                .role(Role.ROLE_USER)
+                .build());
+    }
+
+    private BankCard createCard(User owner, String cardNumber) {
+        return cardRepository.save(BankCard.builder()
+                .cardNumber(cardNumber)
+                .cardHolderName(owner.getUsername().toUpperCase())
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .currency(Currency.RUB)
+                .balance(INITIAL_BALANCE)
+                .user(owner)
+                .build());
+    }
+
+    private record Route(BankCard from, BankCard to, boolean forward) {
+    }
+
+    private record RunResult(String label, int forward, int backward, int failed,
+                             long elapsedNanos, long[] latencies) {
+
+        double throughput() {
+            return (forward + backward) / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        double percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(percentile * latencies.length) - 1);
+            return latencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
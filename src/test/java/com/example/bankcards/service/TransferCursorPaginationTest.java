@@ -0,0 +1,154 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferDto;
+import com.example.bankcards.dto.TransferSliceDto;
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.feed.TransferFeedService;
+import com.example.bankcards.service.transfer.TransferService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TransferCursorPaginationTest {
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private TransferFeedService transferFeedService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final OffsetDateTime base = OffsetDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusDays(1);
+
+    private User owner;
+    private BankCard own;
+    private BankCard savings;
+    private BankCard stranger;
+
+    @BeforeEach
+    void setUp() {
+        owner = createUser();
+        own = createCard(owner);
+        savings = createCard(owner);
+        stranger = createCard(createUser());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                owner.getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void cursor_ShouldWalkMergedHistoryNewestFirstWithoutGapsOrDuplicates() {
+        Long out1 = saveTransfer(own, stranger, 0);
+        Long in1 = saveTransfer(stranger, own, 1);
+        Long internal = saveTransfer(own, savings, 2);
+        Long out2 = saveTransfer(savings, stranger, 2);
+        Long in2 = saveTransfer(stranger, savings, 2);
+        Long out3 = saveTransfer(own, stranger, 3);
+        saveTransfer(stranger, createCard(createUser()), 4);
+        transferFeedService.backfill();
+
+        List<Long> expected = new ArrayList<>(List.of(out3));
+        expected.addAll(List.of(internal, out2, in2).stream().sorted((a, b) -> Long.compare(b, a)).toList());
+        expected.addAll(List.of(in1, out1));
+
+        assertEquals(expected, walk(transferService::getUserTransfersAfter, 2));
+        assertEquals(expected.stream().filter(id -> !id.equals(in1) && !id.equals(in2)).toList(),
+                walk(transferService::getOutgoingTransfersAfter, 2));
+        assertEquals(expected.stream().filter(id -> id.equals(in1) || id.equals(in2) || id.equals(internal)).toList(),
+                walk(transferService::getIncomingTransfersAfter, 1));
+    }
+
+    @Test
+    void cursor_WithTamperedToken_ShouldBeRejected() {
+        assertThrows(BadRequestException.class, () -> transferService.getUserTransfersAfter("not-a-cursor", 10));
+    }
+
+    private List<Long> walk(BiFunction<String, Integer, TransferSliceDto> pager, int size) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransferSliceDto slice = pager.apply(cursor, size);
+            assertTrue(slice.getContent().size() <= size);
+            slice.getContent().stream().map(TransferDto::getId).forEach(ids::add);
+            assertEquals(slice.isHasNext(), slice.getNextCursor() != null);
+            cursor = slice.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private Long saveTransfer(BankCard from, BankCard to, int hoursAfterBase) {
+        Long id = transferRepository.save(Transfer.builder()
+                .fromCard(from)
+                .toCard(to)
+                .amount(100L)
+                .currency(Currency.RUB)
+                .status(TransferStatus.COMPLETED)
+                .build()).getId();
+        jdbcTemplate.update("UPDATE transfers SET transfer_date = ? WHERE id = ?", base.plusHours(hoursAfterBase), id);
+        return id;
+    }
+
+    private User createUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(User.builder()
+                .username("cursor-" + suffix)
+                .password("password")
+                .email("cursor-" + suffix + "@bank.com")
+                .role(Role.ROLE_USER)
+                .build());
+    }
+
+    private BankCard createCard(User user) {
+        return cardRepository.save(BankCard.builder()
+                .cardNumber("C-" + UUID.randomUUID().toString().substring(0, 8))
+                .cardHolderName(user.getUsername().toUpperCase())
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .currency(Currency.RUB)
+                .balance(1000L)
+                .user(user)
+                .build());
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.FeedBackfillResultDto;
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.feed.TransferFeedService;
+import com.example.bankcards.service.transfer.TransferService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Slf4j
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TransferFeedBenchmarkTest {
+
+    private static final int USERS = 1_000;
+    private static final int CARDS_PER_USER = 2;
+    private static final int INSERT_BATCH = 10_000;
+    private static final int ROUNDS = 50;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private TransferFeedService transferFeedService;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void userHistoryPage_LegacyJoinVersusFeed() {
+        long transfers = Long.getLong("benchmark.transfers", 10_000_000L);
+        List<User> users = new ArrayList<>();
+        List<Long> cardIds = new ArrayList<>();
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        for (int u = 0; u < USERS; u++) {
+            User user = createUser("bench-" + u + "-" + suffix);
+            users.add(user);
+            for (int c = 0; c < CARDS_PER_USER; c++) {
+                cardIds.add(createCard(user, "BN-" + u + "-" + c + "-" + suffix).getId());
+            }
+        }
+
+        long seedStartedAt = System.nanoTime();
+        seedTransfers(cardIds, transfers);
+        long seedMs = (System.nanoTime() - seedStartedAt) / 1_000_000;
+        FeedBackfillResultDto backfill = transferFeedService.backfill();
+
+        User probe = users.get(USERS / 2);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                probe.getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        PageRequest page = PageRequest.of(5, 20, Sort.by(Sort.Direction.DESC, "transferDate", "id"));
+
+        long legacyTotal = transferRepository.findViewsByUserId(probe.getId(), page).getTotalElements();
+        long feedTotal = transferService.getUserTransfers(page).getTotalElements();
+        assertEquals(legacyTotal, feedTotal);
+
+        long[] legacy = time(() -> transferRepository.findViewsByUserId(probe.getId(), page).getContent().size());
+        long[] feed = time(() -> transferService.getUserTransfers(page).getContent().size());
+
+        log.info("seeded {} transfers in {} ms, feed backfill {} rows in {} ms",
+                transfers, seedMs, backfill.getRowsWritten(), backfill.getElapsedMs());
+        log.info("LEGACY total={} p50={}ms p99={}ms", legacyTotal, millis(legacy[ROUNDS / 2]),
+                millis(legacy[ROUNDS * 99 / 100]));
+        log.info("FEED total={} p50={}ms p99={}ms", feedTotal, millis(feed[ROUNDS / 2]),
+                millis(feed[ROUNDS * 99 / 100]));
+    }
+
+    private void seedTransfers(List<Long> cardIds, long transfers) {
+        Random random = new Random(42);
+        OffsetDateTime start = OffsetDateTime.now().minusYears(1);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (long i = 0; i < transfers; i++) {
+            long from = cardIds.get(random.nextInt(cardIds.size()));
+            long to = cardIds.get(random.nextInt(cardIds.size()));
+            if (from == to) {
+                to = cardIds.get((cardIds.indexOf(from) + 1) % cardIds.size());
+            }
+            long amount = 1L + random.nextInt(10_000);
+            batch.add(new Object[]{from, to, amount, "RUB", "COMPLETED", start.plusSeconds(i), amount, "RUB"});
+            if (batch.size() == INSERT_BATCH) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+    }
+
+    private void insert(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO transfers (id, from_card_id, to_card_id, amount, currency, status, " +
+                "transfer_date, credited_amount, credited_currency) " +
+                "VALUES (NEXT VALUE FOR transfer_seq, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    private long[] time(Supplier<Integer> query) {
+        for (int i = 0; i < 5; i++) {
+            query.get();
+        }
+        long[] samples = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long startedAt = System.nanoTime();
+            query.get();
+            samples[i] = System.nanoTime() - startedAt;
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private String millis(long nanos) {
+        return String.format("%.2f", nanos / 1e6);
+    }
+
+    private User createUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .password("password")
+                .email(username + "@bank.com")
+                .role(Role.ROLE_USER)
+                .build());
+    }
+
+    private BankCard createCard(User user, String cardNumber) {
+        return cardRepository.save(BankCard.builder()
+                .cardNumber(cardNumber)
+                .cardHolderName(user.getUsername().toUpperCase())
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .currency(Currency.RUB)
+                .balance(0L)
+                .user(user)
+                .build());
+    }
+}
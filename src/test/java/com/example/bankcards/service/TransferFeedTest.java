@@ -0,0 +1,178 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.FeedBackfillResultDto;
+import com.example.bankcards.dto.TransferDto;
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.feed.TransferFeedService;
+import com.example.bankcards.service.transfer.TransferService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TransferFeedTest {
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private TransferFeedService transferFeedService;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private User other;
+    private BankCard own;
+    private BankCard savings;
+    private BankCard foreign;
+
+    @BeforeEach
+    void setUp() {
+        owner = createUser();
+        other = createUser();
+        own = createCard(owner);
+        savings = createCard(owner);
+        foreign = createCard(other);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void createTransfer_ShouldAppendOneRowPerParticipant() {
+        authenticate(owner);
+        Long internal = transferService.createTransfer(request(own, savings)).getId();
+        Long outgoing = transferService.createTransfer(request(own, foreign)).getId();
+
+        assertEquals(List.of("INTERNAL"), directions(owner, internal));
+        assertEquals(List.of(), directions(other, internal));
+        assertEquals(List.of("OUTGOING"), directions(owner, outgoing));
+        assertEquals(List.of("INCOMING"), directions(other, outgoing));
+    }
+
+    @Test
+    void feedPages_ShouldSplitByDirectionWithoutDuplicates() {
+        authenticate(owner);
+        Long internal = transferService.createTransfer(request(own, savings)).getId();
+        Long outgoing = transferService.createTransfer(request(own, foreign)).getId();
+        authenticate(other);
+        Long incoming = transferService.createTransfer(request(foreign, own)).getId();
+
+        authenticate(owner);
+        PageRequest newestFirst = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "transferDate"));
+        assertEquals(List.of(incoming, outgoing, internal), ids(transferService.getUserTransfers(newestFirst)));
+        assertEquals(List.of(outgoing, internal), ids(transferService.getOutgoingTransfers(newestFirst)));
+        assertEquals(List.of(incoming, internal), ids(transferService.getIncomingTransfers(newestFirst)));
+
+        Page<TransferDto> firstPage = transferService.getUserTransfers(PageRequest.of(0, 2, Sort.by("transferDate")));
+        assertEquals(3, firstPage.getTotalElements());
+        assertEquals(List.of(internal, outgoing), ids(firstPage));
+    }
+
+    @Test
+    void backfill_ShouldIndexTransfersWrittenOutsideTheServiceOnce() {
+        Long legacy = transferRepository.save(Transfer.builder()
+                .fromCard(foreign)
+                .toCard(savings)
+                .amount(100L)
+                .currency(Currency.RUB)
+                .status(TransferStatus.COMPLETED)
+                .build()).getId();
+        assertEquals(List.of(), directions(owner, legacy));
+
+        FeedBackfillResultDto first = transferFeedService.backfill();
+        FeedBackfillResultDto second = transferFeedService.backfill();
+
+        assertTrue(first.getRowsWritten() >= 2);
+        assertEquals(0, second.getRowsWritten());
+        assertTrue(transferFeedService.isBackfilled());
+        assertEquals(List.of("INCOMING"), directions(owner, legacy));
+        assertEquals(List.of("OUTGOING"), directions(other, legacy));
+
+        authenticate(owner);
+        assertEquals(List.of(legacy), ids(transferService.getIncomingTransfers(PageRequest.of(0, 10))));
+    }
+
+    private List<String> directions(User user, Long transferId) {
+        return jdbcTemplate.queryForList(
+                "SELECT direction FROM user_transfer_feed WHERE user_id = ? AND transfer_id = ?",
+                String.class, user.getId(), transferId);
+    }
+
+    private List<Long> ids(Page<TransferDto> page) {
+        return page.getContent().stream().map(TransferDto::getId).toList();
+    }
+
+    private TransferRequest request(BankCard from, BankCard to) {
+        return TransferRequest.builder()
+                .fromCardId(from.getId())
+                .toCardId(to.getId())
+                .amount(10L)
+                .currency(Currency.RUB)
+                .build();
+    }
+
+    private void authenticate(User user) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user.getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    private User createUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(User.builder()
+                .username("feed-" + suffix)
+                .password("password")
+                .email("feed-" + suffix + "@bank.com")
+                .role(Role.ROLE_USER)
+                .build());
+    }
+
+    private BankCard createCard(User user) {
+        return cardRepository.save(BankCard.builder()
+                .cardNumber("F-" + UUID.randomUUID().toString().substring(0, 8))
+                .cardHolderName(user.getUsername().toUpperCase())
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .currency(Currency.RUB)
+                .balance(1000L)
+                .user(user)
+                .build());
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.exception.TooManyRequestsException;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.pipeline.TransferPipeline;
+import com.example.bankcards.service.pipeline.TransferRingBuffer;
+import com.example.bankcards.service.pipeline.TransferSettler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransferPipelineTest {
+
+    @Mock
+    private TransferSettler settler;
+
+    private TransferPipeline pipeline;
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+    }
+
+    @Test
+    void ringBuffer_WhenFull_ShouldRejectClaimUntilConsumed() {
+        TransferRingBuffer buffer = new TransferRingBuffer(4);
+        for (long i = 0; i < 4; i++) {
+            assertEquals(i, buffer.tryClaim());
+        }
+        assertEquals(TransferRingBuffer.FULL, buffer.tryClaim());
+
+        buffer.publish(1, 11L);
+        buffer.publish(0, 10L);
+        buffer.publish(2, TransferRingBuffer.ABANDONED);
+        long[] batch = new long[8];
+
+        assertEquals(2, buffer.drainTo(batch));
+        assertArrayEquals(new long[]{10L, 11L}, Arrays.copyOf(batch, 2));
+        assertEquals(1, buffer.size());
+        assertEquals(4, buffer.tryClaim());
+    }
+
+    @Test
+    void ringBuffer_WithConcurrentProducers_ShouldDeliverEveryPublishedValueOnce() throws Exception {
+        TransferRingBuffer buffer = new TransferRingBuffer(64);
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int producer = 0; producer < 4; producer++) {
+            long base = producer * 1_000L;
+            futures.add(producers.submit(() -> {
+                for (long i = 1; i <= 500; i++) {
+                    long sequence;
+                    while ((sequence = buffer.tryClaim()) == TransferRingBuffer.FULL) {
+                        Thread.onSpinWait();
+                    }
+                    buffer.publish(sequence, base + i);
+                }
+            }));
+        }
+
+        long[] batch = new long[16];
+        long sum = 0;
+        int received = 0;
+        while (received < 2_000) {
+            int drained = buffer.drainTo(batch);
+            for (int i = 0; i < drained; i++) {
+                sum += batch[i];
+            }
+            received += drained;
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        producers.shutdown();
+
+        long expected = 0;
+        for (int producer = 0; producer < 4; producer++) {
+            expected += 500L * producer * 1_000L + 500L * 501L / 2;
+        }
+        assertEquals(expected, sum);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void publish_ShouldSettleTransfersInMicroBatches() {
+        when(settler.settle(anyList())).thenReturn(new TransferSettler.SettlementResult(1, 0));
+        pipeline = new TransferPipeline(settler, new SimpleMeterRegistry(), 1, 16, 10, 100);
+
+        TransferPipeline.Ticket first = pipeline.claim(1L);
+        TransferPipeline.Ticket second = pipeline.claim(1L);
+        pipeline.publishAfterCommit(first, 100L);
+        pipeline.abandon(second);
+
+        verify(settler, timeout(5_000)).settle(List.of(100L));
+        verify(settler, never()).settle(List.of(-1L));
+    }
+
+    @Test
+    void claim_WhenPartitionFull_ShouldThrowTooManyRequests() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        pipeline = new TransferPipeline(settler, registry, 2, 2, 10, 100);
+
+        pipeline.claim(2L);
+        pipeline.claim(4L);
+
+        assertThrows(TooManyRequestsException.class, () -> pipeline.claim(6L));
+        assertNotNull(pipeline.claim(1L));
+        assertEquals(3, pipeline.depth());
+        assertEquals(2.0, registry.get("transfer.pipeline.depth").tag("partition", "0").gauge().value());
+    }
+
+    @Test
+    void recoverPending_ShouldReEnqueueEveryPendingTransfer() {
+        when(settler.settle(anyList())).thenReturn(new TransferSettler.SettlementResult(1, 0));
+        when(settler.findPendingAfter(eq(0L), anyInt())).thenReturn(List.of(pending(5L, 1L), pending(7L, 2L)));
+        when(settler.findPendingAfter(eq(7L), anyInt())).thenReturn(List.of(pending(9L, 1L)));
+        pipeline = new TransferPipeline(settler, new SimpleMeterRegistry(), 1, 2, 2, 100);
+
+        assertEquals(3, pipeline.recoverPending());
+
+        verify(settler, timeout(5_000).atLeastOnce()).settle(argThat(ids -> ids.contains(9L)));
+        verify(settler, atLeastOnce()).settle(argThat(ids -> ids.contains(5L)));
+    }
+
+    private TransferRepository.PendingEntry pending(Long id, Long fromCardId) {
+        return new TransferRepository.PendingEntry() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getFromCardId() {
+                return fromCardId;
+            }
+        };
+    }
+}
@@ -1,11 +1,17 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.DisbursementLegRequest;
+import com.example.bankcards.dto.DisbursementRequest;
+import com.example.bankcards.dto.DisbursementResultDto;
 import com.example.bankcards.dto.TransferDto;
 import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.dto.TransferResultDto;
+import com.example.bankcards.dto.TransferStatusDto;
 import com.example.bankcards.entity.BankCard;
 import com.example.bankcards.entity.Transfer;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Currency;
 import com.example.bankcards.entity.enums.TransferStatus;
 import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.exception.CardNotFoundException;
@@ -13,24 +19,49 @@ import com.example.bankcards.exception.TransferNotFoundException;
 import com.example.bankcards.mapper.TransferMapper;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserTransferFeedRepository;
+import com.example.bankcards.repository.projection.TransferView;
 import com.example.bankcards.security.SecurityService;
+import com.example.bankcards.service.card.CardBalanceShardService;
+import com.example.bankcards.service.exchange.ExchangeRateService;
+import com.example.bankcards.service.feed.TransferFeedService;
+import com.example.bankcards.service.idempotency.IdempotencyService;
+import com.example.bankcards.service.pipeline.TransferPipeline;
+import com.example.bankcards.service.statistics.OutgoingRollupService;
+import com.example.bankcards.service.transfer.TransferCompletedEvent;
 import com.example.bankcards.service.transfer.TransferServiceImpl;
+import com.example.bankcards.service.transfer.TransferStrategy;
+import com.example.bankcards.service.velocity.VelocityLimiter;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,6 +79,33 @@ class TransferServiceImplTest {
     @Mock
     private SecurityService securityService;
 
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private ObjectProvider<TransferPipeline> transferPipeline;
+
+    @Mock
+    private CardBalanceShardService cardBalanceShardService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private VelocityLimiter velocityLimiter;
+
+    @Mock
+    private OutgoingRollupService outgoingRollupService;
+
+    @Mock
+    private ExchangeRateService exchangeRateService;
+
+    @Mock
+    private TransferFeedService transferFeedService;
+
+    @Mock
+    private UserTransferFeedRepository feedRepository;
+
     @InjectMocks
     private TransferServiceImpl transferService;
 
@@ -69,6 +127,13 @@ class TransferServiceImplTest {
         return card;
     }
 
+    private BankCard createActiveCard(Long id, User user, Long balance) {
+        BankCard card = createTestCard(id, user, balance, true);
+        card.setExpirationDate(LocalDate.now().plusYears(2));
+        card.setCurrency(Currency.RUB);
+        return card;
+    }
+
     private Transfer createTestTransfer(Long id, BankCard fromCard, BankCard toCard, Long amount) {
         Transfer transfer = new Transfer();
         transfer.setId(id);
@@ -151,14 +216,14 @@ class TransferServiceImplTest {
         TransferDto transferDto = TransferDto.builder().id(1L).amount(1000L).build();
 
         when(securityService.getCurrentUser()).thenReturn(user);
-        when(transferRepository.findById(1L)).thenReturn(Optional.of(transfer));
+        when(transferRepository.findWithCardsById(1L)).thenReturn(Optional.of(transfer));
         when(transferMapper.toDTO(transfer)).thenReturn(transferDto);
 
         TransferDto result = transferService.getTransferById(1L);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
-        verify(transferRepository).findById(1L);
+        verify(transferRepository).findWithCardsById(1L);
     }
 
     @Test
@@ -170,7 +235,7 @@ class TransferServiceImplTest {
         Transfer transfer = createTestTransfer(1L, fromCard, toCard, 1000L);
 
         when(securityService.getCurrentUser()).thenReturn(user);
-        when(transferRepository.findById(1L)).thenReturn(Optional.of(transfer));
+        when(transferRepository.findWithCardsById(1L)).thenReturn(Optional.of(transfer));
 
         assertThrows(TransferNotFoundException.class, () -> transferService.getTransferById(1L));
     }
@@ -179,19 +244,52 @@ class TransferServiceImplTest {
     void getUserTransfers_ShouldReturnUserTransfers() {
         User user = createTestUser(1L);
         Pageable pageable = PageRequest.of(0, 10);
-        Transfer transfer = createTestTransfer(1L, createTestCard(1L, user, 5000L, true),
-                createTestCard(2L, createTestUser(2L), 1000L, true), 1000L);
-        Page<Transfer> transfersPage = new PageImpl<>(Collections.singletonList(transfer));
+        TransferView view = new TransferView(1L, 1L, "1111", 2L, "2222", 1000L, Currency.RUB, null,
+                OffsetDateTime.now(), TransferStatus.COMPLETED, BigDecimal.ONE, 1000L, Currency.RUB);
+        Page<Long> feedPage = new PageImpl<>(Collections.singletonList(1L), pageable, 1);
 
         when(securityService.getCurrentUser()).thenReturn(user);
-        when(transferRepository.findByUserId(1L, pageable)).thenReturn(transfersPage);
-        when(transferMapper.toDTO(any(Transfer.class))).thenReturn(TransferDto.builder().id(1L).build());
+        when(transferFeedService.isBackfilled()).thenReturn(true);
+        when(feedRepository.findTransferIds(eq(1L), anyCollection(), eq(pageable))).thenReturn(feedPage);
+        when(transferRepository.findViewsByIdIn(List.of(1L))).thenReturn(List.of(view));
+        when(transferMapper.toDTO(view)).thenReturn(TransferDto.builder().id(1L).build());
 
         Page<TransferDto> result = transferService.getUserTransfers(pageable);
 
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
-        verify(transferRepository).findByUserId(1L, pageable);
+        assertEquals(1L, result.getTotalElements());
+        verify(transferRepository, never()).findViewsByUserId(any(), any());
+    }
+
+    @Test
+    void getUserTransfers_BeforeFeedBackfill_ShouldFallBackToTransferQuery() {
+        User user = createTestUser(1L);
+        Pageable pageable = PageRequest.of(0, 10);
+
+        when(securityService.getCurrentUser()).thenReturn(user);
+        when(transferFeedService.isBackfilled()).thenReturn(false);
+        when(transferRepository.findViewsByUserId(1L, pageable)).thenReturn(Page.empty(pageable));
+
+        Page<TransferDto> result = transferService.getUserTransfers(pageable);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(feedRepository);
+    }
+
+    @Test
+    void getUserTransfers_SortedByNonFeedProperty_ShouldFallBackToTransferQuery() {
+        User user = createTestUser(1L);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("amount"));
+
+        when(securityService.getCurrentUser()).thenReturn(user);
+        when(transferFeedService.isBackfilled()).thenReturn(true);
+        when(transferRepository.findViewsByUserId(1L, pageable)).thenReturn(Page.empty(pageable));
+
+        Page<TransferDto> result = transferService.getUserTransfers(pageable);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(feedRepository);
     }
 
     @Test
@@ -201,12 +299,12 @@ class TransferServiceImplTest {
         OffsetDateTime endDate = OffsetDateTime.now();
 
         when(securityService.getCurrentUser()).thenReturn(user);
-        when(transferRepository.getTotalOutgoingAmountByUserIdAndPeriod(1L, startDate, endDate)).thenReturn(5000L);
+        when(outgoingRollupService.getTotalOutgoing(1L, startDate, endDate)).thenReturn(5000L);
 
         Long result = transferService.getTotalOutgoingAmountForPeriod(startDate, endDate);
 
         assertEquals(5000L, result);
-        verify(transferRepository).getTotalOutgoingAmountByUserIdAndPeriod(1L, startDate, endDate);
+        verify(outgoingRollupService).getTotalOutgoing(1L, startDate, endDate);
     }
 
     @Test
@@ -216,7 +314,7 @@ class TransferServiceImplTest {
         OffsetDateTime endDate = OffsetDateTime.now();
 
         when(securityService.getCurrentUser()).thenReturn(user);
-        when(transferRepository.getTotalOutgoingAmountByUserIdAndPeriod(1L, startDate, endDate)).thenReturn(null);
+        when(outgoingRollupService.getTotalOutgoing(1L, startDate, endDate)).thenReturn(0L);
 
         Long result = transferService.getTotalOutgoingAmountForPeriod(startDate, endDate);
 
@@ -229,7 +327,7 @@ class TransferServiceImplTest {
                 createTestCard(2L, createTestUser(2L), 1000L, true), 1000L);
         transfer.setStatus(TransferStatus.PENDING);
 
-        when(transferRepository.findById(1L)).thenReturn(Optional.of(transfer));
+        when(transferRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(transfer));
         when(transferRepository.save(transfer)).thenReturn(transfer);
         when(transferMapper.toDTO(transfer)).thenReturn(TransferDto.builder().id(1L).status(TransferStatus.COMPLETED).build());
 
@@ -239,6 +337,7 @@ class TransferServiceImplTest {
         assertEquals(TransferStatus.COMPLETED, result.getStatus());
         assertEquals(TransferStatus.COMPLETED, transfer.getStatus());
         verify(transferRepository).save(transfer);
+        verify(outgoingRollupService).record(List.of(transfer));
     }
 
     @Test
@@ -247,7 +346,7 @@ class TransferServiceImplTest {
                 createTestCard(2L, createTestUser(2L), 1000L, true), 1000L);
         transfer.setStatus(TransferStatus.COMPLETED);
 
-        when(transferRepository.findById(1L)).thenReturn(Optional.of(transfer));
+        when(transferRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(transfer));
 
         assertThrows(BadRequestException.class, () -> transferService.updateTransferStatus(1L, TransferStatus.CANCELLED));
         verify(transferRepository, never()).save(any(Transfer.class));
@@ -259,7 +358,7 @@ class TransferServiceImplTest {
                 createTestCard(2L, createTestUser(2L), 1000L, true), 1000L);
         transfer.setStatus(TransferStatus.PENDING);
 
-        when(transferRepository.findById(1L)).thenReturn(Optional.of(transfer));
+        when(transferRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(transfer));
         when(transferRepository.save(transfer)).thenReturn(transfer);
 
         transferService.cancelTransfer(1L);
@@ -274,9 +373,501 @@ class TransferServiceImplTest {
                 createTestCard(2L, createTestUser(2L), 1000L, true), 1000L);
         transfer.setStatus(TransferStatus.COMPLETED);
 
-        when(transferRepository.findById(1L)).thenReturn(Optional.of(transfer));
+        when(transferRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(transfer));
 
         assertThrows(BadRequestException.class, () -> transferService.cancelTransfer(1L));
         verify(transferRepository, never()).save(any(Transfer.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void createTransfer_WithAtomicUpdate_ShouldDebitAndCreditInDatabase() {
+        User user = createTestUser(1L);
+        BankCard fromCard = createActiveCard(1L, user, 5000L);
+        BankCard toCard = createActiveCard(2L, createTestUser(2L), 1000L);
+        TransferRequest request = TransferRequest.builder()
+                .fromCardId(1L)
+                .toCardId(2L)
+                .amount(1000L)
+                .currency(Currency.RUB)
+                .build();
+        Transfer transfer = Transfer.builder().amount(1000L).build();
+
+        when(securityService.getCurrentUser()).thenReturn(user);
+        when(cardRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
+        when(transferMapper.toEntityFromRequest(request)).thenReturn(transfer);
+        when(cardRepository.debitIfSufficient(1L, 1000L)).thenReturn(1);
+        when(cardRepository.creditIfActive(2L, 1000L)).thenReturn(1);
+        when(transferRepository.save(transfer)).thenReturn(transfer);
+        when(transferMapper.toDTO(transfer)).thenReturn(TransferDto.builder().id(1L).status(TransferStatus.COMPLETED).build());
+
+        TransferDto result = transferService.createTransfer(request);
+
+        assertEquals(TransferStatus.COMPLETED, result.getStatus());
+        assertEquals(TransferStatus.COMPLETED, transfer.getStatus());
+        assertEquals(5000L, fromCard.getBalance());
+        assertEquals(1000L, toCard.getBalance());
+        verify(cardRepository).debitIfSufficient(1L, 1000L);
+        verify(cardRepository).creditIfActive(2L, 1000L);
+    }
+
+    @Test
+    void createTransfer_ToCardInOtherCurrency_ShouldCreditConvertedAmountAndRecordRate() {
+        User user = createTestUser(1L);
+        BankCard fromCard = createActiveCard(1L, user, 50000L);
+        BankCard toCard = createActiveCard(2L, createTestUser(2L), 1000L);
+        toCard.setCurrency(Currency.USD);
+        TransferRequest request = TransferRequest.builder()
+                .fromCardId(1L)
+                .toCardId(2L)
+                .amount(9250L)
+                .currency(Currency.RUB)
+                .build();
+        Transfer transfer = Transfer.builder().amount(9250L).build();
+        BigDecimal rate = new BigDecimal("0.01081081");
+
+        when(securityService.getCurrentUser()).thenReturn(user);
+        when(cardRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
+        when(exchangeRateService.convert(Currency.RUB, Currency.USD, 9250L))
+                .thenReturn(new ExchangeRateService.Conversion(Currency.USD, 100L, rate));
+        when(transferMapper.toEntityFromRequest(request)).thenReturn(transfer);
+        when(cardRepository.debitIfSufficient(1L, 9250L)).thenReturn(1);
+        when(cardRepository.creditIfActive(2L, 100L)).thenReturn(1);
+        when(transferRepository.save(transfer)).thenReturn(transfer);
+        when(transferMapper.toDTO(transfer)).thenReturn(TransferDto.builder().id(1L).status(TransferStatus.COMPLETED).build());
+
+        transferService.createTransfer(request);
+
+        assertEquals(rate, transfer.getExchangeRate());
+        assertEquals(100L, transfer.getCreditedAmount());
+        assertEquals(Currency.USD, transfer.getCreditedCurrency());
+        verify(cardRepository).debitIfSufficient(1L, 9250L);
+        verify(cardRepository).creditIfActive(2L, 100L);
+    }
+
+    @Test
+    void createTransfer_WithAtomicUpdate_WhenDebitUpdatesNoRows_ShouldThrowException() {
+        User user = createTestUser(1L);
+        BankCard fromCard = createActiveCard(1L, user, 5000L);
+        BankCard toCard = createActiveCard(2L, createTestUser(2L), 1000L);
+        TransferRequest request = TransferRequest.builder()
+                .fromCardId(1L)
+                .toCardId(2L)
+                .amount(1000L)
+                .currency(Currency.RUB)
+                .build();
+        Transfer transfer = Transfer.builder().amount(1000L).build();
+
+        when(securityService.getCurrentUser()).thenReturn(user);
+        when(cardRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
+        when(transferMapper.toEntityFromRequest(request)).thenReturn(transfer);
+        when(cardRepository.debitIfSufficient(1L, 1000L)).thenReturn(0);
+
+        assertThrows(BadRequestException.class, () -> transferService.createTransfer(request));
+        assertEquals(TransferStatus.FAILED, transfer.getStatus());
+        verify(cardRepository, never()).creditIfActive(any(), any());
+    }
+
+    @Test
+    void createTransfer_WithPessimisticLock_ShouldLockCardsInAscendingIdOrder() {
+        ReflectionTestUtils.setField(transferService, "strategy", TransferStrategy.PESSIMISTIC_LOCK);
+        User user = createTestUser(1L);
+        BankCard fromCard = createActiveCard(2L, user, 5000L);
+        BankCard toCard = createActiveCard(1L, createTestUser(2L), 1000L);
+        TransferRequest request = TransferRequest.builder()
+                .fromCardId(2L)
+                .toCardId(1L)
+                .amount(1000L)
+                .currency(Currency.RUB)
+                .build();
+        Transfer transfer = Transfer.builder().amount(1000L).build();
+
+        when(securityService.getCurrentUser()).thenReturn(user);
+        when(cardRepository.findByIdForUpdate(any())).thenReturn(Optional.empty());
+        when(cardRepository.findByIdAndUserId(2L, 1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(toCard));
+        when(transferMapper.toEntityFromRequest(request)).thenReturn(transfer);
+        when(transferRepository.save(transfer)).thenReturn(transfer);
+        when(transferMapper.toDTO(transfer)).thenReturn(TransferDto.builder().id(1L).build());
+
+        transferService.createTransfer(request);
+
+        InOrder inOrder = inOrder(cardRepository);
+        inOrder.verify(cardRepository).findByIdForUpdate(1L);
+        inOrder.verify(cardRepository).findByIdForUpdate(2L);
+        assertEquals(4000L, fromCard.getBalance());
+        assertEquals(2000L, toCard.getBalance());
+        verify(cardRepository, never()).debitIfSufficient(any(), any());
+    }
+
+    @Test
+    void createTransfer_WithOptimisticLock_ShouldUpdateBalancesThroughEntities() {
+        ReflectionTestUtils.setField(transferService, "strategy", TransferStrategy.OPTIMISTIC_LOCK);
+        User user = createTestUser(1L);
+        BankCard fromCard = createActiveCard(1L, user, 5000L);
+        BankCard toCard = createActiveCard(2L, createTestUser(2L), 1000L);
+        TransferRequest request = TransferRequest.builder()
+                .fromCardId(1L)
+                .toCardId(2L)
+                .amount(1000L)
+                .currency(Currency.RUB)
+                .build();
+        Transfer transfer = Transfer.builder().amount(1000L).build();
+
+        when(securityService.getCurrentUser()).thenReturn(user);
+        when(cardRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
+        when(transferMapper.toEntityFromRequest(request)).thenReturn(transfer);
+        when(transferRepository.save(transfer)).thenReturn(transfer);
+        when(transferMapper.toDTO(transfer)).thenReturn(TransferDto.builder().id(1L).build());
+
+        transferService.createTransfer(request);
+
+        assertEquals(4000L, fromCard.getBalance());
+        assertEquals(2000L, toCard.getBalance());
+        verify(cardRepository, never()).findByIdForUpdate(any());
+        verify(cardRepository, never()).debitIfSufficient(any(), any());
+        verify(eventPublisher).publishEvent(new TransferCompletedEvent(List.of(transfer)));
+    }
+
+    @Test
+    void createTransfer_WhenVelocityLimitExceeded_ShouldRejectWithoutMovingFunds() {
+        User user = createTestUser(1L);
+        BankCard fromCard = createActiveCard(1L, user, 5000L);
+        BankCard toCard = createActiveCard(2L, createTestUser(2L), 1000L);
+        TransferRequest request = TransferRequest.builder()
+                .fromCardId(1L)
+                .toCardId(2L)
+                .amount(1000L)
+                .currency(Currency.RUB)
+                .build();
+
+        when(securityService.getCurrentUser()).thenReturn(user);
+        when(cardRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
+        doThrow(new BadRequestException("Card hourly spend limit of 500 exceeded"))
+                .when(velocityLimiter).acquire(fromCard, 1000L, Currency.RUB);
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> transferService.createTransfer(request));
+
+        assertEquals("Card hourly spend limit of 500 exceeded", exception.getMessage());
+        assertEquals(5000L, fromCard.getBalance());
+        verify(transferRepository, never()).save(any());
+        verify(cardRepository, never()).debitIfSufficient(any(), any());
+    }
+
+    @Test
+    void createTransfers_ShouldLoadCardsOnceAndReportPerItemResults() {
+        User user = createTestUser(1L);
+        BankCard fromCard = createActiveCard(1L, user, 5000L);
+        BankCard toCard = createActiveCard(2L, createTestUser(2L), 1000L);
+        List<TransferRequest> requests = List.of(
+                TransferRequest.builder().fromCardId(1L).toCardId(2L).amount(1000L).currency(Currency.RUB).build(),
+                TransferRequest.builder().fromCardId(1L).toCardId(3L).amount(1000L).currency(Currency.RUB).build(),
+                TransferRequest.builder().fromCardId(1L).toCardId(2L).amount(4500L).currency(Currency.RUB).build(),
+                TransferRequest.builder().fromCardId(1L).toCardId(2L).amount(4000L).currency(Currency.RUB).build());
+
+        when(securityService.getCurrentUser()).thenReturn(user);
+        when(cardRepository.findAllByIdForUpdate(any())).thenReturn(List.of(fromCard, toCard));
+        when(transferMapper.toEntityFromRequest(any(TransferRequest.class))).thenAnswer(invocation ->
+                Transfer.builder().amount(invocation.getArgument(0, TransferRequest.class).getAmount()).build());
+        when(transferRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(transferMapper.toDTO(any(Transfer.class))).thenReturn(TransferDto.builder().id(1L).build());
+
+        List<TransferResultDto> results = transferService.createTransfers(requests);
+
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("Destination card not found", results.get(1).getError());
+        assertFalse(results.get(2).isSuccess());
+        assertEquals("Insufficient funds", results.get(2).getError());
+        assertTrue(results.get(3).isSuccess());
+        assertEquals(0L, fromCard.getBalance());
+        assertEquals(6000L, toCard.getBalance());
+        verify(cardRepository).findAllByIdForUpdate(any());
+        verify(transferRepository).saveAll(argThat(transfers -> ((List<?>) transfers).size() == 2));
+        verify(cardRepository, never()).findById(any());
+    }
+
+    @Test
+    void createTransfers_ToShardedCard_ShouldCreditThroughShards() {
+        User user = createTestUser(1L);
+        BankCard fromCard = createActiveCard(1L, user, 5000L);
+        BankCard toCard = createActiveCard(2L, createTestUser(2L), 1000L);
+        toCard.setBalanceShards(4);
+        List<TransferRequest> requests = List.of(
+                TransferRequest.builder().fromCardId(1L).toCardId(2L).amount(1500L).currency(Currency.RUB).build());
+
+        when(securityService.getCurrentUser()).thenReturn(user);
+        when(cardRepository.findAllByIdForUpdate(any())).thenReturn(List.of(fromCard, toCard));
+        when(transferMapper.toEntityFromRequest(any(TransferRequest.class))).thenAnswer(invocation ->
+                Transfer.builder().amount(invocation.getArgument(0, TransferRequest.class).getAmount()).build());
+        when(transferRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(transferMapper.toDTO(any(Transfer.class))).thenReturn(TransferDto.builder().id(1L).build());
+
+        List<TransferResultDto> results = transferService.createTransfers(requests);
+
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(3500L, fromCard.getBalance());
+        assertEquals(1000L, toCard.getBalance());
+        verify(cardBalanceShardService).credit(toCard, 1500L);
+    }
+
+    @Test
+    void createDisbursement_WithContinueOnError_ShouldDebitSourceOnceAndReportFailedLegs() {
+        User user = createTestUser(1L);
+        BankCard fromCard = createActiveCard(1L, user, 5000L);
+        BankCard firstCard = createActiveCard(2L, createTestUser(2L), 0L);
+        BankCard blockedCard = createTestCard(3L, createTestUser(3L), 0L, false);
+        blockedCard.setExpirationDate(LocalDate.now().plusYears(2));
+        blockedCard.setCurrency(Currency.RUB);
+        BankCard dollarCard = createActiveCard(4L, createTestUser(4L), 0L);
+        dollarCard.setCurrency(Currency.USD);
+        BankCard lastCard = createActiveCard(5L, createTestUser(5L), 0L);
+        DisbursementRequest request = DisbursementRequest.builder()
+                .fromCardId(1L)
+                .currency(Currency.RUB)
+                .description("Payroll")
+                .continueOnError(true)
+                .legs(List.of(
+                        DisbursementLegRequest.builder().toCardId(2L).amount(1000L).build(),
+                        DisbursementLegRequest.builder().toCardId(3L).amount(1000L).build(),
+                        DisbursementLegRequest.builder().toCardId(4L).amount(1000L).build(),
+                        DisbursementLegRequest.builder().toCardId(5L).amount(2500L).build()))
+                .build();
+
+        when(securityService.getCurrentUser()).thenReturn(user);
+        when(cardRepository.findAllByIdForUpdate(any()))
+                .thenReturn(List.of(fromCard, firstCard, blockedCard, dollarCard, lastCard));
+        when(exchangeRateService.convert(Currency.RUB, Currency.USD, 1000L))
+                .thenThrow(new BadRequestException("No exchange rate available from RUB to USD"));
+        when(transferRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(transferMapper.toDTO(any(Transfer.class))).thenReturn(TransferDto.builder().id(1L).build());
+
+        DisbursementResultDto result = transferService.createDisbursement(request);
+
+        assertEquals(3500L, result.getTotalDebited());
+        assertEquals(2, result.getCompletedLegs());
+        assertEquals(2, result.getFailedLegs());
+        assertTrue(result.getLegs().get(0).isSuccess());
+        assertEquals("Destination card is not active", result.getLegs().get(1).getError());
+        assertEquals("No exchange rate available from RUB to USD", result.getLegs().get(2).getError());
+        assertTrue(result.getLegs().get(3).isSuccess());
+        assertEquals(1500L, fromCard.getBalance());
+        assertEquals(1000L, firstCard.getBalance());
+        assertEquals(2500L, lastCard.getBalance());
+        assertEquals(0L, blockedCard.getBalance());
+        verify(cardRepository).findAllByIdForUpdate(argThat(ids -> List.copyOf(ids).equals(List.of(1L, 2L, 3L, 4L, 5L))));
+        verify(transferRepository).saveAll(argThat(transfers -> ((List<?>) transfers).size() == 2));
+    }
+
+    @Test
+    void createDisbursement_WithoutContinueOnError_ShouldAbortOnFirstFailedLeg() {
+        User user = createTestUser(1L);
+        BankCard fromCard = createActiveCard(1L, user, 5000L);
+        BankCard firstCard = createActiveCard(2L, createTestUser(2L), 0L);
+        DisbursementRequest request = DisbursementRequest.builder()
+                .fromCardId(1L)
+                .currency(Currency.RUB)
+                .legs(List.of(
+                        DisbursementLegRequest.builder().toCardId(2L).amount(1000L).build(),
+                        DisbursementLegRequest.builder().toCardId(2L).amount(9000L).build()))
+                .build();
+
+        when(securityService.getCurrentUser()).thenReturn(user);
+        when(cardRepository.findAllByIdForUpdate(any())).thenReturn(List.of(fromCard, firstCard));
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> transferService.createDisbursement(request));
+
+        assertEquals("Disbursement leg 1 failed: Insufficient funds", exception.getMessage());
+        verify(transferRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void createTransfer_WithKnownIdempotencyKey_ShouldReturnStoredTransferWithoutTouchingCards() {
+        User user = createTestUser(1L);
+        TransferRequest request = createTransferRequest(1L, 2L, 1000L);
+        TransferDto stored = TransferDto.builder().id(7L).amount(1000L).status(TransferStatus.COMPLETED).build();
+
+        when(securityService.getCurrentUser()).thenReturn(user);
+        when(idempotencyService.findTransfer(1L, "retry-1", request)).thenReturn(Optional.of(stored));
+
+        TransferDto result = transferService.createTransfer(request, "retry-1");
+
+        assertSame(stored, result);
+        verifyNoInteractions(cardRepository, transferRepository);
+        verify(idempotencyService, never()).saveTransfer(any(), any(), any(), any());
+    }
+
+    @Test
+    void createTransfer_WithNewIdempotencyKey_ShouldStoreCreatedTransfer() {
+        User user = createTestUser(1L);
+        BankCard fromCard = createActiveCard(1L, user, 5000L);
+        BankCard toCard = createActiveCard(2L, createTestUser(2L), 1000L);
+        TransferRequest request = TransferRequest.builder()
+                .fromCardId(1L).toCardId(2L).amount(1000L).currency(Currency.RUB).build();
+        Transfer transfer = createTestTransfer(1L, fromCard, toCard, 1000L);
+        TransferDto dto = TransferDto.builder().id(1L).build();
+
+        when(securityService.getCurrentUser()).thenReturn(user);
+        when(idempotencyService.findTransfer(1L, "retry-2", request)).thenReturn(Optional.empty());
+        when(cardRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
+        when(transferMapper.toEntityFromRequest(request)).thenReturn(transfer);
+        when(cardRepository.debitIfSufficient(1L, 1000L)).thenReturn(1);
+        when(cardRepository.creditIfActive(2L, 1000L)).thenReturn(1);
+        when(transferRepository.save(any(Transfer.class))).thenReturn(transfer);
+        when(transferMapper.toDTO(transfer)).thenReturn(dto);
+
+        TransferDto result = transferService.createTransfer(request, "retry-2");
+
+        assertSame(dto, result);
+        InOrder order = inOrder(idempotencyService, cardRepository);
+        order.verify(idempotencyService).reserveKey(1L, "retry-2", request);
+        order.verify(cardRepository).debitIfSufficient(1L, 1000L);
+        order.verify(idempotencyService).saveTransfer(1L, "retry-2", request, dto);
+    }
+
+    @Test
+    void createTransfer_WhenIdempotencyKeyReservedConcurrently_ShouldNotTouchBalances() {
+        User user = createTestUser(1L);
+        TransferRequest request = createTransferRequest(1L, 2L, 1000L);
+
+        when(securityService.getCurrentUser()).thenReturn(user);
+        when(idempotencyService.findTransfer(1L, "retry-3", request)).thenReturn(Optional.empty());
+        doThrow(new DataIntegrityViolationException("uk_idempotency_key_user_key"))
+                .when(idempotencyService).reserveKey(1L, "retry-3", request);
+
+        assertThrows(DataIntegrityViolationException.class, () -> transferService.createTransfer(request, "retry-3"));
+
+        verifyNoInteractions(cardRepository, transferRepository);
+        verify(idempotencyService, never()).saveTransfer(any(), any(), any(), any());
+    }
+
+    @Test
+    void createTransfer_WithAsyncPipeline_ShouldPersistPendingAndEnqueueWithoutTouchingBalances() {
+        User user = createTestUser(1L);
+        BankCard fromCard = createActiveCard(1L, user, 5000L);
+        BankCard toCard = createActiveCard(2L, createTestUser(2L), 1000L);
+        TransferRequest request = TransferRequest.builder()
+                .fromCardId(1L).toCardId(2L).amount(1000L).currency(Currency.RUB).build();
+        Transfer transfer = Transfer.builder().amount(1000L).build();
+        Transfer savedTransfer = createTestTransfer(42L, fromCard, toCard, 1000L);
+        TransferPipeline pipeline = mock(TransferPipeline.class);
+        TransferPipeline.Ticket ticket = new TransferPipeline.Ticket(1, 0L);
+
+        when(securityService.getCurrentUser()).thenReturn(user);
+        when(cardRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
+        when(transferMapper.toEntityFromRequest(request)).thenReturn(transfer);
+        when(transferPipeline.getIfAvailable()).thenReturn(pipeline);
+        when(pipeline.claim(1L)).thenReturn(ticket);
+        when(transferRepository.save(transfer)).thenReturn(savedTransfer);
+        when(transferMapper.toDTO(savedTransfer)).thenReturn(TransferDto.builder().id(42L).status(TransferStatus.PENDING).build());
+
+        TransferDto result = transferService.createTransfer(request);
+
+        assertEquals(TransferStatus.PENDING, result.getStatus());
+        assertEquals(TransferStatus.PENDING, transfer.getStatus());
+        assertEquals(5000L, fromCard.getBalance());
+        verify(pipeline).publishAfterCommit(ticket, 42L);
+        verify(cardRepository, never()).debitIfSufficient(any(), any());
+    }
+
+    @Test
+    void getTransferStatus_ShouldReturnStatus() {
+        when(transferRepository.findStatusById(42L)).thenReturn(Optional.of(TransferStatus.PENDING));
+
+        TransferStatusDto result = transferService.getTransferStatus(42L);
+
+        assertEquals(42L, result.getId());
+        assertEquals(TransferStatus.PENDING, result.getStatus());
+    }
+
+    @Test
+    void getTransferStatus_WhenTransferMissing_ShouldThrowException() {
+        when(transferRepository.findStatusById(42L)).thenReturn(Optional.empty());
+
+        assertThrows(TransferNotFoundException.class, () -> transferService.getTransferStatus(42L));
+    }
+
+    @Test
+    void createTransfer_WithAtomicUpdate_ToShardedCard_ShouldCreditBalanceShard() {
+        User user = createTestUser(1L);
+        BankCard fromCard = createActiveCard(1L, user, 5000L);
+        BankCard toCard = createActiveCard(2L, createTestUser(2L), 1000L);
+        toCard.setBalanceShards(8);
+        TransferRequest request = TransferRequest.builder()
+                .fromCardId(1L).toCardId(2L).amount(1000L).currency(Currency.RUB).build();
+        Transfer transfer = Transfer.builder().amount(1000L).build();
+
+        when(securityService.getCurrentUser()).thenReturn(user);
+        when(cardRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
+        when(transferMapper.toEntityFromRequest(request)).thenReturn(transfer);
+        when(cardRepository.debitIfSufficient(1L, 1000L)).thenReturn(1);
+        when(cardRepository.isActiveById(2L)).thenReturn(true);
+        when(transferRepository.save(transfer)).thenReturn(transfer);
+        when(transferMapper.toDTO(transfer)).thenReturn(TransferDto.builder().id(1L).build());
+
+        transferService.createTransfer(request);
+
+        verify(cardBalanceShardService).credit(toCard, 1000L);
+        verify(cardRepository, never()).creditIfActive(any(), any());
+    }
+
+    @Test
+    void createTransfer_WithAtomicUpdate_ToInactiveShardedCard_ShouldNotCreditShards() {
+        User user = createTestUser(1L);
+        BankCard fromCard = createActiveCard(1L, user, 5000L);
+        BankCard toCard = createActiveCard(2L, createTestUser(2L), 1000L);
+        toCard.setBalanceShards(8);
+        TransferRequest request = TransferRequest.builder()
+                .fromCardId(1L).toCardId(2L).amount(1000L).currency(Currency.RUB).build();
+        Transfer transfer = Transfer.builder().amount(1000L).build();
+
+        when(securityService.getCurrentUser()).thenReturn(user);
+        when(cardRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
+        when(transferMapper.toEntityFromRequest(request)).thenReturn(transfer);
+        when(cardRepository.debitIfSufficient(1L, 1000L)).thenReturn(1);
+        when(cardRepository.isActiveById(2L)).thenReturn(false);
+
+        assertThrows(BadRequestException.class, () -> transferService.createTransfer(request));
+        verify(cardBalanceShardService, never()).credit(any(), anyLong());
+        assertEquals(TransferStatus.FAILED, transfer.getStatus());
+    }
+
+    @Test
+    void createTransfer_FromShardedCardWithLowBalance_ShouldDrainShardsBeforeValidation() {
+        User user = createTestUser(1L);
+        BankCard fromCard = createActiveCard(1L, user, 300L);
+        fromCard.setBalanceShards(4);
+        BankCard toCard = createActiveCard(2L, createTestUser(2L), 0L);
+        TransferRequest request = TransferRequest.builder()
+                .fromCardId(1L).toCardId(2L).amount(1000L).currency(Currency.RUB).build();
+        Transfer transfer = Transfer.builder().amount(1000L).build();
+        ReflectionTestUtils.setField(transferService, "strategy", TransferStrategy.OPTIMISTIC_LOCK);
+
+        when(securityService.getCurrentUser()).thenReturn(user);
+        when(cardRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
+        when(cardBalanceShardService.drain(fromCard, 700L)).thenAnswer(invocation -> {
+            fromCard.setBalance(fromCard.getBalance() + 700L);
+            return 700L;
+        });
+        when(transferMapper.toEntityFromRequest(request)).thenReturn(transfer);
+        when(transferRepository.save(transfer)).thenReturn(transfer);
+        when(transferMapper.toDTO(transfer)).thenReturn(TransferDto.builder().id(1L).build());
+
+        transferService.createTransfer(request);
+
+        assertEquals(0L, fromCard.getBalance());
+        assertEquals(1000L, toCard.getBalance());
+    }
+}
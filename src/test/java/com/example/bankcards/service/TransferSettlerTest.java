@@ -0,0 +1,101 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.card.CardBalanceShardService;
+import com.example.bankcards.service.pipeline.TransferSettler;
+import com.example.bankcards.service.transfer.TransferCompletedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransferSettlerTest {
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardBalanceShardService cardBalanceShardService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private TransferSettler settler;
+
+    private BankCard createCard(Long id, long balance, int shards) {
+        return BankCard.builder()
+                .id(id)
+                .status(CardStatus.ACTIVE)
+                .currency(Currency.RUB)
+                .expirationDate(LocalDate.now().plusYears(2))
+                .balance(balance)
+                .balanceShards(shards)
+                .build();
+    }
+
+    private Transfer createPendingTransfer(Long id, BankCard fromCard, BankCard toCard, long amount) {
+        return Transfer.builder()
+                .id(id)
+                .fromCard(fromCard)
+                .toCard(toCard)
+                .amount(amount)
+                .currency(Currency.RUB)
+                .creditedAmount(amount)
+                .creditedCurrency(Currency.RUB)
+                .build();
+    }
+
+    @Test
+    void settle_ShouldCreditShardedDestinationThroughShards() {
+        BankCard fromCard = createCard(1L, 1000L, 0);
+        BankCard toCard = createCard(2L, 500L, 4);
+        Transfer transfer = createPendingTransfer(10L, fromCard, toCard, 300L);
+        when(transferRepository.findAllByIdForUpdate(List.of(10L))).thenReturn(List.of(transfer));
+        when(cardRepository.findAllByIdForUpdate(any())).thenReturn(List.of(fromCard, toCard));
+
+        TransferSettler.SettlementResult result = settler.settle(List.of(10L));
+
+        assertEquals(new TransferSettler.SettlementResult(1, 0), result);
+        assertEquals(700L, fromCard.getBalance());
+        assertEquals(500L, toCard.getBalance());
+        assertEquals(TransferStatus.COMPLETED, transfer.getStatus());
+        verify(cardBalanceShardService).credit(toCard, 300L);
+        verify(eventPublisher).publishEvent(any(TransferCompletedEvent.class));
+    }
+
+    @Test
+    void settle_ShouldCreditUnshardedDestinationDirectly() {
+        BankCard fromCard = createCard(1L, 1000L, 0);
+        BankCard toCard = createCard(2L, 500L, 0);
+        Transfer transfer = createPendingTransfer(10L, fromCard, toCard, 300L);
+        when(transferRepository.findAllByIdForUpdate(List.of(10L))).thenReturn(List.of(transfer));
+        when(cardRepository.findAllByIdForUpdate(any())).thenReturn(List.of(fromCard, toCard));
+
+        settler.settle(List.of(10L));
+
+        assertEquals(700L, fromCard.getBalance());
+        assertEquals(800L, toCard.getBalance());
+        verify(cardBalanceShardService, never()).credit(any(), anyLong());
+    }
+}
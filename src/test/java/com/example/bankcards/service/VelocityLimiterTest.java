@@ -0,0 +1,158 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.BankCard;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.Currency;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.repository.CardHoldRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.velocity.VelocityLimitProperties;
+import com.example.bankcards.service.velocity.VelocityLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VelocityLimiterTest {
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Mock
+    private CardHoldRepository holdRepository;
+
+    private VelocityLimitProperties properties;
+
+    private VelocityLimiter velocityLimiter;
+
+    @BeforeEach
+    void setUp() {
+        VelocityLimitProperties.Limits limits = new VelocityLimitProperties.Limits();
+        limits.setCardHourly(1000L);
+        limits.setCardDaily(1500L);
+        limits.setUserDaily(5000L);
+        properties = new VelocityLimitProperties();
+        properties.setLimits(Map.of(Role.ROLE_USER, Map.of(Currency.RUB, limits)));
+        velocityLimiter = new VelocityLimiter(transferRepository, holdRepository, properties);
+    }
+
+    private BankCard createCard(Long id, Role role) {
+        User user = new User();
+        user.setId(1L);
+        user.setRole(role);
+        BankCard card = new BankCard();
+        card.setId(id);
+        card.setUser(user);
+        return card;
+    }
+
+    private TransferRepository.SpendEntry spend(OffsetDateTime at, long amount) {
+        return new TransferRepository.SpendEntry() {
+            @Override
+            public OffsetDateTime getTransferDate() {
+                return at;
+            }
+
+            @Override
+            public Long getAmount() {
+                return amount;
+            }
+        };
+    }
+
+    @Test
+    void acquire_ShouldSeedFromDatabaseOnceAndEnforceHourlyLimit() {
+        BankCard card = createCard(1L, Role.ROLE_USER);
+        when(transferRepository.findSpendByCardIdSince(eq(1L), anyCollection(), any()))
+                .thenReturn(List.of(spend(OffsetDateTime.now().minusMinutes(10), 600L)));
+        when(transferRepository.findSpendByUserIdSince(eq(1L), eq(Currency.RUB), anyCollection(), any()))
+                .thenReturn(List.of());
+
+        velocityLimiter.acquire(card, 300L, Currency.RUB);
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> velocityLimiter.acquire(card, 200L, Currency.RUB));
+        velocityLimiter.acquire(card, 100L, Currency.RUB);
+
+        assertEquals("Card hourly spend limit of 1000 exceeded", exception.getMessage());
+        verify(transferRepository, times(1)).findSpendByCardIdSince(eq(1L), anyCollection(), any());
+    }
+
+    @Test
+    void acquire_ShouldCountSpendOlderThanAnHourAgainstDailyLimitOnly() {
+        BankCard card = createCard(1L, Role.ROLE_USER);
+        when(transferRepository.findSpendByCardIdSince(eq(1L), anyCollection(), any()))
+                .thenReturn(List.of(spend(OffsetDateTime.now().minusHours(5), 1200L)));
+        when(transferRepository.findSpendByUserIdSince(eq(1L), eq(Currency.RUB), anyCollection(), any()))
+                .thenReturn(List.of());
+
+        velocityLimiter.acquire(card, 300L, Currency.RUB);
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> velocityLimiter.acquire(card, 1L, Currency.RUB));
+
+        assertEquals("Card daily spend limit of 1500 exceeded", exception.getMessage());
+    }
+
+    @Test
+    void acquire_WhenUserLimitExceeded_ShouldReleaseCardReservation() {
+        VelocityLimitProperties.Limits limits = properties.limitsFor(Role.ROLE_USER, Currency.RUB);
+        limits.setUserDaily(500L);
+        BankCard card = createCard(1L, Role.ROLE_USER);
+        when(transferRepository.findSpendByCardIdSince(eq(1L), anyCollection(), any())).thenReturn(List.of());
+        when(transferRepository.findSpendByUserIdSince(eq(1L), eq(Currency.RUB), anyCollection(), any()))
+                .thenReturn(List.of(spend(OffsetDateTime.now().minusMinutes(1), 400L)));
+
+        assertThrows(BadRequestException.class, () -> velocityLimiter.acquire(card, 200L, Currency.RUB));
+        limits.setUserDaily(null);
+        velocityLimiter.acquire(card, 1000L, Currency.RUB);
+    }
+
+    @Test
+    void acquire_WithoutLimitsForRoleOrCurrency_ShouldNotTrackSpend() {
+        velocityLimiter.acquire(createCard(1L, Role.ROLE_ADMIN), 1_000_000L, Currency.RUB);
+        velocityLimiter.acquire(createCard(2L, Role.ROLE_USER), 1_000_000L, Currency.USD);
+
+        verifyNoInteractions(transferRepository, holdRepository);
+    }
+
+    @Test
+    void acquire_ShouldCountAuthorizedHoldsWhenSeeding() {
+        BankCard card = createCard(1L, Role.ROLE_USER);
+        when(transferRepository.findSpendByCardIdSince(eq(1L), anyCollection(), any())).thenReturn(List.of());
+        when(holdRepository.findAuthorizedSpendByCardIdSince(eq(1L), any()))
+                .thenReturn(List.of(spend(OffsetDateTime.now().minusMinutes(5), 900L)));
+        when(transferRepository.findSpendByUserIdSince(eq(1L), eq(Currency.RUB), anyCollection(), any()))
+                .thenReturn(List.of());
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> velocityLimiter.acquire(card, 200L, Currency.RUB));
+
+        assertEquals("Card hourly spend limit of 1000 exceeded", exception.getMessage());
+    }
+
+    @Test
+    void release_ShouldReturnReleasedSpendToTheWindows() {
+        BankCard card = createCard(1L, Role.ROLE_USER);
+        OffsetDateTime acquiredAt = OffsetDateTime.now();
+        when(transferRepository.findSpendByCardIdSince(eq(1L), anyCollection(), any())).thenReturn(List.of());
+        when(transferRepository.findSpendByUserIdSince(eq(1L), eq(Currency.RUB), anyCollection(), any()))
+                .thenReturn(List.of());
+
+        velocityLimiter.acquire(card, 800L, Currency.RUB);
+        assertThrows(BadRequestException.class, () -> velocityLimiter.acquire(card, 800L, Currency.RUB));
+        velocityLimiter.release(1L, 1L, Currency.RUB, 800L, acquiredAt);
+        velocityLimiter.acquire(card, 800L, Currency.RUB);
+    }
+}